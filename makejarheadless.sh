@@ -0,0 +1,53 @@
+#!/bin/bash
+SCRIPTTITLE="Headless RISK build script v1.0";
+JDKERR="Did you add the JDK location to your \$PATH variables?\n"
+
+#Builds Risk.jar, the headless game (GameMaster, the bots and the batch
+#daemon), from the core sources in src/ only. The JavaFX front end lives
+#in src-fx/ and is left out, so the jar needs neither JavaFX to build
+#nor a JRE with JavaFX to run. Use makejarjfx.sh for the UI version.
+#Run the result with ./run, e.g.: ./run 1000 7 Easy,Normal,Hard,Seth 4
+printf "\n"
+printf "$SCRIPTTITLE"
+printf "\n"
+
+#rudimentary check for correct folder.
+if ! test -d src ; then
+	echo "***Not in root folder/could not find source folder! Script cannot work."
+	exit 1
+fi
+
+#clear the previous build folder, if it exists
+echo "   Cleaning previous build files, if exist."
+rm -rf build-headless
+mkdir build-headless
+
+#find the core source files only
+echo "   Locating core source files..."
+find src -name "*.java" > srcFilesHeadless.txt
+
+echo "   Compiling..."
+javac -g -d build-headless @srcFilesHeadless.txt
+if [ ! $? -eq 0 ]
+then
+	printf "$JDKERR"
+	exit 1
+fi
+echo "   ...OK!"
+
+#the headless entry point is GameMaster
+echo Main-Class: Master.GameMaster >build-headless/manifest.txt
+
+echo "   Creating Risk.jar . . ."
+cd build-headless
+jar cfm ../Risk.jar manifest.txt */*.class
+if [ ! $? -eq 0 ]
+then
+	echo "   ...failed!"
+	exit 1
+fi
+cd ..
+
+#remove the intermediate files; the jar is all that is needed
+rm -rf build-headless srcFilesHeadless.txt
+echo "   ...OK! Run with: ./run numGames seed [players [threads]]"
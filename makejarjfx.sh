@@ -21,8 +21,8 @@ echo "   Script may be in correct folder! Proceeding..."
 echo "   Cleaning previous build files, if exist."
 rm -rf build
 
-#find all the source files in the project
-#and store them as a list in a text file
+#find all the source files in the project -- the core in src/ and the
+#JavaFX front end in src-fx/ -- and store them as a list in a text file
 echo "   Locating source files..."
 find . -name "*.java" > srcFiles.txt
 echo "   ..."
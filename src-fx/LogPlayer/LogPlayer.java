@@ -1,11 +1,12 @@
 package LogPlayer;
 
 import Util.About;
+import Util.BinaryGameLog;
+import Util.BinaryLogReader;
 import Util.TextNodes;
 
 import java.awt.Desktop;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -51,6 +52,7 @@ public class LogPlayer extends Application {
     private static final int BUSYROUTINE_RETRY_COUNT = 7;
     private static final int BUSYROUTINE_WAIT_TIME = 350;
     private static final String LOG_FILE = "LOG.txt";
+    private static final String BINARY_LOG_FILE = "LOG" + BinaryGameLog.FILE_EXTENSION;
     private static final String EVENT_DELIM = "...";
     private static final int PLAY_FWD = 1;
     private static final int FAST_FWD = -1;
@@ -100,6 +102,30 @@ public class LogPlayer extends Application {
         return LogPlayer.launchedFromFXUIGM = true;
     }
 
+    /**
+     * The log of the last game: LOG.txt, unless the last game wrote the
+     * compact LOG.rlog instead.
+     */
+    private static File defaultLogFile() {
+        File text = new File(LOG_FILE);
+        File binary = new File(BINARY_LOG_FILE);
+        if (binary.isFile() && (!text.isFile() || binary.lastModified() > text.lastModified())) {
+            return binary;
+        }
+        return text;
+    }
+
+    /**
+     * Opens a log for playback. A binary log is decoded up front into the
+     * same lines a text log would hold.
+     */
+    private static Scanner openLog(File file) throws IOException {
+        if (BinaryLogReader.isBinaryLog(file)) {
+            return new Scanner(BinaryLogReader.toText(file));
+        }
+        return new Scanner(file);
+    }
+
     @Override
     public void start(Stage primaryStage) {
         try {
@@ -111,9 +137,9 @@ public class LogPlayer extends Application {
             
             this.log = null;
             try {
-            	this.log = new Scanner(new File(LOG_FILE));
+            	this.log = openLog(defaultLogFile());
             }
-            catch (FileNotFoundException e) {
+            catch (IOException e) {
             	errorDisplayBit = true;
             	errorText = ("LOGPLAYER: couldn't find old log text file: " + LOG_FILE + "\n");
             }
@@ -124,10 +150,10 @@ public class LogPlayer extends Application {
                 File file = fileChooser.showOpenDialog(new Stage());
                 if(file != null){
                 	try{
-                    	this.log = new Scanner(file);
+                    	this.log = openLog(file);
                     	errorDisplayBit = false;
                     }
-                	catch (FileNotFoundException e) {
+                	catch (IOException e) {
                 		e.printStackTrace();
                     	errorText += ("LOGPLAYER: couldn't find old log text file: " + file.getAbsolutePath());
                     	errorDisplayBit = true;
@@ -14,24 +14,22 @@ import Player.FXUIPlayer;
 import Player.HardDefaultPlayer;
 import Player.NormalDefaultPlayer;
 import Player.Player;
-import Player.PlayerFactory;
 import Player.Seth;
-import Response.AdvanceResponse;
-import Response.AttackResponse;
-import Response.CardTurnInResponse;
-import Response.DefendResponse;
-import Response.FortifyResponse;
-import Response.ReinforcementResponse;
 import Util.About;
+import Util.AsyncLogWriter;
+import Util.BinaryGameLog;
 import Util.Card;
-import Util.DiceRoller;
+import Util.CoalescingPublisher;
 import Util.FXUIAudioAC;
+import Util.FXUIUtils;
 import Util.FXUI_Crossbar;
-import Util.PlayerEliminatedException;
+import Util.GameLog;
+import Util.RandomStreams;
 import Util.RiskConstants;
 import Util.RiskUtils;
-import Util.RollOutcome;
 import Util.SavePoint;
+import Util.StatsLog;
+import Util.TextGameLog;
 import Util.TextNodes;
 import Util.WindowResizeHandler;
 
@@ -40,11 +38,11 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectInputStream;
+import java.io.Writer;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -52,15 +50,14 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Random;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import javafx.application.Application;
@@ -128,8 +125,6 @@ public class FXUIGameMaster extends Application {
 	 * diagnostic info. False: suppress display of diagnostic info.
 	 * (Every call to diagnosticPrintln checks this, currently.) */
 	public static final boolean DIAGNOSTIC_MODE = false;
-	//private static final FXUIPlayer DUMMY_FXUIPLAYER_TESTER = new FXUIPlayer("DUMMY_FXUI");
-	private static final FXUIPlayer DUMMY_FXUIPLAYER_TESTER = null;
 
 	/*
 	 *Continue on with remaining variables and constants as normal... 
@@ -148,6 +143,7 @@ public class FXUIGameMaster extends Application {
 	private static final boolean FLAT_UI = true;
 	private static int workingMode = IDLE_MODE;
 	protected static final String LOGFILE = "LOG.txt";
+	protected static final String BINARY_LOGFILE = "LOG" + BinaryGameLog.FILE_EXTENSION;
 	protected static final String STATSFILE = "STATS.txt";
 	protected static final String EVENT_DELIM = "...";
 	protected static final AtomicBoolean GAME_PAUSED = new AtomicBoolean(false);
@@ -159,12 +155,9 @@ public class FXUIGameMaster extends Application {
 	protected static FXUI_Crossbar crossbar = new FXUI_Crossbar();
 	protected static About nAbout;
 	protected static FXUIAudioAC audioManager = null;
+	protected GameEngine engine;
 	protected RiskMap map;
-	protected Deque<Card> deck;
 	protected static String desiredPlayersForGame = RiskConstants.DEFAULT_PLAYERS;
-	protected List<String> players;
-	protected Map<String, Player> playerNameToPlayerObjHMap;
-	protected Map<String, Collection<Card>> playerToCardDeckHMap;
 	protected Map<String, Node[]> playerToIndicatorHMap;
 	private static final int DEFAULT_PLAYER_NAME_FONT_SIZE = 22;
 	protected static final long DEFAULT_DELAY_BETWEEN_MOVES = 1000;
@@ -172,15 +165,13 @@ public class FXUIGameMaster extends Application {
 	protected static short delaySelection = 2;
 	public static final double FONT_MULTIPLIER = 1.5;
 
-	protected static RiskMap starterMap = null;
-	protected static Random rand;
-	protected static int allocationIdx = 0;
+	protected static int gamesStarted = 0;
 	protected static HashMap<String, Integer> winLog = new HashMap<>();
 
-	protected FileWriter log, stats;
+	protected GameLog log;
+	protected Writer stats;
 	protected static List<String> internalLogCache = Collections.synchronizedList(new ArrayList<String>());
 	protected List<String> allPlayers;
-	protected int round, turnCount;
 
 	private static Scene scene;
 	private static Stage mainStage;
@@ -196,8 +187,14 @@ public class FXUIGameMaster extends Application {
 	private HashMap<String, Text> textNodeMap;
 	private Map<String, Color> playerColorMap;
 	private static boolean fullAppExit = false;
-	private static final List<Country> COUNTRIES_WITH_UPDATED_OWNERS = Collections.synchronizedList(new LinkedList<Country>());
-	private static final List<Country> COUNTRIES_WITH_UPDATED_TROOP_COUNTS = Collections.synchronizedList(new LinkedList<Country>());
+	private static final ExecutorService UI_REFRESH_POOL = Executors.newCachedThreadPool(r -> {
+		Thread refresher = new Thread(r, "refreshUIElements");
+		refresher.setDaemon(true);
+		return refresher;
+	});
+	//the latest change to each country is all the board needs to show
+	private static final CoalescingPublisher<Country> OWNER_CHANGES = new CoalescingPublisher<>(UI_REFRESH_POOL);
+	private static final CoalescingPublisher<Country> ARMY_CHANGES = new CoalescingPublisher<>(UI_REFRESH_POOL);
 	private static Date gameStartTime = null;
 	private static final ArrayList<Node> nodesShownUponIdle = new ArrayList<>();
 
@@ -225,8 +222,8 @@ public class FXUIGameMaster extends Application {
 	private static Player currentPlayer = null;
 	private static boolean skipExitConfirmation = false;
 	private static Thread priGameLogicThread = null;
-	private static Thread clockedUIRefreshThreadA = null;
-	private static Thread clockedUIRefreshThreadB = null;
+	private static CoalescingPublisher.Subscription ownerRefresh = null;
+	private static CoalescingPublisher.Subscription armyRefresh = null;
 	private static Node gameRunningIndicator = null;
 	private static boolean indicatorAnimatedAlready = false;
 	private static Circle playerChangeIndicSecondary = null;
@@ -997,8 +994,10 @@ public class FXUIGameMaster extends Application {
 		disableSaveButton();
 		boolean saveIsReady;
 		HashMap<String, Collection<Card>> playerCardsetMap = new HashMap<>();
-		this.players.stream().forEach((player) -> {
+		HashMap<String, Player> activePlayers = new HashMap<>();
+		this.engine.getPlayerNames().stream().forEach((player) -> {
 			playerCardsetMap.put(player, createCardSetCopy(player));
+			activePlayers.put(player, this.engine.getPlayer(player));
 		});
 		/*
 		 * If loadedSaveData != null, we're working with an old save, so transplant the original save date
@@ -1010,11 +1009,11 @@ public class FXUIGameMaster extends Application {
 				? loadedSaveData.getOriginalSaveDate()
 				: activeSaveData.getOriginalSaveDate();
 		saveIsReady = activeSaveData.prepareOverallSave(
-				originalSaveDate, new Date(), this.round,
-				this.map,
-				playerNameToPlayerObjHMap, this.allPlayers,
+				originalSaveDate, new Date(), this.engine.getRound(),
+				this.map.getSnapshot(),
+				activePlayers, this.allPlayers,
 				FXUIGameMaster.internalLogCache,
-				this.players,
+				new ArrayList<>(this.engine.getPlayerNames()),
 				playerCardsetMap
 		);
 		System.out.println(INFO + "Checkpoint reached.");
@@ -1035,7 +1034,13 @@ public class FXUIGameMaster extends Application {
 	 */
 	private static boolean performSave(boolean customSave) {
 		disableSaveButton();
-		boolean succeeded = activeSaveData.performSave(customSave, saveto_filename);
+		File customFile = null;
+		if (customSave) {
+			final FileChooser fileChooser = new FileChooser();
+			fileChooser.setTitle("Set your save location & save now:");
+			customFile = fileChooser.showSaveDialog(new Stage());
+		}
+		boolean succeeded = activeSaveData.performSave(customFile, saveto_filename);
 		if(succeeded){
 			displayExtendedMessage("checkpoint saved\n" 
 					+ activeSaveData.getWriteStatus().getCustomDescription());
@@ -1124,8 +1129,8 @@ public class FXUIGameMaster extends Application {
 					this.log.close();
 					this.stats.close();
 				}
-				this.log = new FileWriter(LOGFILE);
-				this.stats = new FileWriter(STATSFILE);
+				this.log = openLog();
+				this.stats = new AsyncLogWriter(STATSFILE);
 			} catch (IOException e) {
 				System.out.println("Failed to recreate log file");
 				e.printStackTrace();
@@ -1148,15 +1153,8 @@ public class FXUIGameMaster extends Application {
 		boolean success = true;
 		//clear the player list...just in case.
 		writeLogLn(true, "Loading players...");
-		try {
-			this.playerNameToPlayerObjHMap.clear();
-			this.allPlayers.clear();
-			this.players.clear();
-		} catch (Exception e) {
-			this.playerNameToPlayerObjHMap = Collections.synchronizedMap(new HashMap<String, Player>());
-			this.allPlayers = new ArrayList<>();
-			this.players = new ArrayList<>();
-		}
+		this.allPlayers = new ArrayList<>();
+		List<Player> activePlayers = new ArrayList<>();
 		final String FXP = FXUIPlayer.class.toString();
 		final String EDP = EasyDefaultPlayer.class.toString();
 		final String HDP = HardDefaultPlayer.class.toString();
@@ -1189,36 +1187,36 @@ public class FXUIGameMaster extends Application {
 					+ " as a valid player. (Attempted type: " + loadedSave.getActivePlayersAndTheirTypes().get(playerIn.getKey()) + "...Is the Player type know to the GameMaster?)");
 					success = false;
 				} else {
-					this.playerNameToPlayerObjHMap.put(playerIn.getKey(), playerObjectToCast);
-					this.players.add(playerIn.getKey());
+					activePlayers.add(playerObjectToCast);
 				}
 			}
 		}
 
 		//rebuild the card deck the players had at the time of the save
-		this.playerToCardDeckHMap = Collections.synchronizedMap(new HashMap<String, Collection<Card>>());
-		for (Player playerM : this.playerNameToPlayerObjHMap.values()) {
+		Map<String, Collection<Card>> hands = new HashMap<>();
+		for (Player playerM : activePlayers) {
 			ArrayList<Card> newCards = new ArrayList<>();
 			if (loadedSave.getPlayersAndTheirCards().get(playerM.getName()) != null) {
 				for (String cardRepresentation : loadedSave.getPlayersAndTheirCards().get(playerM.getName())) {
 					if (cardRepresentation.contains(RiskConstants.WILD_CARD)) {
-						newCards.add(new Card(RiskConstants.WILD_CARD, null));
+						newCards.add(Card.valueOf(RiskConstants.WILD_CARD, null));
 					} else {
 						String[] cardDetails = cardRepresentation.split(",");
-						Card cdOut = new Card(cardDetails[0], COUNTRIES_BY_NAME.get(cardDetails[1]));
+						Card cdOut = Card.valueOf(cardDetails[0], COUNTRIES_BY_NAME.get(cardDetails[1]));
 						newCards.add(cdOut);
 					}
 				}
 			}
-			this.playerToCardDeckHMap.put(playerM.getName(), newCards);
+			hands.put(playerM.getName(), newCards);
 		}
+		this.engine.restorePlayers(activePlayers, hands);
 
 		//Make sure we have the right number of players and there was no issue.
-		if (this.players.size() < RiskConstants.MIN_PLAYERS || this.players.size() > RiskConstants.MAX_PLAYERS || !success) {
+		if (activePlayers.size() < RiskConstants.MIN_PLAYERS || activePlayers.size() > RiskConstants.MAX_PLAYERS || !success) {
 			return false; //there was a failure of some sort
 		} else {
 			writeLogLn(true, "Players:");
-			this.players.stream().forEach((playerName) -> {
+			this.engine.getPlayerNames().stream().forEach((playerName) -> {
 				writeLogLn(true, playerName);
 			});
 			writeLogLn(true, EVENT_DELIM);
@@ -1237,13 +1235,18 @@ public class FXUIGameMaster extends Application {
 	 * @return returns "true" if all country info could be read, else "false"
 	 */
 	public boolean restoreCountryInfo(SavePoint loadedSave) {
+		if (!COUNTRIES_BY_NAME.keySet().containsAll(loadedSave.getCountriesAndArmyCount().keySet())
+				|| !COUNTRIES_BY_NAME.keySet().containsAll(loadedSave.getCountriesAndOwners().keySet())) {
+			System.out.println(ERROR + "The save names a country that is not on the board.");
+			return false;
+		}
 		loadedSave.getCountriesAndArmyCount().entrySet().stream().forEach((entryOutArmy) -> {
-			mapSetCountryArmyCount(COUNTRIES_BY_NAME.get(entryOutArmy.getKey()), entryOutArmy.getValue());
+			this.engine.setCountryArmies(COUNTRIES_BY_NAME.get(entryOutArmy.getKey()), entryOutArmy.getValue());
 		});
 		loadedSave.getCountriesAndOwners().entrySet().stream().forEach((entryOutOwner) -> {
-			mapSetCountryOwner(COUNTRIES_BY_NAME.get(entryOutOwner.getKey()), entryOutOwner.getValue());
+			this.engine.setCountryOwner(COUNTRIES_BY_NAME.get(entryOutOwner.getKey()), entryOutOwner.getValue());
 		});
-		this.round = loadedSave.getRoundsPlayed();
+		this.engine.setRound(loadedSave.getRoundsPlayed());
 
 		return loadedSave.getCountriesAndArmyCount().entrySet().size() == loadedSave.getCountriesAndOwners().entrySet().size()
 				&& loadedSave.getCountriesAndOwners().entrySet().size() > 0;
@@ -1367,12 +1370,10 @@ public class FXUIGameMaster extends Application {
 	 * is set to play.
 	 */
 	private boolean checkIfBotsOnly(){
-		if(this.playerNameToPlayerObjHMap == null 
-				|| this.playerNameToPlayerObjHMap.entrySet() == null 
-				|| this.playerNameToPlayerObjHMap.entrySet().isEmpty()){
+		if(this.engine == null || this.engine.getPlayerNames().isEmpty()){
 			throw new UnsupportedOperationException("Can't check empty/null player list for bots or humans");
 		}
-		return this.playerNameToPlayerObjHMap.entrySet().stream().noneMatch((comparePlayer) -> (comparePlayer.getValue().getClass().toString().equals(FXUIPlayer.class.toString())));
+		return this.engine.getPlayerNames().stream().noneMatch((playerName) -> (this.engine.getPlayer(playerName).getClass().toString().equals(FXUIPlayer.class.toString())));
 	}
 
 	/**
@@ -1387,16 +1388,22 @@ public class FXUIGameMaster extends Application {
 	private String begin() {
 		boolean initiationGood = false;
 		boolean winState = false;
+		String result = null;
 		FXUIPlayer.setMainWindowConnection(FXUIGameMaster.primaryInteractionPane, textNodeMap);
 		if (workingMode == NEW_GAME_MODE) {
-			if (!(initiationGood = loadPlayers(FXUIGameMaster.desiredPlayersForGame))) {
+			FXUIPlayer.setCrossbar(FXUIGameMaster.crossbar);
+			if (!(initiationGood = this.engine.loadPlayers(FXUIGameMaster.desiredPlayersForGame))) {
 				System.out.println(ERROR + "Invalid number of players. 2-6 Players allowed.");
 				setPlayStatus("creation of new game failed; 2-6 Players allowed");
 			} else {
+				this.allPlayers = new ArrayList<>(this.engine.getPlayerNames());
 				displayExtendedMessage("new game started.");
 				representPlayersOnUI();
-				allocateMap();
-				initiationGood = initializeForces() && initiationGood;
+				this.engine.allocateMap();
+				//a human must be given as long as it takes to decide, and to win
+				this.engine.setDeadlinesEnforced(checkIfBotsOnly());
+				this.engine.setStalemateDetection(checkIfBotsOnly());
+				initiationGood = this.engine.initializeForces() && initiationGood;
 				if (!initiationGood) {
 					setPlayStatus("creation of new game failed");
 				}
@@ -1414,75 +1421,30 @@ public class FXUIGameMaster extends Application {
 		if (initiationGood) {
 			this.makeUIElementsRefreshThread();
 			crossbar.resetEndGameSignal();
-			//play round-robin until there is only one player left
-			int turn = 0;
 			if(!(FXUIGameMaster.runBotsOnly = checkIfBotsOnly())){
 				prepareSave();
 			}
-			boolean prepSaveThisRound;
-			while (this.players.size() > 1 && !FXUIGameMaster.endGame) {
-				if(FXUIGameMaster.GAME_PAUSED.get()){
-					RiskUtils.sleep(500);
-				}
-				else{
-					if (turn == 0) {
-						this.round++;
-						writeLogLn(true, "Beginning Round " + round + "!");
-						if (this.round > RiskConstants.MAX_ROUNDS) {
-							return "Stalemate!";
-						}
-					}
-					if(FXUIGameMaster.audioManager != null) FXUIGameMaster.audioManager.playNextNote();
-					flashPlayerChangeIndicator();
-					FXUIGameMaster.currentPlayer = this.playerNameToPlayerObjHMap.get(this.players.get(turn));
-					prepSaveThisRound = FXUIGameMaster.currentPlayer.getClass().toString().equals(FXUIPlayer.class.toString())  && !FXUIGameMaster.runBotsOnly;
-					RiskUtils.sleep(FXUIGameMaster.delayTimeBetweenBots);
-					writeLogLn(true, FXUIGameMaster.currentPlayer.getName() + " is starting their turn.");
-					writeStatsLn();
-					this.turnCount++;
-					try {
-						highlightCurrentPlayer(false, FXUIGameMaster.currentPlayer);
-						for (int gameStep = 4; gameStep > 0 && !(FXUIGameMaster.endGame = crossbar.isHumanEndingGame() || FXUIGameMaster.endGame); gameStep--) {
-							RiskUtils.sleep(FXUIGameMaster.delayTimeBetweenBots);
-							switch (gameStep) {
-							case 4:
-								reinforce(FXUIGameMaster.currentPlayer, true);
-								break;
-							case 3:
-								attack(FXUIGameMaster.currentPlayer);
-								break;
-							case 2:
-								fortify(FXUIGameMaster.currentPlayer);
-								break;
-							case 1:
-								turn = (this.players.indexOf(FXUIGameMaster.currentPlayer.getName()) + 1) % this.players.size();
-								if (prepSaveThisRound) {
-									prepareSave();
-									performSave(false);
-								}
-								break;
-							default:
-								break;
-							}
-						}
-					} catch (PlayerEliminatedException e) {
-						//If an elimination exception is thrown up to this level,
-						//then it was currentPlayer who was eliminated.
-						turn %= this.players.size();
-					}
-				}
+			this.engine.setDeadlinesEnforced(FXUIGameMaster.runBotsOnly);
+			this.engine.setStalemateDetection(FXUIGameMaster.runBotsOnly);
+			//a loaded game may have reopened the stats file
+			if (this.stats != null) {
+				this.engine.addEventSink(new StatsLog(this.stats, this.map, this.engine.getPlayerNames()));
 			}
+			//play round-robin until there is only one player left
+			result = this.engine.play();
+			this.engine.close();
 
 			FXUIGameMaster.currentPlayer = null;
 			highlightCurrentPlayer(true, null);
 			//representPlayersOnUI();
-			if (!FXUIGameMaster.fullAppExit && !FXUIGameMaster.endGame && this.players.size() > 0) {
+			if (!FXUIGameMaster.fullAppExit && !FXUIGameMaster.endGame && result != null && !GameEngine.isStalemate(result)) {
 				winState = true;
 				if(FXUIGameMaster.audioManager != null) FXUIGameMaster.audioManager.playEndJingle();
-				writeStatsLn();
-				highlightCurrentPlayer(true, this.playerNameToPlayerObjHMap.get(this.players.get(0)));
-				System.out.println(this.players.get(0) + " is the victor!");
-				writeLogLn(true, this.players.get(0) + " is the victor!");
+				highlightCurrentPlayer(true, this.engine.getPlayer(result));
+				System.out.println(result + " is the victor!");
+			} else if (GameEngine.isStalemate(result)) {
+				displayExtendedMessage(result + " Nobody wins after " + this.engine.getRound() + " rounds.");
+				setPlayStatus("(stalemate)");
 			} else if (!FXUIGameMaster.fullAppExit) {
 				displayExtendedMessage("Thanks for playing!");
 				System.out.println(INFO + "Early game end "
@@ -1490,14 +1452,17 @@ public class FXUIGameMaster extends Application {
 			} else {
 				System.out.println(INFO + "Game forced to exit; sorry 'bout it!");
 			}
+			if (!this.engine.getDecisionFailures().isEmpty()) {
+				this.engine.getDecisionFailures().printSummary(System.out);
+			}
 		}
 		else{
 			System.out.println("Game is over a bit prematurely. If loading"
 					+ " an old save file, it is likely from when a player"
 					+ " has already won. If making a new game, somehow there"
 					+ " may just be too few players (somehow)");
-			if(this.players != null && this.players.size() == 1){
-				System.out.println("Maybe " + this.players.get(0) + " is the victor?");
+			if(this.engine.getPlayerNames().size() == 1){
+				System.out.println("Maybe " + this.engine.getPlayerNames().get(0) + " is the victor?");
 			}
 		}
 		try {
@@ -1513,10 +1478,12 @@ public class FXUIGameMaster extends Application {
 		setButtonAvailability();
 		crossbar.resetEndGameSignal();
 		if (winState) {
-			displayExtendedMessage(this.players.get(0) + " is the victor after " + this.round + " rounds!");
-			showWinnerScreen(this.players.get(0));
-			setPlayStatus("(" + this.players.get(0) + " won!)");
-			return this.players.get(0);
+			displayExtendedMessage(result + " is the victor after " + this.engine.getRound() + " rounds!");
+			showWinnerScreen(result);
+			setPlayStatus("(" + result + " won!)");
+			return result;
+		} else if (GameEngine.isStalemate(result)) {
+			return result;
 		} else {
 			FXUIGameMaster.endGame = false;
 			return null;
@@ -1524,762 +1491,13 @@ public class FXUIGameMaster extends Application {
 	}
 
 	/**
-	 * Triggers each Player type to invoke initial troop allocation on countries
-	 * assigned to each player. Used only for new games, as saved games can
-	 * restore their state fairly well.
-	 *
-	 * @return returns true if at least one player succeeded, false otherwise
-	 */
-	protected boolean initializeForces() {
-		boolean valid;
-		int attempts;
-		int playerIndex = 0;
-		//get initial troop allocation
-		while (playerIndex < this.players.size() && !crossbar.isHumanEndingGame()) {
-			Player player = this.playerNameToPlayerObjHMap.get(this.players.get(playerIndex));
-			writeLogLn(true, "Getting initial troop allocation from " + player.getName() + "...");
-			int reinforcements;
-			valid = false;
-			attempts = 0;
-			/* If we reach a point where there is only one player remaining,
-			 * given that we are just doing the initial player setup, the game
-			 * is no longer valid
-			 **/
-			if (this.players.size() < RiskConstants.MIN_PLAYERS) {
-				try {
-					eliminate(player, null, "Player count: " + this.players.size() + "; required players: " + RiskConstants.MIN_PLAYERS);
-				} catch (PlayerEliminatedException e) {
-					writeLogLn(false, "WARNING: Invalid game initialization. Invalid game state reached!");
-				}
-			} else {
-				while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !FXUIGameMaster.fullAppExit && !crossbar.isHumanEndingGame()) {
-					attempts++;
-					reinforcements = RiskConstants.INIT_ARMIES / this.players.size();
-					ReinforcementResponse rsp = tryInitialAllocation(player, reinforcements);
-					if (crossbar.isHumanEndingGame()) {
-						break;
-					}
-					if (valid = ReinforcementResponse.isValidResponse(rsp, this.map, player.getName(), reinforcements)
-							&& validateInitialAllocation(rsp.getAllocation(), player.getName(), reinforcements)) {
-						allocateArmies(player.getName(), rsp.getAllocation(), reinforcements);
-						playerIndex++;
-						writeLogLn(true, "Troops successfully allocated for " + player.getName() + "...");
-					}
-				}
-				if (!valid || crossbar.isHumanEndingGame()) {
-					try {
-						if (crossbar.isHumanEndingGame()) {
-							eliminate(player, null, "Ending game prematurely; ejecting player from game!");
-						} else {
-							eliminate(player, null, "You failed to provide a valid initial army allocation.");
-						}
-					} catch (PlayerEliminatedException e) {
-						playerIndex = 0;
-					}
-				}
-			}
-		}
-		return this.players.size() > 0;
-	}
-
-	/**
-	 * Attempts to ensure that any Player is indeed registered as a known player
-	 * and looking up the name of the player points to the correct Player. If
-	 * the Player is not found in the list (due to some goof up), triggers
-	 * a player elimination to remove the Player from the roster.
-	 * @param player
-	 * @throws PlayerEliminatedException
+	 * Creates a shallow copy of the cards a player holds. Cards are immutable,
+	 * so only the hand itself is copied; the save is prepared while the game
+	 * keeps changing the hand.
 	 */
-	protected void validatePlayerName(Player player) throws PlayerEliminatedException {
-		if (!(this.playerNameToPlayerObjHMap.containsKey(player.getName()) && this.playerNameToPlayerObjHMap.get(player.getName()) == player)) {
-			eliminate(player, null, "Players who hide their true identity are not welcome here. BEGONE!");
-		}
-	}
-
-	/**
-	 * Replicates the {@link RiskMap #setCountryOwner(Country, String)} function
-	 * with the side-effect of keeping track of which countries have changed,
-	 * to assist with UI refresh.
-	 * Sets the owner (where the owner is the name of a given Player) 
-	 * of a given country.
-	 * @param country
-	 * @param owner
-	 */
-	private void mapSetCountryOwner(Country country, String owner){
-		if(country == null){
-			System.out.println("Null country being added to list. What? mSCO");
-		}
-		this.map.setCountryOwner(country, owner);
-		if(!FXUIGameMaster.COUNTRIES_WITH_UPDATED_OWNERS.contains(country)){
-			FXUIGameMaster.COUNTRIES_WITH_UPDATED_OWNERS.add(country);
-		}
-	}
-
-	/**
-	 * Replicates the {@link RiskMap #setCountryArmies(Country, int)} function
-	 * with the side-effect of keeping track of which countries have changed
-	 * to assist with UI refresh.
-	 * Sets the number of army members in a given Country on the RiskMap.
-	 * @param country
-	 * @param numArmies
-	 */
-	private void mapSetCountryArmyCount(Country country, int numArmies){
-		if(country == null){
-			System.out.println("Null country being added to list. What? mSCAC");
-		}
-		this.map.setCountryArmies(country, numArmies);
-		if(!FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.contains(country)){
-			FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.add(country);
-		}
-	}
-
-	/**
-	 * Replicates the {@link RiskMap #addCountryArmies(Country, int)} function
-	 * with the side-effect of keeping track of which countries have changed
-	 * to assist with UI refresh.
-	 * Adds to (subtracts from) the number of army members in a given Country.
-	 * @param country
-	 * @param numArmies the number of add (or subtract, if negative)
-	 */
-	private void mapAddToCountryArmyCount(Country country, int numArmies){
-		if(country == null){
-			System.out.println("Null country being added to list. What? mATCAC");
-		}
-		this.map.addCountryArmies(country, numArmies);
-		if(!FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.contains(country)){
-			FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.add(country);
-		}
-	}
-
-	/**
-	 * Prompts a given player to perform a reinforcement move. Handles multiple 
-	 * retries should the Player fail to request a valid reinforcement.
-	 * (Removes player should attempts/retries exceed limit.)
-	 * @param currentPlayer
-	 * @param withCountryBonus
-	 * @throws PlayerEliminatedException
-	 */
-	protected void reinforce(Player currentPlayer, boolean withCountryBonus) throws PlayerEliminatedException {
-		int reinforcements = 0;
-		int attempts = 0;
-		boolean valid = false;
-		reinforcements += getCardTurnIn(currentPlayer, getPlayerCardCounts());
-		while(FXUIGameMaster.GAME_PAUSED.get())
-		{
-			RiskUtils.sleep(500);
-		}
-		while(FXUIGameMaster.GAME_PAUSED.get() && !(FXUIGameMaster.endGame = crossbar.isHumanEndingGame() || FXUIGameMaster.endGame))
-		{
-			RiskUtils.sleep(500);
-		}
-		if (FXUIGameMaster.endGame = crossbar.isHumanEndingGame() || FXUIGameMaster.endGame) {
-			return;
-		}
-		Map<String, Integer> oppCards = getPlayerCardCounts();
-		if (withCountryBonus) {
-			reinforcements += RiskUtils.calculateReinforcements(this.map, currentPlayer.getName());
-		}
-		writeLogLn(true, currentPlayer.getName() + " reinforcing with " + reinforcements + " armies.");
-		while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !FXUIGameMaster.fullAppExit) {
-			attempts++;
-			ReinforcementResponse rsp = tryReinforce(currentPlayer, oppCards, reinforcements);
-			if (FXUIGameMaster.endGame = crossbar.isHumanEndingGame() || FXUIGameMaster.endGame) {
-				return;
-			}
-			if (valid = ReinforcementResponse.isValidResponse(rsp, this.map, currentPlayer.getName(), reinforcements)) {
-				rsp.getAllocation().entrySet().stream().map((entry) -> {
-					this.mapAddToCountryArmyCount(entry.getKey(), entry.getValue());
-					return entry;
-				}).forEach((entry) -> {
-					writeLogLn(true, entry.getValue() + " " + entry.getKey().getName());
-				});
-			}
-		}
-		if (!valid) {
-			eliminate(currentPlayer, null, "You failed to provide a valid reinforcement allocation.");
-		} else if (crossbar.isHumanEndingGame()) {
-			eliminate(currentPlayer, null, "Player decided to leave. Come back any time, friend!");
-		}
-		writeLogLn(true, EVENT_DELIM);
-	}
-
-	/**
-	 * Prompts a given player to perform an attack move. Handles any attempts to
-	 * retry an attack should a given Player attempt an invalid attack.
-	 * (Removes player should attempts/retries exceed limit.)
-	 * @param currentPlayer
-	 * @throws PlayerEliminatedException
-	 */
-	protected void attack(Player currentPlayer) throws PlayerEliminatedException {
-		int attempts = 0;
-		boolean resetTurn;
-		boolean hasGottenCard = false;
-		while (attempts < RiskConstants.MAX_ATTEMPTS 
-				&& !FXUIGameMaster.fullAppExit
-				&& this.players.size() > 1) {
-			if(!FXUIGameMaster.GAME_PAUSED.get()){
-				attempts++;
-				resetTurn = false;
-				AttackResponse atkRsp = tryAttack(currentPlayer, createCardSetCopy(currentPlayer.getName()), getPlayerCardCounts());
-				if (atkRsp != null) {
-					if (AttackResponse.isValidResponse(atkRsp, this.map, currentPlayer.getName())) {
-						writeLogLn(true, currentPlayer.getName() + " is attacking "
-								+ atkRsp.getDfdCountry() + "(" + this.map.getCountryArmies(atkRsp.getDfdCountry())
-								+ ") from " + atkRsp.getAtkCountry() + "(" + this.map.getCountryArmies(atkRsp.getAtkCountry()) + ")!");
-						attempts = 0;
-						Player defender = getOwnerObject(atkRsp.getDfdCountry());
-						DefendResponse dfdRsp = null;
-						try {
-							//this is guaranteed to either be valid or throw a PlayerEliminatedException
-							dfdRsp = defend(defender, getPlayerCardCounts(), atkRsp);
-						} catch (PlayerEliminatedException e) {
-							//defender messed up and was auto-eliminated
-							resetTurn = true;
-						}
-						if (!resetTurn) {
-							FXUIGameMaster.displayExtendedMessage("Attacker: " + currentPlayer.getName()
-							+ " / Defender: " + defender.getName() + "\n" + 
-							carryOutAttack(atkRsp, dfdRsp));
-							hasGottenCard = checkForTakeover(currentPlayer, atkRsp, hasGottenCard) || hasGottenCard;
-						}
-					}
-				} else {
-					//because an attack is not required, a null response is taken to mean that the player declines the opportunity
-					attempts = RiskConstants.MAX_ATTEMPTS;
-				}	
-			}
-			else{
-				RiskUtils.sleep(500);
-			}
-		}
-	}
-
-	/**
-	 * Prompts a given player, when under attack, to perform a defense move 
-	 * (generally to select how many dice are going to be rolled). (Removes the
-	 * Player should it/they fail to supply a valid defense response.)
-	 * @param defender
-	 * @param oppCards
-	 * @param atkRsp
-	 * @return
-	 * @throws PlayerEliminatedException
-	 */
-	protected DefendResponse defend(Player defender, Map<String, Integer> oppCards, AttackResponse atkRsp) throws PlayerEliminatedException {
-		int attempts = 0;
-		boolean valid = false;
-		DefendResponse rsp = null;
-		while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !FXUIGameMaster.fullAppExit) {
-			if(FXUIGameMaster.GAME_PAUSED.get())
-			{
-				RiskUtils.sleep(500);
-			}
-			else{
-				attempts++;
-				rsp = tryDefend(defender, createCardSetCopy(defender.getName()), oppCards, new AttackResponse(atkRsp));
-				valid = DefendResponse.isValidResponse(rsp, this.map, atkRsp.getDfdCountry());
-			}
-		}
-		if (!valid) {
-			eliminate(defender, null, "You failed to provide a valid defense response.");
-		} else if (crossbar.isHumanEndingGame()) {
-			eliminate(defender, null, "This defender wants a break. Go ahead, friend. You deserve it.");
-		}
-		return rsp;
-	}
-
-	/**
-	 * Between an attack attempt and a defense attempt, determines (based on dice
-	 * rolls) whether the attacker or defender was successful, and how many troops
-	 * were lost by either/or during the attack.
-	 * @param atk the instructions on how to attempt the attack
-	 * @param dfd the defense response to the attack attempt
-	 * @return a string explaining how the attack attempt went (how many troops were lost
-	 * per player in the attack)
-	 */
-	protected String carryOutAttack(AttackResponse atk, DefendResponse dfd) {
-		RollOutcome result = DiceRoller.roll(atk.getNumDice(), dfd.getNumDice());
-		this.mapAddToCountryArmyCount(atk.getAtkCountry(), -1 * result.getAtkLosses());
-		this.mapAddToCountryArmyCount(atk.getDfdCountry(), -1 * result.getDfdLosses());
-		String messageOut;
-		try{
-			messageOut = 
-					map.getCountryOwner(atk.getAtkCountry())
-					+ " lost: " + result.getAtkLosses() +"; "
-					+ map.getCountryOwner(atk.getDfdCountry())
-					+ " lost: " + result.getDfdLosses();
-		}
-		catch(NullPointerException npe){
-			messageOut = "\t[unknown atk] lost: " + result.getAtkLosses() + "; [unknown dfd] lost: " + result.getDfdLosses();
-		}
-		writeLogLn(true, messageOut);
-		return messageOut;
-	}
-
-	/**
-	 * Once an attack has been executed, checks the country to see if no troops
-	 * remain and, if this is the case (if no troops remain from the prior occupant),
-	 * prompts the attacker to move troops onto their new conquest.
-	 * @param attacker
-	 * @param atkRsp
-	 * @param hasGottenCard
-	 * @return
-	 * @throws PlayerEliminatedException
-	 */
-	protected boolean checkForTakeover(Player attacker, AttackResponse atkRsp, boolean hasGottenCard) throws PlayerEliminatedException {
-		if (this.map.getCountryArmies(atkRsp.getDfdCountry()) == 0) {
-			String loserName = this.map.getCountryOwner(atkRsp.getDfdCountry());
-			writeLogLn(true, attacker.getName() + " has taken " + atkRsp.getDfdCountry() + " from " + loserName + "!");
-			this.mapSetCountryOwner(atkRsp.getDfdCountry(), attacker.getName());
-			if (!hasGottenCard) {
-				awardCard(attacker.getName());
-			}
-			boolean allowReinforce = false;
-			try {
-				advanceArmies(attacker, atkRsp);
-				allowReinforce = true;
-			} catch (PlayerEliminatedException attackerException) {
-				throw attackerException;
-			} finally {
-				checkForElimination(attacker, loserName, atkRsp.getDfdCountry(), allowReinforce);
-			}
-			return true;
-		} else {
-			return false;
-		}
-	}
-
-	/**
-	 * Once a player gets a new conquest, supports movement of new armies/troops
-	 * onto the new land. Verified/validates that the player does not perform
-	 * an invalid advancement, and if the player cannot/does not advance correctly,
-	 * terminates player.
-	 * @param attacker
-	 * @param atkRsp
-	 * @throws PlayerEliminatedException
-	 */
-	protected void advanceArmies(Player attacker, AttackResponse atkRsp) throws PlayerEliminatedException {
-		int attempts = 0;
-		boolean valid = false;
-		while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !FXUIGameMaster.fullAppExit) {
-			attempts++;
-			AdvanceResponse advRsp = tryAdvance(attacker, createCardSetCopy(attacker.getName()), getPlayerCardCounts(), atkRsp);
-			if (valid = AdvanceResponse.isValidResponse(advRsp, atkRsp, this.map)) {
-				writeLogLn(true, attacker.getName() + " advanced " + advRsp.getNumArmies() + " into " + atkRsp.getDfdCountry() + " from " + atkRsp.getAtkCountry() + ".");
-				this.mapAddToCountryArmyCount(atkRsp.getAtkCountry(), -1 * advRsp.getNumArmies());
-				this.mapAddToCountryArmyCount(atkRsp.getDfdCountry(), advRsp.getNumArmies());
-			}
-		}
-		if (crossbar.isHumanEndingGame()) {
-			eliminate(attacker, null, "The advancer decided to take a break. 'S OK. Get some cookies. Or hot cocoa.");
-		} else if (!valid) {
-			eliminate(attacker, null, "You failed to provide a valid advance response.");
-		}
-	}
-
-	/**
-	 * Under select circumstances, a player is awarded a card to be used to gain
-	 * troops, etc. This method pulls a card from the card deck for a given player.
-	 * @param playerName
-	 */
-	protected void awardCard(String playerName) {
-		writeLogLn(true, "Awarding " + playerName + " one card.");
-		if (this.deck.size() > 0) {
-			this.playerToCardDeckHMap.get(playerName).add(this.deck.removeFirst());
-		}
-	}
-
-	/**
-	 * Check for & perform player elimination if an elimination condition is
-	 * detected. (Specifically, if the player reigns over 0 countries, performs
-	 * elimination.)
-	 *
-	 * @param attacker
-	 * @param loserName
-	 * @param takenCountry
-	 * @param allowReinforce
-	 * @throws PlayerEliminatedException
-	 */
-	protected void checkForElimination(Player attacker, String loserName, Country takenCountry, boolean allowReinforce) throws PlayerEliminatedException {
-		try {
-			if (RiskUtils.getPlayerCountries(this.map, loserName).isEmpty()) {
-				eliminate(getPlayerObject(loserName), attacker, "You were eliminated by " + attacker.getName() + " at " + takenCountry.getName() + ".");
-			}
-		} catch (PlayerEliminatedException defenderException) {
-			//this ensures that attacker will not be allowed to reinforce if (s)he was auto-eliminated during the advanceArmies() call or the game ended.
-			//also, player can only reinforce after eliminating another player if (s)he is forced to turn in cards
-			if (allowReinforce && this.playerToCardDeckHMap.get(attacker.getName()).size() >= RiskConstants.FORCE_TURN_IN && this.players.size() > 1) {
-				reinforce(attacker, false);//note that if the current player fails to reinforce, the player can be eliminated here and an exception thrown back up to begin()
-			}
-		}
-	}
-
-	/**
-	 * Allows a given player to fortify his/her/their troop count during each
-	 * round, if possible.
-	 *
-	 * @param currentPlayer
-	 */
-	protected void fortify(Player currentPlayer) {
-		int attempts = 0;
-		boolean valid = false;
-		while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !FXUIGameMaster.fullAppExit) {
-			attempts++;
-			FortifyResponse rsp = tryFortify(currentPlayer, createCardSetCopy(currentPlayer.getName()), getPlayerCardCounts());
-			if (rsp != null) {
-				if (valid = FortifyResponse.isValidResponse(rsp, this.map, currentPlayer.getName())) {
-					writeLogLn(true, currentPlayer.getName() + " is transferring " + rsp.getNumArmies() + " from " + rsp.getFromCountry() + " to " + rsp.getToCountry() + ".");
-					this.mapAddToCountryArmyCount(rsp.getFromCountry(), -1 * rsp.getNumArmies());
-					this.mapAddToCountryArmyCount(rsp.getToCountry(), rsp.getNumArmies());
-				}
-			} else {
-				//because fortification is not required, a null response is taken to mean that the player declines the opportunity
-				attempts = RiskConstants.MAX_ATTEMPTS;
-			}
-		}
-	}
-
-	/**
-	 * Allows a Player the chance to perform initial allocation of troops at the
-	 * beginning of a game.
-	 *
-	 * @param player
-	 * @param reinforcements the number of troops allowed to the player for
-	 * allocation
-	 * @return the layout of the Player's countries + how many troops are
-	 * stationed at each country.
-	 */
-	protected ReinforcementResponse tryInitialAllocation(Player player, int reinforcements) {
-		try {
-			ReinforcementResponse rsp = player.getInitialAllocation(this.map.getReadOnlyCopy(), reinforcements);
-			validatePlayerName(player);
-			return rsp;
-		} catch (RuntimeException | PlayerEliminatedException e) {
-			//e.printStackTrace();
-			return null;
-		}
-	}
-
-	protected CardTurnInResponse tryTurnIn(Player player, Collection<Card> cardSet, Map<String, Integer> oppCards, boolean turnInRequired) {
-		try {
-			CardTurnInResponse rsp = player.proposeTurnIn(this.map.getReadOnlyCopy(), cardSet, oppCards, turnInRequired);
-			validatePlayerName(player);
-			return rsp;
-		} catch (RuntimeException | PlayerEliminatedException e) {
-			//e.printStackTrace();
-			return null;
-		}
-	}
-
-	protected ReinforcementResponse tryReinforce(Player player, Map<String, Integer> oppCards, int reinforcements) {
-		try {
-			ReinforcementResponse rsp = player.reinforce(this.map.getReadOnlyCopy(), createCardSetCopy(player.getName()), oppCards, reinforcements);
-			validatePlayerName(player);
-			return rsp;
-		} catch (RuntimeException | PlayerEliminatedException e) {
-			//e.printStackTrace();
-			return null;
-		}
-	}
-
-	protected AttackResponse tryAttack(Player player, Collection<Card> cardSet, Map<String, Integer> oppCards) {
-		try {
-			AttackResponse rsp = player.attack(this.map.getReadOnlyCopy(), createCardSetCopy(player.getName()), oppCards);
-			validatePlayerName(player);
-			return rsp;
-		} catch (RuntimeException | PlayerEliminatedException e) {
-			e.printStackTrace();
-			System.out.println(ERROR + "tryAttack " + e);
-			return null;
-		}
-	}
-
-	protected DefendResponse tryDefend(Player player, Collection<Card> cardSet, Map<String, Integer> oppCards, AttackResponse atkRsp) {
-		try {
-			DefendResponse rsp = player.defend(this.map.getReadOnlyCopy(), createCardSetCopy(player.getName()), oppCards, atkRsp.getAtkCountry(), atkRsp.getDfdCountry(), atkRsp.getNumDice());
-			validatePlayerName(player);
-			return rsp;
-		} catch (RuntimeException | PlayerEliminatedException e) {
-			//e.printStackTrace();
-			return null;
-		}
-	}
-
-	/**
-	 * If a player conquers a territory, the player must advance armies into
-	 * the newly conquered territory.
-	 * @param player
-	 * @param cardSet
-	 * @param oppCards
-	 * @param atkRsp
-	 * @return 
-	 */
-	protected AdvanceResponse tryAdvance(Player player, Collection<Card> cardSet, Map<String, Integer> oppCards, AttackResponse atkRsp) {
-		try {
-			AdvanceResponse rsp;
-			if(DUMMY_FXUIPLAYER_TESTER==null){
-				rsp = player.advance(this.map.getReadOnlyCopy(), createCardSetCopy(player.getName()), oppCards, atkRsp.getAtkCountry(), atkRsp.getDfdCountry(), atkRsp.getNumDice());
-			} else {
-				rsp = DUMMY_FXUIPLAYER_TESTER.advance(this.map.getReadOnlyCopy(), createCardSetCopy(player.getName()), oppCards, atkRsp.getAtkCountry(), atkRsp.getDfdCountry(), atkRsp.getNumDice());
-			}
-			validatePlayerName(player);
-			return rsp;
-		} catch (RuntimeException | PlayerEliminatedException e) {
-			//e.printStackTrace();
-			return null;
-		}
-	}
-
-	protected FortifyResponse tryFortify(Player player, Collection<Card> cardSet, Map<String, Integer> oppCards) {
-		try {
-			FortifyResponse rsp = player.fortify(this.map.getReadOnlyCopy(), createCardSetCopy(player.getName()), oppCards);
-			validatePlayerName(player);
-			return rsp;
-		} catch (RuntimeException | PlayerEliminatedException e) {
-			//e.printStackTrace();
-			return null;
-		}
-	}
-
-	protected boolean validateInitialAllocation(Map<Country, Integer> allocation, String playerName, int armies) {
-		Map<Country, Boolean> allocatedCheck = new HashMap<>();
-		RiskUtils.getPlayerCountries(this.map, playerName).stream().forEach((country) -> {
-			allocatedCheck.put(country, false);
-		});
-		for (Country country : allocation.keySet()) {
-			if (!allocatedCheck.containsKey(country)) {
-				return false;
-			} else if (allocation.get(country) < 1) {
-				return false;
-			} else {
-				allocatedCheck.put(country, true);
-				armies -= allocation.get(country);
-			}
-		}
-		if (!allocatedCheck.values().stream().noneMatch((check) -> (!check))) {
-			return false;
-		}
-		return armies == 0;
-	}
-
-	protected void allocateArmies(String playerName, Map<Country, Integer> allocation, int reinforcements) {
-		writeLogLn(true, playerName + " reinforcing with " + reinforcements + " armies.");
-		allocation.entrySet().stream().map((entry) -> {
-			this.mapSetCountryArmyCount(entry.getKey(), entry.getValue());
-			return entry;
-		}).forEach((entry) -> {
-			writeLogLn(true, entry.getValue() + " " + entry.getKey().getName());
-		});
-		writeLogLn(true, EVENT_DELIM);
-	}
-
-	protected int getCardTurnIn(Player currentPlayer, Map<String, Integer> oppCards) throws PlayerEliminatedException {
-		int cardBonus = 0;
-		int attempts = 0;
-		boolean valid = false;
-		boolean turnInRequired = oppCards.get(currentPlayer.getName()) >= RiskConstants.FORCE_TURN_IN;
-		while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !FXUIGameMaster.fullAppExit) {
-			CardTurnInResponse rsp = tryTurnIn(currentPlayer, createCardSetCopy(currentPlayer.getName()), oppCards, turnInRequired);
-			if (rsp != null) {
-				if (valid = CardTurnInResponse.isValidResponse(rsp, this.playerToCardDeckHMap.get(currentPlayer.getName()))) {
-					cardBonus = RiskConstants.advanceTurnIn();
-					writeLogLn(true, currentPlayer.getName() + " turned in cards for " + cardBonus + " additional reinforcements!");
-					if (rsp.getBonusCountry() != null) {
-						if (this.map.getCountryOwner(rsp.getBonusCountry()).equals(currentPlayer.getName())) {
-							this.mapAddToCountryArmyCount(rsp.getBonusCountry(), RiskConstants.BONUS_COUNTRY_ARMIES);
-						}
-					}
-					rsp.getCards().stream().map((card) -> {
-						this.playerToCardDeckHMap.get(currentPlayer.getName()).remove(card);
-						return card;
-					}).forEach((card) -> {
-						this.deck.addLast(card);
-					});
-				}
-			} else {
-				//if a turn-in is not required, a null response is taken as the player declining
-				valid = !turnInRequired;
-			}
-			attempts++;
-		}
-		if (!valid && turnInRequired) {
-			eliminate(currentPlayer, null, "You were required to turn in cards this turn, and you failed to do so.");
-		} else if (crossbar.isHumanEndingGame()) {
-			eliminate(currentPlayer, null, "The player is opting out of the game altogether. Have a good day, buddy.");
-		}
-		return cardBonus;
-	}
-
 	protected Collection<Card> createCardSetCopy(String playerName) {
-		Collection<Card> copy = new ArrayList<>();
-		for (Card card : this.playerToCardDeckHMap.get(playerName)) {
-			copy.add(new Card(card.getType(), card.getCountry()));
-		}
-		return copy;
-	}
-
-	protected Player getOwnerObject(Country country) {
-		String playerName = this.map.getCountryOwner(country);
-		return getPlayerObject(playerName);
-	}
-
-	protected Player getPlayerObject(String playerName) {
-		for (Player player : this.playerNameToPlayerObjHMap.values()) {
-			if (player.getName().equals(playerName)) {
-				return player;
-			}
-		}
-		return null;
-	}
-
-	protected Map<String, Integer> getPlayerCardCounts() {
-		Map<String, Integer> playerCardCounts = new HashMap<>();
-		this.playerNameToPlayerObjHMap.keySet().stream().forEach((playerName) -> {
-			playerCardCounts.put(playerName, this.playerToCardDeckHMap.get(playerName).size());
-		});
-		return playerCardCounts;
-	}
-
-	protected void loadDeck() {
-		writeLogLn(true, "Building deck...");
-		List<Card> newDeck = new ArrayList<>();
-		int i = 0;
-		for (Country country : Country.values()) {
-			newDeck.add(new Card(RiskConstants.REG_CARD_TYPES[i % RiskConstants.REG_CARD_TYPES.length], country));
-			i++;
-		}
-		for (i = 0; i < RiskConstants.NUM_WILD_CARDS; i++) {
-			newDeck.add(new Card(RiskConstants.WILD_CARD, null));
-		}
-		shuffleCards(newDeck);
-		this.deck = new LinkedList<>(newDeck);
-	}
-
-	protected void shuffleCards(List<Card> cardList) {
-		int j;
-		Card temp;
-		for (int i = 0; i < 2 * cardList.size(); i++) {
-			j = rand.nextInt(cardList.size());
-			temp = cardList.get(i % cardList.size());
-			cardList.set(i % cardList.size(), cardList.get(j));
-			cardList.set(j, temp);
-		}
-	}
-
-	/**
-	 * Set up the requisite players in a new game.
-	 * Makes one list of all players (won't be modified during a game)
-	 * as well as a second list of all active {@link Player}s (which, as the game 
-	 * goes on, will shrink due to player eliminations).
-	 * @param players
-	 * @return
-	 */
-	protected boolean loadPlayers(String players) {
-		if (workingMode == LOADED_GAME_MODE) {
-			return false;
-		}
-		writeLogLn(true, "Loading players...");
-		this.playerNameToPlayerObjHMap = Collections.synchronizedMap(new HashMap<String, Player>());
-		if (players == null) {
-			players = RiskConstants.DEFAULT_PLAYERS;
-		}
-
-		List<Player> playerList = PlayerFactory.getPlayersFromString(players);
-
-		FXUIPlayer.setCrossbar(FXUIGameMaster.crossbar);
-
-		playerList.stream().forEach((player) -> {
-			this.playerNameToPlayerObjHMap.put(player.getName(), player);
-		});
-
-		this.players = new ArrayList<>(this.playerNameToPlayerObjHMap.keySet());
-		this.allPlayers = new ArrayList<>(this.playerNameToPlayerObjHMap.keySet());
-
-		shufflePlayers(this.players);//choose a random turn order
-
-		this.playerToCardDeckHMap = Collections.synchronizedMap(new HashMap<String, Collection<Card>>());
-
-		this.playerNameToPlayerObjHMap.values().stream().forEach((player) -> {
-			this.playerToCardDeckHMap.put(player.getName(), new ArrayList<>());
-		});
-
-		if (this.players.size() < RiskConstants.MIN_PLAYERS || this.players.size() > RiskConstants.MAX_PLAYERS) {
-			return false;
-		} else {
-			writeLogLn(true, "Players:");
-                        this.players.stream().forEach((playerName) -> {
-                            writeLogLn(true, playerName);
-                    });
-			writeLogLn(true, EVENT_DELIM);
-			return true;
-		}
-	}
-
-	protected void shufflePlayers(List<String> playerList) {
-		int j;
-		String temp;
-		for (int i = 0; i < 2 * playerList.size(); i++) {
-			j = rand.nextInt(playerList.size());
-			temp = playerList.get(i % playerList.size());
-			playerList.set(i % playerList.size(), playerList.get(j));
-			playerList.set(j, temp);
-		}
-	}
-
-	//only allocates unowned countries
-	protected void allocateUnownedCountries() {
-		if (this.players.size() > 0) {
-			writeLogLn(true, "Re-allocating eliminated player's countries...");
-			for (Country country : Country.values()) {
-				if (map.getCountryOwner(country) == null) {
-					mapSetCountryOwner(country, this.playerNameToPlayerObjHMap.get(this.players.get(allocationIdx++ % this.players.size())).getName());
-					if (this.round > 0) {
-						//If these countries are being eliminated during a game,
-						//it is due to a player being eliminated by the Master,
-						//and so the re-allocated countries must be occupied.
-						mapSetCountryArmyCount(country, 1);
-					}
-				}
-			}
-		}
-	}
-
-	//allocates ALL countries on map
-	protected void allocateMap() {
-		if (this.players.size() > 0) {
-			writeLogLn(true, "Allocating countries...");
-			this.deck.stream().filter((card) -> (!card.getType().equals(RiskConstants.WILD_CARD))).forEach((card) -> {
-				mapSetCountryOwner(card.getCountry(), this.playerNameToPlayerObjHMap.get(this.players.get(allocationIdx++ % this.players.size())).getName());
-			});
-		}
-	}
-
-	protected void eliminate(Player loser, Player eliminator, String reason) throws PlayerEliminatedException {
-		if (this.playerNameToPlayerObjHMap.containsKey(loser.getName())) {
-			writeLogLn(true, loser.getName() + " Eliminated! " + reason);
-			displayExtendedMessage(loser.getName() + " Eliminated! " + reason);
-			for (Country country : Country.values()) {
-				if (map.getCountryOwner(country).equals(loser.getName())) {
-					if (eliminator != null) {
-						mapSetCountryOwner(country, eliminator.getName());
-					} else {
-						mapSetCountryOwner(country, null);
-					}
-				}
-			}
-			if (eliminator != null) {
-                            this.playerToCardDeckHMap.get(loser.getName()).stream().forEach((card) -> {
-                                this.playerToCardDeckHMap.get(eliminator.getName()).add(card);
-                            });
-				this.playerToCardDeckHMap.get(loser.getName()).clear();
-			}
-			this.players.remove(loser.getName());
-			this.playerNameToPlayerObjHMap.remove(loser.getName());
-			allocateUnownedCountries();
-			representPlayersOnUI();
-			throw new PlayerEliminatedException(loser.getName() + " Eliminated! " + reason);
-		} else {
-			System.out.println(WARN + "eliminate() :: this.playerMap does not contain so-called 'loser'");
-		}
+		Collection<Card> hand = this.engine.getHand(playerName);
+		return hand == null ? new ArrayList<>() : new ArrayList<>(hand);
 	}
 
 	/**
@@ -2306,15 +1524,21 @@ public class FXUIGameMaster extends Application {
 			internalLogCache.add(line);
 		}
 		if (this.log != null) {
-			try {
-				this.log.write(line + "\r\n");
-				this.log.flush();
-			} catch (IOException e) {
-				System.out.println(ERROR + "Error writing log: " + e);
-			}
+			this.log.line(line);
 		}
 	}
 
+	/**
+	 * Opens LOG.txt, or the compact LOG.rlog if binary logs were asked for.
+	 * Lines written to a binary log are stored as the events they describe.
+	 */
+	private GameLog openLog() throws IOException {
+		if (RiskConstants.BINARY_LOGS) {
+			return new BinaryGameLog(BINARY_LOGFILE);
+		}
+		return new TextGameLog(new AsyncLogWriter(LOGFILE));
+	}
+
 	/**
 	 * As part of the logging process, select logged lines are also stored
 	 * in an internal cache, to allow game saves to restore log files
@@ -2330,24 +1554,6 @@ public class FXUIGameMaster extends Application {
 		}
 	}
 
-	protected void writeStatsLn() {
-		if (this.stats != null) {
-			try {
-				stats.write(this.turnCount + " " + this.round + " ");
-				for (String playerName : this.players) {
-					//count player's countries
-					stats.write(RiskUtils.getPlayerCountries(this.map, playerName).size() + " ");
-					//count player's armies
-					stats.write(RiskUtils.countPlayerArmies(this.map, playerName, null) + " ");
-				}
-				stats.write("\r\n");
-				this.stats.flush();
-			} catch (IOException e) {
-				System.out.println(ERROR + "Error writing statistics: " + e);
-			}
-		}
-	}
-
 	/**
 	 * Used to show list of players at top edge of UI. Due to threading
 	 * requirements, currently wraps up a secondary method to accomplish this
@@ -2386,7 +1592,7 @@ public class FXUIGameMaster extends Application {
 			namesOfPlayers.setAlignment(Pos.CENTER);
 			namesOfPlayers.setPrefWidth(FXUIGameMaster.DEFAULT_CONTENT_WIDTH - (2*nameBuffer));
 
-			if (this.playerNameToPlayerObjHMap == null || this.playerNameToPlayerObjHMap.isEmpty()) {
+			if (this.engine == null || this.engine.getPlayerNames().isEmpty()) {
 				System.out.println(ERROR + "Player map not populated; please fix logic!");
 				//even loaded games should have at least one active player.
 			}
@@ -2396,7 +1602,7 @@ public class FXUIGameMaster extends Application {
 				VBox playerBox = new VBox();
 				playerBox.setAlignment(Pos.CENTER);
 				Text txt = new Text(playerName.toLowerCase());
-				if(this.playerNameToPlayerObjHMap.containsKey(playerName)){
+				if(this.engine.getPlayer(playerName) != null){
 					colorToUse = colors.get(i % colors.size());
 					txt.setFont(Font.font("Verdana", FontWeight.THIN, FXUIGameMaster.DEFAULT_PLAYER_NAME_FONT_SIZE));
 				}
@@ -2463,8 +1669,8 @@ public class FXUIGameMaster extends Application {
 				otherPlayers.setAlignment(Pos.CENTER_RIGHT);
 
 				//represent the active player count, less the current player
-				playerNameToPlayerObjHMap.values().stream().forEach((subPlayerToIndic) -> {
-					if(subPlayerToIndic != playerToHilite){
+				this.engine.getPlayerNames().stream().forEach((subPlayerToIndic) -> {
+					if(playerToHilite == null || !subPlayerToIndic.equals(playerToHilite.getName())){
 						Rectangle indicator = new Rectangle(8,24);
 						indicator.setStroke(Color.WHITE);
 						indicator.setFill(Color.BLACK);
@@ -2473,7 +1679,7 @@ public class FXUIGameMaster extends Application {
 				});
 
 				//represent the inactive player count
-				for(int inactivePlayerCount = 0; inactivePlayerCount < this.allPlayers.size() - this.players.size(); inactivePlayerCount++){
+				for(int inactivePlayerCount = 0; inactivePlayerCount < this.allPlayers.size() - this.engine.getPlayerNames().size(); inactivePlayerCount++){
 					Rectangle indicator = new Rectangle(8,8);
 					indicator.setStroke(Color.WHITE);
 					indicator.setFill(Color.BLACK);
@@ -2606,7 +1812,6 @@ public class FXUIGameMaster extends Application {
 		try {
 			RiskConstants.SEED = 1;
 			RiskConstants.resetTurnIn();
-			PlayerFactory.resetPlayerCounts();
 			boolean doWeLog = (!forceLoggingIsIndeterminate && forceEnableLogging) || (forceLoggingIsIndeterminate ? LOGGING_ON : LOGGING_OFF);
 
 			initializeFXGMClass("Countries.txt", FXUIGameMaster.desiredPlayersForGame, doWeLog);
@@ -2656,20 +1861,14 @@ public class FXUIGameMaster extends Application {
 			COUNTRIES_BY_NAME.put(country.getName(), country);
 		}
 
-		this.round = 0;
-		this.turnCount = 0;
-		if (rand == null) {
-			rand = new Random(RiskConstants.SEED);
-		}
-
 		FXUIGameMaster.activeSaveData = new SavePoint();
 
 		FXUIGameMaster.loggingEnabled = logSwitch;
 		if (FXUIGameMaster.loggingEnabled == LOGGING_ON) {
 			System.out.println(INFO + "Trying to enable logging...");
 			try {
-				this.stats = new FileWriter(STATSFILE);
-				this.log = new FileWriter(LOGFILE);
+				this.stats = new AsyncLogWriter(STATSFILE);
+				this.log = openLog();
 				System.out.println(INFO + "Logging enabled!");
 			} catch (IOException e) {
 				FXUIGameMaster.loggingEnabled = LOGGING_OFF;
@@ -2683,12 +1882,11 @@ public class FXUIGameMaster extends Application {
 		}
 
 		writeLogLn(true, "Loading map from " + mapFile + "...");
-		if (starterMap == null) {
-			starterMap = new RiskMap();
-		}
-
-		this.map = starterMap.getCopy();
-		loadDeck();
+		this.engine = new GameEngine(new RandomStreams(RiskConstants.SEED, gamesStarted++), "FX game",
+				new MirroredLog(), new UIHooks());
+		this.engine.addEventSink(new UIMessages());
+		this.map = this.engine.getMap();
+		this.allPlayers = new ArrayList<>();
 		FXUIGameMaster.desiredPlayersForGame = players;
 	}
 
@@ -2762,153 +1960,76 @@ public class FXUIGameMaster extends Application {
 
 	/**
 	 * Main entry method to prompt a refresh of the countries and their counts
-	 * in the main FXUI window. Has no bearing on the secondary dialogs. If the
-	 * game is being "exited", or the current player is not a "human" (and the 
-	 * game is not bots only), the refresh is as instantaneous as possible. 
-	 * Else, internal decision logic will request a slower refresh, to provide 
-	 * for more easily detected changes.
+	 * in the main FXUI window. Has no bearing on the secondary dialogs.
+	 * Subscribes the board to the changes the engine publishes, unless it
+	 * already is, and redraws every country once. The engine never waits for
+	 * the board: while a refresh is behind, only the latest change to each
+	 * country is kept for it.
 	 */
 	public void makeUIElementsRefreshThread() {
-		if((FXUIGameMaster.clockedUIRefreshThreadA != null &&FXUIGameMaster.clockedUIRefreshThreadA.isAlive())
-				&& 
-				(FXUIGameMaster.clockedUIRefreshThreadB != null && FXUIGameMaster.clockedUIRefreshThreadB.isAlive()))
-		{
-			FXUIGameMaster.diagnosticPrintln("Already running refresh threads; attempting to wake...");
-			FXUIGameMaster.clockedUIRefreshThreadB.interrupt();
-			FXUIGameMaster.clockedUIRefreshThreadA.interrupt();
+		if (FXUIGameMaster.ownerRefresh != null && FXUIGameMaster.armyRefresh != null) {
+			FXUIGameMaster.diagnosticPrintln("Already subscribed to board changes.");
 			return;
 		}
 		final int timeToWaitBetweenElements = 5;
-		final long threadSleepLong = 1000;
-		final AtomicBoolean stopRunning = new AtomicBoolean(false);
+		final short maxBlinkDelay = 10;
 		FXUIGameMaster.mainStage.showingProperty().addListener((ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) -> {
-			stopRunning.set(true);
+			stopUIElementsRefresh();
 		});
 
 		//updating counts
-		if(FXUIGameMaster.clockedUIRefreshThreadA == null || !FXUIGameMaster.clockedUIRefreshThreadA.isAlive()){
-			FXUIGameMaster.clockedUIRefreshThreadA = new Thread(null, () -> {
-				final short maxBlinkDelay = 10;
-				long blinkDelay = 0;
-				if (players == null || players.isEmpty()) {
-					FXUIGameMaster.diagnosticPrintln(INFO + "FXUIGM - Player count mismatch; Delaying country refresh...");
-					RiskUtils.sleep(threadSleepLong);
-				}
-				else if (playerColorMap == null || playerColorMap.isEmpty()) {
-					FXUIGameMaster.diagnosticPrintln(INFO + "FXUIGM - PlayerColorMap size mismatch; Delaying country refresh...");
-					RiskUtils.sleep(threadSleepLong);
+		if (FXUIGameMaster.armyRefresh == null) {
+			ARMY_CHANGES.subscribe(new BoardRefresh() {
+				@Override
+				protected void refresh(Country country) {
+					//blink the country while its count changes
+					performC1AStepOfRefreshProcess(country);
+					RiskUtils.sleep(Math.min(maxBlinkDelay, delayTimeBetweenBots));
+					performC1BStepOfRefreshProcess(country);
+					RiskUtils.sleep(Math.min(maxBlinkDelay, delayTimeBetweenBots));
 				}
-				while(!stopRunning.get()){
-					blinkDelay = Math.min(maxBlinkDelay,delayTimeBetweenBots);
-					//first, set the first country up...
-					if(FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.size() > 0){
-						performC1AStepOfRefreshProcess(FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.get(0));
-					}
-					RiskUtils.sleep(blinkDelay);
-					//then enter the loop to get the rest of the countries rolling...
-					//sets one country up for the first part of the animation,
-					//while finishing the animation for a second country.
-					while (FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.size() > 1 && !FXUIGameMaster.fullAppExit){
-						try{
-							//call dual element method on first and second elements
-							performC2StepOfRefreshProcess(FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.remove(0),FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.get(0));
-						}
-						catch(Exception nsee){
-							System.out.println(FXUIGameMaster.ERROR + "TA.NSEE.list size? : " + FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.size());
-							RiskUtils.sleep(threadSleepLong);
-							break;
-						}
-						//and the sleep to create the pause between updates...
-						RiskUtils.sleep(blinkDelay);
-					}
-					//then do the last part of the animation for the last country.
-					if(FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.size() > 0){
-						performC1BStepOfRefreshProcess(FXUIGameMaster.COUNTRIES_WITH_UPDATED_TROOP_COUNTS.remove(0));
-					}
-					if((FXUIGameMaster.workingMode == IDLE_MODE || FXUIGameMaster.GAME_PAUSED.get() ) && !FXUIGameMaster.fullAppExit){
-						RiskUtils.sleep(10*threadSleepLong+delayTimeBetweenBots);
-					}
-					if (FXUIGameMaster.fullAppExit) {
-						FXUIGameMaster.clockedUIRefreshThreadA = null;
-						FXUIGameMaster.diagnosticPrintln("UI Refresh Thread A accelerated shut down.");
-						return;
-					}
-					RiskUtils.sleep(delayTimeBetweenBots);
+
+				@Override
+				protected void subscribed(CoalescingPublisher.Subscription subscription) {
+					FXUIGameMaster.armyRefresh = subscription;
 				}
-				FXUIGameMaster.clockedUIRefreshThreadA = null;
-				System.out.println("UI Refresh Thread A shut down.");
-			}, "refreshUIElements clockedRefreshA");
-			FXUIGameMaster.clockedUIRefreshThreadA.setDaemon(true);
-			FXUIGameMaster.clockedUIRefreshThreadA.start();
+			}, Country.values().length, true);
 		}
 
 		//updating colors
-		if(FXUIGameMaster.clockedUIRefreshThreadB == null || !FXUIGameMaster.clockedUIRefreshThreadB.isAlive()){
-			FXUIGameMaster.clockedUIRefreshThreadB = new Thread(null, () -> {
-				if (players == null || players.isEmpty()) {
-					System.out.println(INFO + "FXUIGM - Player count mismatch; Delaying country refresh...");
-					RiskUtils.sleep(threadSleepLong);
-				}
-				else if (playerColorMap == null || playerColorMap.isEmpty()) {
-					System.out.println(INFO + "FXUIGM - PlayerColorMap size mismatch; Delaying country refresh...");
-					RiskUtils.sleep(threadSleepLong);
+		if (FXUIGameMaster.ownerRefresh == null) {
+			OWNER_CHANGES.subscribe(new BoardRefresh() {
+				@Override
+				protected void refresh(Country country) {
+					performTStepOfRefreshProcess(country);
+					//and the sleep to create the pause between updates...
+					RiskUtils.sleep(timeToWaitBetweenElements);
 				}
-				while(!stopRunning.get()){
-					while (FXUIGameMaster.COUNTRIES_WITH_UPDATED_OWNERS.size() > 0 && !FXUIGameMaster.fullAppExit){
-						try{
-							performTStepOfRefreshProcess(FXUIGameMaster.COUNTRIES_WITH_UPDATED_OWNERS.remove(0));
-						}
-						catch(Exception nsee){
-							System.out.println(FXUIGameMaster.ERROR + "TB.NSEE.list size? : " + FXUIGameMaster.COUNTRIES_WITH_UPDATED_OWNERS.size());
-							RiskUtils.sleep(threadSleepLong);
-							break;
-						}
-						//and the sleep to create the pause between updates...
-						if (timeToWaitBetweenElements > 0) {
-							RiskUtils.sleep(timeToWaitBetweenElements);
-						}
 
-					}
-					if(FXUIGameMaster.workingMode == IDLE_MODE && !FXUIGameMaster.fullAppExit){
-						RiskUtils.sleep(10*threadSleepLong+delayTimeBetweenBots);
-					}
-					if (FXUIGameMaster.fullAppExit) {
-						FXUIGameMaster.clockedUIRefreshThreadB = null;
-						FXUIGameMaster.diagnosticPrintln("UI Refresh Thread B accelerated shut down.");
-						return;
-					}
-					RiskUtils.sleep(delayTimeBetweenBots);
+				@Override
+				protected void subscribed(CoalescingPublisher.Subscription subscription) {
+					FXUIGameMaster.ownerRefresh = subscription;
 				}
-				FXUIGameMaster.clockedUIRefreshThreadB = null;
-				System.out.println("UI Refresh Thread B shut down.");
-			}, "refreshUIElements clockedRefreshB");
-			FXUIGameMaster.clockedUIRefreshThreadB.setDaemon(true);
-			FXUIGameMaster.clockedUIRefreshThreadB.start();
+			}, Country.values().length, true);
 		}
-	}
 
+		//a fresh subscriber has missed whatever changed before it; redraw the whole board
+		for (Country country : Country.values()) {
+			ARMY_CHANGES.publish(country, country);
+			OWNER_CHANGES.publish(country, country);
+		}
+	}
 
-	/**
-	 * As part of the clocked refresh cycle, updates the visual state of a
-	 * two countries, pertaining to the armies in a country.
-	 * "Country" gets updated as the tock in a tick-tock cycle
-	 * (in an animation, sets the display to its final state),
-	 * while "Country2" gets updated as the tick in a tick-tock cycle
-	 * (in an animation, sets the display to its initial state).
-	 * Used to help coalesce calls to runLater().
-	 *
-	 * @param country the country whose view is to be set to the "tock" state
-	 * (with the name and the army count of the country)
-	 * @param country2 the country whose view is to be set to the "tick" state
-	 * (with only the name of the country)
-	 */
-	private void performC2StepOfRefreshProcess(Country country, Country country2) {
-		//If update the count, update the text. And blink, where possible.
-		Platform.runLater(() -> {
-			((Text)textNodeMap.get(country.getName())).setVisible(true);
-			((Text)textNodeMap.get(country2.getName())).setVisible(false);
-			((Text)textNodeMap.get(country2.getName())).setText(country2.getName() + "\n" + map.getCountryArmies(country2));
-		});   
+	private static void stopUIElementsRefresh() {
+		if (FXUIGameMaster.armyRefresh != null) {
+			FXUIGameMaster.armyRefresh.cancel();
+			FXUIGameMaster.armyRefresh = null;
+		}
+		if (FXUIGameMaster.ownerRefresh != null) {
+			FXUIGameMaster.ownerRefresh.cancel();
+			FXUIGameMaster.ownerRefresh = null;
+		}
+		FXUIGameMaster.diagnosticPrintln("UI refresh stopped.");
 	}
 
 	/**
@@ -3434,7 +2555,7 @@ public class FXUIGameMaster extends Application {
 		 * The buttons shown on the UI take over from this point.
 		 */
 		if(!fullAppExit){
-			RiskUtils.runLaterWithDelay(2000, new Runnable(){
+			FXUIUtils.runLaterWithDelay(2000, new Runnable(){
 				@Override
 				public void run(){
                                         /*Optional options
@@ -3497,7 +2618,7 @@ public class FXUIGameMaster extends Application {
 
 					//Populate the display with the countries
 					loadCountryNodesForUIDisplay("TextNodes.txt");
-					RiskUtils.runLaterWithDelay(500, new Runnable(){
+					FXUIUtils.runLaterWithDelay(500, new Runnable(){
 						@Override
 						public void run(){
 							bootComplete.set(true);
@@ -5287,4 +4408,152 @@ public class FXUIGameMaster extends Application {
 		}
 		return FXUIGameMaster.DIAGNOSTIC_MODE;
 	}
+
+	/**
+	 * The log the engine writes to: every line goes to the internal log
+	 * cache, which saves and the log viewer are built from, and on to the
+	 * log file if logging is on. The file is looked up line by line, since
+	 * loading a save reopens it.
+	 */
+	private class MirroredLog extends GameLog {
+		@Override
+		public void line(String text) {
+			writeLogLn(true, text);
+		}
+
+		@Override
+		protected void release() {
+		}
+	}
+
+	/**
+	 * Shows the engine's changes on the board and paces the game for the
+	 * people watching it. Pausing holds the game up before the next decision;
+	 * ending the game or closing the app cancels it.
+	 */
+	private class UIHooks extends EngineHooks {
+		@Override
+		public boolean isCancelled() {
+			return FXUIGameMaster.fullAppExit
+					|| (FXUIGameMaster.endGame = crossbar.isHumanEndingGame() || FXUIGameMaster.endGame);
+		}
+
+		@Override
+		public void pace() {
+			while (FXUIGameMaster.GAME_PAUSED.get() && !isCancelled()) {
+				RiskUtils.sleep(500);
+			}
+		}
+
+		@Override
+		public void turnStarting(Player player) {
+			if(FXUIGameMaster.audioManager != null) FXUIGameMaster.audioManager.playNextNote();
+			flashPlayerChangeIndicator();
+			FXUIGameMaster.currentPlayer = player;
+			RiskUtils.sleep(FXUIGameMaster.delayTimeBetweenBots);
+			highlightCurrentPlayer(false, player);
+		}
+
+		@Override
+		public void stepStarting(Player player) {
+			RiskUtils.sleep(FXUIGameMaster.delayTimeBetweenBots);
+		}
+
+		/**
+		 * A human's turn ends at a checkpoint, which is saved straight away.
+		 */
+		@Override
+		public void turnEnded(Player player) {
+			if (player.getClass().toString().equals(FXUIPlayer.class.toString()) && !FXUIGameMaster.runBotsOnly) {
+				prepareSave();
+				performSave(false);
+			}
+		}
+
+		@Override
+		public void ownerChanged(Country country) {
+			FXUIGameMaster.OWNER_CHANGES.publish(country, country);
+		}
+
+		@Override
+		public void armiesChanged(Country country) {
+			FXUIGameMaster.ARMY_CHANGES.publish(country, country);
+		}
+
+		@Override
+		public void playerEliminated(String loserName, String reason) {
+			representPlayersOnUI();
+		}
+	}
+
+	/**
+	 * Redraws one changed country at a time, and asks for the next change
+	 * only once the last one is on screen.
+	 */
+	private abstract class BoardRefresh implements CoalescingPublisher.Subscriber<Country> {
+		private CoalescingPublisher.Subscription subscription;
+
+		@Override
+		public void onSubscribe(CoalescingPublisher.Subscription subscription) {
+			this.subscription = subscription;
+			subscribed(subscription);
+			subscription.request(1);
+		}
+
+		@Override
+		public void onNext(Country country) {
+			if (FXUIGameMaster.fullAppExit) {
+				stopUIElementsRefresh();
+				return;
+			}
+			if (playerColorMap == null || playerColorMap.isEmpty()) {
+				FXUIGameMaster.diagnosticPrintln(INFO + "FXUIGM - PlayerColorMap size mismatch; Delaying country refresh...");
+				RiskUtils.sleep(1000);
+			}
+			refresh(country);
+			this.subscription.request(1);
+		}
+
+		@Override
+		public void onError(Throwable failure) {
+			System.out.println(ERROR + "UI refresh failed: " + failure);
+			//let the next call to makeUIElementsRefreshThread() start over
+			subscribed(null);
+		}
+
+		@Override
+		public void onComplete() {
+		}
+
+		protected abstract void refresh(Country country);
+
+		protected abstract void subscribed(CoalescingPublisher.Subscription subscription);
+	}
+
+	/**
+	 * Tells the people watching how each roll of the dice went, and who has
+	 * been eliminated, as the engine reports it.
+	 */
+	private class UIMessages extends GameLog.Listener {
+		private String attackerName, defenderName;
+
+		@Override
+		public void attack(String playerName, Country dfdCountry, int dfdArmies, Country atkCountry, int atkArmies) {
+			this.attackerName = playerName;
+			this.defenderName = map.getCountryOwner(dfdCountry);
+		}
+
+		@Override
+		public void losses(int atkLosses, int dfdLosses) {
+			FXUIGameMaster.displayExtendedMessage("Attacker: " + this.attackerName
+					+ " / Defender: " + this.defenderName + "\n"
+					+ this.attackerName + " lost: " + atkLosses + "; "
+					+ this.defenderName + " lost: " + dfdLosses);
+		}
+
+		@Override
+		public void eliminated(String playerName, String reason) {
+			displayExtendedMessage(playerName + " Eliminated! " + reason);
+		}
+	}
 }
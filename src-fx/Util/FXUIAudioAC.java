@@ -266,7 +266,7 @@ public class FXUIAudioAC {
                 FXUIGameMaster.diagnosticPrintln("Audio playback failed. Will try again...");
 	        success = false;
 	    }
-            RiskUtils.runLaterWithDelay(FXUIAudioAC.delayBetweenNextPlayMS, () -> {
+            FXUIUtils.runLaterWithDelay(FXUIAudioAC.delayBetweenNextPlayMS, () -> {
                 blockNextPlay.set(false);
             });
 	    return success;
@@ -395,7 +395,7 @@ public class FXUIAudioAC {
 	                + " by internal logic or user interaction.");
 	        mediaPlayer.play();
 	        bootAudio = mediaPlayer;
-	        RiskUtils.runLaterWithDelay(7300, new Runnable() {
+	        FXUIUtils.runLaterWithDelay(7300, new Runnable() {
 	
 	            @Override
 	            public void run() {
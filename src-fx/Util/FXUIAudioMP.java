@@ -310,7 +310,7 @@ public class FXUIAudioMP {
 				playFileAtIndex(indexToPlay);
 			}
 			toTheBeat();
-			RiskUtils.runLaterWithDelay(FXUIAudioMP.delayBetweenNextPlayMS,
+			FXUIUtils.runLaterWithDelay(FXUIAudioMP.delayBetweenNextPlayMS,
 			new Runnable() {
 	            @Override
 	            public void run() {
@@ -0,0 +1,46 @@
+package Util;
+import javafx.application.Platform;
+
+/**
+ * Helpers for the JavaFX front ends, kept apart from {@link RiskUtils} so
+ * that the headless core builds and runs without JavaFX.
+ */
+public class FXUIUtils {
+	/**
+     * Equivalent to the default 
+     * {@link javafx.application.Platform #runLater(Runnable)} method,
+     * with the addition of doing a specific delay of some milliseconds before
+     * the {@link java.lang.Runnable Runnable} is queued for execution.
+     * 
+     * @param delayTime time, in milliseconds, to delay before execution attempt
+     * @param newRunnable Runnable to be executed in the future
+     * @return -1 if input is invalid (will not run), -2 if exception occurred 
+     * during setup (will not run), 0 if runnable is setup to run (should run)
+     */
+    public static int runLaterWithDelay(final long delayTime, final Runnable newRunnable){
+    	if (newRunnable == null || delayTime < 0){
+    		return -1;
+    	}
+    	try{
+	    	Thread futureRun = new Thread(new Runnable() {
+	            @Override
+	            public void run() {
+	            	try{
+	                RiskUtils.sleep(delayTime);
+	                Platform.runLater(newRunnable);
+	            	}
+	            	catch (Exception e){
+	            		e.printStackTrace();
+	            	}
+	            }
+	        });
+	    	futureRun.setDaemon(true);
+	    	futureRun.start();
+    	}
+    	catch (Exception e){
+    		e.printStackTrace();
+    		return -2;
+    	}
+    	return 0;
+    }
+}
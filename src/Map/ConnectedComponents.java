@@ -0,0 +1,146 @@
+package Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The friendly regions of one player at one version of a map: the sets of
+ * that player's countries that are connected through that player's own
+ * countries.
+ *
+ * Every owned country carries the id of its region, so two countries can
+ * be tested for a friendly path between them with a single comparison.
+ * Regions are numbered from 0 in order of their lowest country ordinal.
+ * Instances are immutable; obtain them through
+ * {@link RiskMap#getConnectedComponents(byte)}, which reuses them until
+ * the map changes.
+ */
+public class ConnectedComponents {
+	public static final int NOT_OWNED = -1;
+	
+	private final long version;
+	private final int[] componentIds;
+	private final List<Set<Country>> components;
+	
+	ConnectedComponents(RiskMap map, byte playerId) {
+		this.version = map.getVersion();
+		this.componentIds = new int[Country.values().length];
+		Arrays.fill(this.componentIds, NOT_OWNED);
+		this.components = new ArrayList<Set<Country>>();
+		if (Topology.FITS_IN_LONG) {
+			findComponentsByMask(map.getPlayerCountryMask(playerId));
+		}
+		else {
+			findComponentsByUnion(map, playerId);
+		}
+	}
+	
+	/**
+	 * Version of the map these regions were computed from.
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+	
+	/**
+	 * Id of the region containing country, or {@link #NOT_OWNED} if the player does not own it.
+	 */
+	public int getComponentId(Country country) {
+		return this.componentIds[country.ordinal()];
+	}
+	
+	/**
+	 * Returns true IFF both countries are owned by the player and connected through the player's countries.
+	 */
+	public boolean areConnected(Country from, Country to) {
+		int id = this.componentIds[from.ordinal()];
+		return id != NOT_OWNED && id == this.componentIds[to.ordinal()];
+	}
+	
+	public int getComponentCount() {
+		return this.components.size();
+	}
+	
+	/**
+	 * Returns a fresh copy of the countries in the region with the given id.
+	 */
+	public Set<Country> getComponent(int id) {
+		return EnumSet.copyOf(this.components.get(id));
+	}
+	
+	/**
+	 * Returns fresh copies of every region, in id order.
+	 */
+	public Collection<Set<Country>> getComponents() {
+		Collection<Set<Country>> copies = new ArrayList<Set<Country>>(this.components.size());
+		for (Set<Country> component : this.components) {
+			copies.add(EnumSet.copyOf(component));
+		}
+		return copies;
+	}
+	
+	/**
+	 * Flood fills the ownership mask one region at a time; each country is visited once.
+	 */
+	private void findComponentsByMask(long owned) {
+		long unassigned = owned;
+		while (unassigned != 0L) {
+			long component = Topology.getReachableMask(Long.lowestOneBit(unassigned), owned);
+			addComponent(Topology.toSet(component));
+			unassigned &= ~component;
+		}
+	}
+	
+	/**
+	 * Union-find over the player's countries, for boards too large for a mask.
+	 */
+	private void findComponentsByUnion(RiskMap map, byte playerId) {
+		Country[] countries = Country.values();
+		int[] parents = new int[countries.length];
+		for (Country country : countries) {
+			parents[country.ordinal()] = map.isOwnedBy(country, playerId) ? country.ordinal() : NOT_OWNED;
+		}
+		for (Country country : countries) {
+			if (parents[country.ordinal()] != NOT_OWNED) {
+				for (Country neighbor : country.getNeighbors()) {
+					if (parents[neighbor.ordinal()] != NOT_OWNED) {
+						int rootA = findRoot(parents, country.ordinal());
+						int rootB = findRoot(parents, neighbor.ordinal());
+						parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+					}
+				}
+			}
+		}
+		int[] rootIds = new int[countries.length];
+		for (Country country : countries) {
+			if (parents[country.ordinal()] != NOT_OWNED) {
+				int root = findRoot(parents, country.ordinal());
+				if (root == country.ordinal()) {
+					rootIds[root] = this.components.size();
+					addComponent(EnumSet.noneOf(Country.class));
+				}
+				this.componentIds[country.ordinal()] = rootIds[root];
+				this.components.get(rootIds[root]).add(country);
+			}
+		}
+	}
+	
+	private static int findRoot(int[] parents, int idx) {
+		while (parents[idx] != idx) {
+			parents[idx] = parents[parents[idx]];
+			idx = parents[idx];
+		}
+		return idx;
+	}
+	
+	private void addComponent(Set<Country> component) {
+		int id = this.components.size();
+		this.components.add(component);
+		for (Country country : component) {
+			this.componentIds[country.ordinal()] = id;
+		}
+	}
+}
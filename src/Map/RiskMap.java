@@ -1,22 +1,60 @@
 package Map;
-import java.io.IOException;
-import java.io.File;
-import java.lang.Exception;
 import java.lang.String;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.HashMap;
-import java.util.Scanner;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import Map.Continent;
 import Map.Country;
 
+/**
+ * Holds the ownership and army count of every country on the board.
+ *
+ * State is stored in primitive arrays indexed by {@link Country#ordinal()}:
+ * army counts in an int[], and owners as small ids into a table of owner
+ * names, so the lookups made on every engine step and by every bot
+ * involve neither boxing nor hashing.
+ *
+ * Every write bumps a version number. A map hands out a single read-only
+ * view of itself, created on first request and reused from then on, so
+ * passing the board to a Player costs no allocation; the view sees each
+ * write as it happens and reports the same version as its map.
+ *
+ * Copies are copy-on-write. {@link #getCopy()} and {@link #getSnapshot()}
+ * only share the storage of the source and are O(1); whichever map next
+ * writes to shared storage first takes a private copy of it. A snapshot is
+ * therefore a frozen, consistent picture of the board at one version, which
+ * a search, the UI or the save path can hold for as long as it likes.
+ *
+ * Alongside the board, each owner's number of countries, total armies and
+ * number of countries held in every continent are kept up to date on each
+ * write, so those per-player questions are answered in O(1). While the
+ * board fits in a long, each owner's countries are also kept as a
+ * {@link Topology} mask.
+ *
+ * Inside the engine players are known by small dense ids rather than by
+ * name. A name gets its id the first time it owns a country, or earlier
+ * through {@link #registerPlayer(String)}; ids are never reused, are shared
+ * by every copy, snapshot and view of a board, and can index plain arrays.
+ * The name-based methods remain for callers at the edges of the engine.
+ *
+ * The board also keeps two Zobrist-style hashes, updated on every write:
+ * one of the owners alone and one of the owners and armies together. Equal
+ * boards have equal hashes whatever order they were reached in, which is
+ * what lets a game notice that it is going round in circles.
+ */
 public class RiskMap {
 	private static final boolean READ_ONLY = true;
-	private Map<Country, String> owners;
-	private Map<Country, Integer> armies;
+	/**
+	 * Player id of an unowned country.
+	 */
+	public static final byte NO_OWNER = -1;
+	private static boolean topologyLoaded = false;
+	private static int[] countryContinents;
+	private static int[] continentSizes;
+	private State state;
+	private boolean readOnly;
+	private RiskMap readOnlyView;
+	private ConnectedComponents[] components;
 	
 	public RiskMap(RiskMap map, boolean access) {
 		if (access == READ_ONLY) {
@@ -28,64 +66,502 @@ public class RiskMap {
 	}
 	
 	public RiskMap() {
-		this.owners = new HashMap<Country, String>();
-		this.armies = new HashMap<Country, Integer>();
+		this.state = new State();
+		this.readOnly = !READ_ONLY;
 		
-		loadMap();
+		loadTopology();
+	}
+	
+	private RiskMap(State sharedState, boolean access) {
+		this.state = sharedState;
+		this.readOnly = access;
 	}
 	
 	public String getCountryOwner(Country country) {
-		return this.owners.get(country);
+		return this.state.getOwnerName(this.state.owners[country.ordinal()]);
 	}
 	
-	public void setCountryOwner(Country country, String owner) {
-		try{
-		this.owners.put(country, owner);
+	/**
+	 * Id of the country's owner, or {@link #NO_OWNER} if it is unowned.
+	 */
+	public byte getCountryOwnerId(Country country) {
+		return this.state.owners[country.ordinal()];
+	}
+	
+	/**
+	 * Returns true IFF the country is owned by the player with the given id.
+	 */
+	public boolean isOwnedBy(Country country, byte playerId) {
+		return playerId != NO_OWNER && this.state.owners[country.ordinal()] == playerId;
+	}
+	
+	/**
+	 * Id of the named player, or {@link #NO_OWNER} if the name is unknown to this board.
+	 */
+	public byte getPlayerId(String playerName) {
+		return this.state.findOwnerId(playerName);
+	}
+	
+	/**
+	 * Name of the player with the given id, or null for {@link #NO_OWNER}.
+	 */
+	public String getPlayerName(byte playerId) {
+		return this.state.getOwnerName(playerId);
+	}
+	
+	/**
+	 * Gives the named player an id before it owns anything, so that a game
+	 * can number its players in turn order. Registering a name twice
+	 * returns the same id.
+	 */
+	public byte registerPlayer(String playerName) {
+		return writableState().getOwnerId(playerName);
+	}
+	
+	/**
+	 * @param playerId an id given by {@link #registerPlayer(String)}, or {@link #NO_OWNER}
+	 * @throws IllegalArgumentException if country is null or playerId was never given out
+	 */
+	public void setCountryOwnerId(Country country, byte playerId) {
+		checkCountry(country);
+		State data = writableState();
+		if (playerId != NO_OWNER && (playerId < 0 || playerId >= data.numOwners)) {
+			throw new IllegalArgumentException("RiskMap: unknown owner id " + playerId + ".");
 		}
-		catch(Exception e)
-		{
-			System.out.println("RMAPe " + e);
+		data.setOwner(country.ordinal(), playerId);
+		data.version++;
+	}
+	
+	/**
+	 * @param owner the owner's name, registered if it is new; null for none
+	 * @throws IllegalArgumentException if country is null
+	 */
+	public void setCountryOwner(Country country, String owner) {
+		checkCountry(country);
+		State data = writableState();
+		data.setOwner(country.ordinal(), data.getOwnerId(owner));
+		data.version++;
+	}
+	
+	private static void checkCountry(Country country) {
+		if (country == null) {
+			throw new IllegalArgumentException("RiskMap: no such country.");
 		}
 	}
 	
 	public int getCountryArmies(Country country) {
-		return this.armies.get(country);
+		return this.state.armies[country.ordinal()];
 	}
 	
 	public void addCountryArmies(Country country, int numArmies) {
-		this.armies.put(country, this.armies.get(country) + numArmies);
+		State data = writableState();
+		data.setArmies(country.ordinal(), data.armies[country.ordinal()] + numArmies);
+		data.version++;
 	}
 	
 	public void setCountryArmies(Country country, int numArmies) {
-		this.armies.put(country, numArmies);
+		State data = writableState();
+		data.setArmies(country.ordinal(), numArmies);
+		data.version++;
+	}
+	
+	/**
+	 * Number of countries owned by the named player.
+	 */
+	public int getPlayerCountryCount(String playerName) {
+		return getPlayerCountryCount(this.state.findOwnerId(playerName));
+	}
+	
+	public int getPlayerCountryCount(byte playerId) {
+		return playerId == NO_OWNER ? 0 : this.state.countryCounts[playerId];
+	}
+	
+	/**
+	 * Total number of armies, over all countries, of the named player.
+	 */
+	public int getPlayerArmyCount(String playerName) {
+		return getPlayerArmyCount(this.state.findOwnerId(playerName));
+	}
+	
+	public int getPlayerArmyCount(byte playerId) {
+		return playerId == NO_OWNER ? 0 : this.state.armyTotals[playerId];
+	}
+	
+	/**
+	 * Number of countries of the given continent owned by the named player.
+	 */
+	public int getPlayerContinentCountryCount(String playerName, Continent continent) {
+		return getPlayerContinentCountryCount(this.state.findOwnerId(playerName), continent);
+	}
+	
+	public int getPlayerContinentCountryCount(byte playerId, Continent continent) {
+		return playerId == NO_OWNER ? 0 : this.state.continentCounts[playerId * continentSizes.length + continent.ordinal()];
+	}
+	
+	/**
+	 * Returns true IFF the named player owns every country of the given continent.
+	 */
+	public boolean playerControlsContinent(String playerName, Continent continent) {
+		return playerControlsContinent(this.state.findOwnerId(playerName), continent);
+	}
+	
+	public boolean playerControlsContinent(byte playerId, Continent continent) {
+		return getPlayerContinentCountryCount(playerId, continent) == continentSizes[continent.ordinal()];
+	}
+	
+	/**
+	 * Mask of the countries owned by the named player; only meaningful if {@link Topology#FITS_IN_LONG}.
+	 */
+	public long getPlayerCountryMask(String playerName) {
+		return getPlayerCountryMask(this.state.findOwnerId(playerName));
+	}
+	
+	public long getPlayerCountryMask(byte playerId) {
+		return playerId == NO_OWNER ? 0L : this.state.ownedMasks[playerId];
+	}
+	
+	/**
+	 * Mask of every country with the same owner as the given one, or 0 if
+	 * it is unowned; only meaningful if {@link Topology#FITS_IN_LONG}.
+	 */
+	public long getCountryOwnerMask(Country country) {
+		byte id = this.state.owners[country.ordinal()];
+		return id == NO_OWNER ? 0L : this.state.ownedMasks[id];
+	}
+	
+	/**
+	 * Returns the friendly regions of the named player. The result is
+	 * computed in one linear pass and reused until the board next changes.
+	 */
+	public ConnectedComponents getConnectedComponents(String playerName) {
+		return getConnectedComponents(this.state.findOwnerId(playerName));
+	}
+	
+	public ConnectedComponents getConnectedComponents(byte playerId) {
+		if (playerId == NO_OWNER) {
+			return new ConnectedComponents(this, playerId);
+		}
+		//each map keeps its own cache, so copies and views sharing the storage never write to each other's
+		ConnectedComponents[] cache = this.components;
+		if (cache == null || playerId >= cache.length) {
+			int capacity = this.state.ownerNames.length;
+			cache = cache == null ? new ConnectedComponents[capacity] : Arrays.copyOf(cache, capacity);
+			this.components = cache;
+		}
+		ConnectedComponents components = cache[playerId];
+		if (components == null || components.getVersion() != this.state.version) {
+			components = new ConnectedComponents(this, playerId);
+			cache[playerId] = components;
+		}
+		return components;
+	}
+	
+	/**
+	 * Number of writes made to this board so far. Two reads of the same
+	 * version are guaranteed to see the same owners and armies.
+	 */
+	public long getVersion() {
+		return this.state.version;
+	}
+	
+	/**
+	 * Hash of the owner and army count of every country. Boards with the
+	 * same owners and armies have the same hash; O(1).
+	 */
+	public long getPositionHash() {
+		return this.state.ownerHash ^ this.state.armyHash;
+	}
+	
+	/**
+	 * Hash of the owner of every country, ignoring armies; O(1).
+	 */
+	public long getOwnershipHash() {
+		return this.state.ownerHash;
 	}
 	
-	private void loadMap() {
-		for (Continent continent : Continent.values()) {
-			continent.init();
+	public boolean isReadOnly() {
+		return this.readOnly;
+	}
+	
+	/**
+	 * Empties the board and forgets every player, as a new map would be, so
+	 * that one map can serve game after game. The storage is reused unless a
+	 * copy or snapshot still shares it. The version keeps counting up, so
+	 * nothing computed for the old board passes for the new one.
+	 */
+	public void clear() {
+		if (this.readOnly) {
+			throw new UnsupportedOperationException("RiskMap: this copy of the map is read-only.");
 		}
-		for (Country country : Country.values()) {
-			country.init();
-			this.owners.put(country, null);
-			this.armies.put(country, 0);
+		if (this.state.isShared()) {
+			State empty = new State();
+			empty.version = this.state.version;
+			this.state.release();
+			this.state = empty;
+			if (this.readOnlyView != null) {
+				this.readOnlyView.state = empty;
+			}
 		}
+		this.state.clear();
 	}
 	
+	/**
+	 * Continents and countries are enums, so their membership and neighbor
+	 * lists are shared by every map in the JVM. Build them exactly once,
+	 * even when several games construct maps at the same time.
+	 */
+	private static synchronized void loadTopology() {
+		if (!topologyLoaded) {
+			for (Continent continent : Continent.values()) {
+				continent.init();
+			}
+			countryContinents = new int[Country.values().length];
+			continentSizes = new int[Continent.values().length];
+			for (Country country : Country.values()) {
+				country.init();
+				countryContinents[country.ordinal()] = country.getContinent().ordinal();
+				continentSizes[country.getContinent().ordinal()]++;
+			}
+			Topology.load();
+			topologyLoaded = true;
+		}
+	}
+	
+	/**
+	 * Forks this map in O(1). The fork is writable, and neither map sees
+	 * the other's later writes.
+	 */
 	public RiskMap getCopy() {
 		return new RiskMap(this, !READ_ONLY);
 	}
 	
+	/**
+	 * Takes an O(1), read-only snapshot of the board as it is now. Unlike
+	 * {@link #getReadOnlyView()}, the snapshot never changes.
+	 */
+	public RiskMap getSnapshot() {
+		return new RiskMap(this.state.share(), READ_ONLY);
+	}
+	
+	/**
+	 * Same as {@link #getReadOnlyView()}; kept for existing callers.
+	 */
 	public RiskMap getReadOnlyCopy() {
-		return new RiskMap(this, READ_ONLY);
+		return getReadOnlyView();
+	}
+	
+	/**
+	 * Returns the live, write-protected view of this map. The same view is
+	 * returned on every call.
+	 */
+	public RiskMap getReadOnlyView() {
+		if (this.readOnly) {
+			return this;
+		}
+		if (this.readOnlyView == null) {
+			//the view follows this map's storage; writableState and clear re-point it
+			this.readOnlyView = new RiskMap(this.state, READ_ONLY);
+		}
+		return this.readOnlyView;
 	}
 	
 	private void copyMap(RiskMap map) {
-		this.owners = map.owners;
-		this.armies = map.armies;
+		this.state = map.state.share();
+		this.readOnly = !READ_ONLY;
 	}
-
+	
 	private void copyMapReadOnly(RiskMap map) {
-		this.owners = Collections.unmodifiableMap(map.owners);
-		this.armies = Collections.unmodifiableMap(map.armies);
+		this.state = map.state.share();
+		this.readOnly = READ_ONLY;
+	}
+	
+	/**
+	 * Returns storage that this map alone may write to, taking a private
+	 * copy first if the current storage is shared with a copy or snapshot.
+	 */
+	private State writableState() {
+		if (this.readOnly) {
+			throw new UnsupportedOperationException("RiskMap: this copy of the map is read-only.");
+		}
+		if (this.state.isShared()) {
+			State copy = new State(this.state);
+			this.state.release();
+			this.state = copy;
+			if (this.readOnlyView != null) {
+				this.readOnlyView.state = copy;
+			}
+		}
+		return this.state;
+	}
+	
+	/**
+	 * Primitive board storage. Owners are kept as indexes into ownerNames,
+	 * which grows as new owner names are seen; {@link #NO_OWNER} marks an
+	 * unowned country. refs counts the maps and snapshots sharing it.
+	 * The per-owner aggregates are indexed by owner id; continentCounts
+	 * holds one row of continent counts per owner.
+	 */
+	private static class State {
+		private int[] armies;
+		private byte[] owners;
+		private String[] ownerNames;
+		private int numOwners;
+		private int[] countryCounts;
+		private int[] armyTotals;
+		private int[] continentCounts;
+		private long[] ownedMasks;
+		private long ownerHash;
+		private long armyHash;
+		private long version;
+		private final AtomicInteger refs = new AtomicInteger(1);
+		
+		private State() {
+			this.armies = new int[Country.values().length];
+			this.owners = new byte[Country.values().length];
+			Arrays.fill(this.owners, NO_OWNER);
+			this.ownerNames = new String[8];
+			this.numOwners = 0;
+			this.countryCounts = new int[this.ownerNames.length];
+			this.armyTotals = new int[this.ownerNames.length];
+			this.continentCounts = new int[this.ownerNames.length * Continent.values().length];
+			this.ownedMasks = new long[this.ownerNames.length];
+		}
+		
+		private State(State other) {
+			this.armies = other.armies.clone();
+			this.owners = other.owners.clone();
+			this.ownerNames = other.ownerNames.clone();
+			this.numOwners = other.numOwners;
+			this.countryCounts = other.countryCounts.clone();
+			this.armyTotals = other.armyTotals.clone();
+			this.continentCounts = other.continentCounts.clone();
+			this.ownedMasks = other.ownedMasks.clone();
+			this.ownerHash = other.ownerHash;
+			this.armyHash = other.armyHash;
+			this.version = other.version;
+		}
+		
+		private void clear() {
+			Arrays.fill(this.armies, 0);
+			Arrays.fill(this.owners, NO_OWNER);
+			Arrays.fill(this.ownerNames, null);
+			this.numOwners = 0;
+			Arrays.fill(this.countryCounts, 0);
+			Arrays.fill(this.armyTotals, 0);
+			Arrays.fill(this.continentCounts, 0);
+			Arrays.fill(this.ownedMasks, 0L);
+			this.ownerHash = 0L;
+			this.armyHash = 0L;
+			this.version++;
+		}
+		
+		private State share() {
+			this.refs.incrementAndGet();
+			return this;
+		}
+		
+		private boolean isShared() {
+			return this.refs.get() > 1;
+		}
+		
+		private void release() {
+			this.refs.decrementAndGet();
+		}
+		
+		private String getOwnerName(byte id) {
+			return id == NO_OWNER ? null : this.ownerNames[id];
+		}
+		
+		private void setOwner(int countryIdx, byte newOwner) {
+			byte oldOwner = this.owners[countryIdx];
+			if (oldOwner != newOwner) {
+				int continent = countryContinents[countryIdx];
+				long bit = Topology.FITS_IN_LONG ? 1L << countryIdx : 0L;
+				if (oldOwner != NO_OWNER) {
+					this.countryCounts[oldOwner]--;
+					this.armyTotals[oldOwner] -= this.armies[countryIdx];
+					this.continentCounts[oldOwner * continentSizes.length + continent]--;
+					this.ownedMasks[oldOwner] &= ~bit;
+					this.ownerHash ^= ownerKey(countryIdx, this.ownerNames[oldOwner]);
+				}
+				if (newOwner != NO_OWNER) {
+					this.countryCounts[newOwner]++;
+					this.armyTotals[newOwner] += this.armies[countryIdx];
+					this.continentCounts[newOwner * continentSizes.length + continent]++;
+					this.ownedMasks[newOwner] |= bit;
+					this.ownerHash ^= ownerKey(countryIdx, this.ownerNames[newOwner]);
+				}
+				this.owners[countryIdx] = newOwner;
+			}
+		}
+		
+		private void setArmies(int countryIdx, int numArmies) {
+			byte owner = this.owners[countryIdx];
+			if (owner != NO_OWNER) {
+				this.armyTotals[owner] += numArmies - this.armies[countryIdx];
+			}
+			this.armyHash ^= armyKey(countryIdx, this.armies[countryIdx]) ^ armyKey(countryIdx, numArmies);
+			this.armies[countryIdx] = numArmies;
+		}
+		
+		/**
+		 * Hash keys of one country's owner and army count. Owners are keyed by
+		 * name rather than id, so the hash does not depend on the order owners
+		 * were first seen in. Empty countries contribute nothing, and so a new
+		 * board hashes to 0.
+		 */
+		private static long ownerKey(int countryIdx, String ownerName) {
+			return mix64((long) countryIdx << 32 | (ownerName.hashCode() & 0xFFFFFFFFL));
+		}
+		
+		private static long armyKey(int countryIdx, int numArmies) {
+			return numArmies == 0 ? 0L : mix64((long) (countryIdx + countryContinents.length) << 32 | (numArmies & 0xFFFFFFFFL));
+		}
+		
+		private static long mix64(long z) {
+			z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+			z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+			return z ^ (z >>> 31);
+		}
+		
+		/**
+		 * Finds the id of the named owner, or NO_OWNER if the name has never owned a country here.
+		 */
+		private byte findOwnerId(String name) {
+			if (name != null) {
+				for (int i = 0; i < this.numOwners; i++) {
+					if (this.ownerNames[i] == name || this.ownerNames[i].equals(name)) {
+						return (byte) i;
+					}
+				}
+			}
+			return NO_OWNER;
+		}
+		
+		/**
+		 * Finds the id of the named owner, registering the name if it is new.
+		 */
+		private byte getOwnerId(String name) {
+			if (name == null) {
+				return NO_OWNER;
+			}
+			byte id = findOwnerId(name);
+			if (id != NO_OWNER) {
+				return id;
+			}
+			if (this.numOwners == Byte.MAX_VALUE) {
+				throw new IllegalStateException("RiskMap: too many distinct owners.");
+			}
+			if (this.numOwners == this.ownerNames.length) {
+				int capacity = 2 * this.ownerNames.length;
+				this.ownerNames = Arrays.copyOf(this.ownerNames, capacity);
+				this.countryCounts = Arrays.copyOf(this.countryCounts, capacity);
+				this.armyTotals = Arrays.copyOf(this.armyTotals, capacity);
+				this.continentCounts = Arrays.copyOf(this.continentCounts, capacity * continentSizes.length);
+				this.ownedMasks = Arrays.copyOf(this.ownedMasks, capacity);
+			}
+			this.ownerNames[this.numOwners] = name;
+			return (byte) this.numOwners++;
+		}
 	}
-}
\ No newline at end of file
+}
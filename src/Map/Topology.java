@@ -0,0 +1,117 @@
+package Map;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Bitmask form of the board's topology.
+ *
+ * While the board has no more than 64 countries, a set of countries fits in
+ * a single long, with bit i standing for the country of ordinal i. Neighbor,
+ * continent and continent border masks are computed once, after the enums
+ * have been initialized, so that adjacency and ownership questions become a
+ * handful of AND/OR operations instead of searches over collections.
+ *
+ * Callers must check {@link #FITS_IN_LONG} before relying on any mask; when
+ * it is false every mask is left empty and the collection-based code paths
+ * must be used instead.
+ */
+public final class Topology {
+	/**
+	 * True IFF every country has a bit of its own in a long.
+	 */
+	public static final boolean FITS_IN_LONG = Country.values().length <= Long.SIZE;
+	/**
+	 * Mask with a bit set for every country on the board.
+	 */
+	public static final long ALL = FITS_IN_LONG ? -1L >>> (Long.SIZE - Country.values().length) : 0L;
+	
+	private static final Country[] COUNTRIES = Country.values();
+	private static final long[] NEIGHBORS = new long[COUNTRIES.length];
+	private static final long[] CONTINENTS = new long[Continent.values().length];
+	private static final long[] CONTINENT_BORDERS = new long[Continent.values().length];
+	
+	private Topology() {
+	}
+	
+	/**
+	 * Builds the masks. Must be called once, after every Continent and Country has been initialized.
+	 */
+	static void load() {
+		if (!FITS_IN_LONG) {
+			return;
+		}
+		for (Country country : COUNTRIES) {
+			long neighbors = 0L;
+			for (Country neighbor : country.getNeighbors()) {
+				neighbors |= bit(neighbor);
+				if (neighbor.getContinent() != country.getContinent()) {
+					CONTINENT_BORDERS[country.getContinent().ordinal()] |= bit(country);
+				}
+			}
+			NEIGHBORS[country.ordinal()] = neighbors;
+			CONTINENTS[country.getContinent().ordinal()] |= bit(country);
+		}
+	}
+	
+	public static long bit(Country country) {
+		return 1L << country.ordinal();
+	}
+	
+	public static long getNeighborMask(Country country) {
+		return NEIGHBORS[country.ordinal()];
+	}
+	
+	public static long getContinentMask(Continent continent) {
+		return CONTINENTS[continent.ordinal()];
+	}
+	
+	/**
+	 * Countries of the continent that have at least one neighbor outside of it.
+	 */
+	public static long getContinentBorderMask(Continent continent) {
+		return CONTINENT_BORDERS[continent.ordinal()];
+	}
+	
+	/**
+	 * Union of the neighbors of every country in mask.
+	 */
+	public static long getNeighborMask(long mask) {
+		long neighbors = 0L;
+		while (mask != 0L) {
+			neighbors |= NEIGHBORS[Long.numberOfTrailingZeros(mask)];
+			mask &= mask - 1;
+		}
+		return neighbors;
+	}
+	
+	/**
+	 * Flood fill: every country reachable from origin by stepping only onto countries in allowed.
+	 * The result always includes origin itself.
+	 */
+	public static long getReachableMask(long origin, long allowed) {
+		long reached = origin;
+		long frontier = origin;
+		while (frontier != 0L) {
+			frontier = getNeighborMask(frontier) & allowed & ~reached;
+			reached |= frontier;
+		}
+		return reached;
+	}
+	
+	public static Set<Country> toSet(long mask) {
+		Set<Country> countries = EnumSet.noneOf(Country.class);
+		while (mask != 0L) {
+			countries.add(COUNTRIES[Long.numberOfTrailingZeros(mask)]);
+			mask &= mask - 1;
+		}
+		return countries;
+	}
+	
+	public static long toMask(Set<Country> countries) {
+		long mask = 0L;
+		for (Country country : countries) {
+			mask |= bit(country);
+		}
+		return mask;
+	}
+}
@@ -0,0 +1,151 @@
+package Master;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import Util.RiskConstants;
+
+/**
+ * Plays batches of headless games for clients on this machine, in one JVM
+ * that stays up between batches, so that a sweep of many short batches pays
+ * for JVM startup, class loading and JIT warm-up only once.
+ *
+ * The daemon listens on a loopback TCP port and reads one batch request per
+ * line, with the arguments of {@link GameMaster#main(String[])} in the same
+ * order:
+ *
+ * <pre>
+ * numGames seed [players [threads [firstGame [binary]]]]
+ * </pre>
+ *
+ * where players is "-" for the default line-up. The reply is exactly what
+ * the same command line would print -- one line per game, as soon as it is
+ * known, then the summary -- followed by a line holding {@link #END}. A
+ * request that cannot be parsed is answered by a line starting with
+ * {@link #ERROR}, then END. "quit" ends the connection and "shutdown" stops
+ * the daemon. For example: <code>echo "100 7 Easy,Hard" | nc localhost 7777</code>.
+ *
+ * Connections are served one at a time, in the order they arrive, and a
+ * batch runs on as many threads as it asks for. As on the command line, the
+ * last game of every batch writes LOG.txt and STATS.txt in the daemon's
+ * working directory.
+ */
+public class BatchDaemon {
+	public static final int DEFAULT_PORT = 7777;
+	public static final String END = "END";
+	public static final String ERROR = "ERROR";
+	private static final String DEFAULT_PLAYERS = "-";
+	
+	private final int port;
+	private volatile boolean running;
+	
+	public BatchDaemon(int port) {
+		this.port = port;
+	}
+	
+	/**
+	 * Serves connections until a client asks for a shutdown.
+	 * @throws IOException if the port could not be opened
+	 */
+	public void serve() throws IOException {
+		ServerSocket server = new ServerSocket(this.port, 50, InetAddress.getLoopbackAddress());
+		try {
+			System.out.println("Batch daemon listening on " + server.getLocalSocketAddress());
+			this.running = true;
+			while (this.running) {
+				Socket client = server.accept();
+				try {
+					serve(client);
+				}
+				catch (IOException e) {
+					System.out.println("Batch daemon: connection lost: " + e);
+				}
+				finally {
+					client.close();
+				}
+			}
+		}
+		finally {
+			server.close();
+		}
+	}
+	
+	private void serve(Socket client) throws IOException {
+		BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+		PrintStream out = new PrintStream(new BufferedOutputStream(client.getOutputStream()), true, "UTF-8");
+		String request;
+		while ((request = in.readLine()) != null) {
+			request = request.trim();
+			if (request.isEmpty()) {
+				continue;
+			}
+			if (request.equalsIgnoreCase("quit")) {
+				return;
+			}
+			if (request.equalsIgnoreCase("shutdown")) {
+				this.running = false;
+				out.println(END);
+				return;
+			}
+			runBatch(request, out);
+			out.println(END);
+			if (out.checkError()) {
+				throw new IOException("Batch daemon: the client stopped reading.");
+			}
+		}
+	}
+	
+	/**
+	 * Plays the batch described by request, printing its record to out.
+	 */
+	private void runBatch(String request, PrintStream out) {
+		String[] args = request.split("\\s+");
+		int numGames, numThreads = 1, firstGame = 1;
+		long seed;
+		String players = null;
+		try {
+			if (args.length < 2) {
+				throw new IllegalArgumentException("expected: numGames seed [players [threads [firstGame [binary]]]]");
+			}
+			numGames = Integer.parseInt(args[0]);
+			seed = Long.parseLong(args[1]);
+			if (args.length >= 3 && !args[2].equals(DEFAULT_PLAYERS)) {
+				players = args[2];
+			}
+			if (args.length >= 4) {
+				numThreads = Integer.parseInt(args[3]);
+			}
+			if (args.length >= 5) {
+				firstGame = Integer.parseInt(args[4]);
+			}
+			RiskConstants.BINARY_LOGS = args.length >= 6 && "binary".equalsIgnoreCase(args[5]);
+		}
+		catch (IllegalArgumentException e) {
+			out.println(ERROR + " " + e.getMessage());
+			return;
+		}
+		try {
+			Tournament tournament = new Tournament(players, numGames, numThreads, seed, firstGame);
+			tournament.setOutput(out);
+			tournament.printSummary(tournament.run());
+		}
+		catch (Exception e) {
+			//a bad line-up or a failed log must not take the daemon down
+			out.println(ERROR + " " + e);
+		}
+	}
+	
+	public static void main(String[] args) throws IOException {
+		int port = DEFAULT_PORT;
+		if (args != null && args.length >= 1) {
+			port = Integer.parseInt(args[0]);
+		}
+		new BatchDaemon(port).serve();
+	}
+}
@@ -0,0 +1,171 @@
+package Master;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import Master.DecisionRunner.Phase;
+import Util.RiskConstants;
+
+/**
+ * Counts the exceptions that players throw from their decisions, which the
+ * game otherwise swallows and treats as an invalid response.
+ *
+ * Failures are counted per (player, phase, exception class) in a concurrent
+ * table, so every game of a batch can share one instance without taking a
+ * lock. A decision that does not throw costs nothing; one that does costs a
+ * table lookup and a counter increment. The first failure of each kind keeps
+ * its exception, and after that about one in
+ * {@link RiskConstants#FAILURE_SAMPLE_RATE} does, up to
+ * {@link #MAX_SAMPLES} per kind, so that the summary can show where the
+ * player went wrong.
+ */
+public class DecisionFailures {
+	public static final int MAX_SAMPLES = 4;
+	private static final int PRINTED_FRAMES = 8;
+	
+	private final ConcurrentMap<Key, Tally> tallies;
+	
+	public DecisionFailures() {
+		this.tallies = new ConcurrentHashMap<Key, Tally>();
+	}
+	
+	/**
+	 * Counts a failed decision of the named player.
+	 * @param failure the exception the decision threw; the cause of a wrapped error is counted instead
+	 */
+	public void record(String playerName, Phase phase, Exception failure) {
+		Throwable cause = failure;
+		if (failure instanceof ExecutionException && failure.getCause() != null) {
+			cause = failure.getCause();
+		}
+		Key key = new Key(playerName, phase, cause.getClass());
+		Tally tally = this.tallies.get(key);
+		if (tally == null) {
+			Tally created = new Tally();
+			tally = this.tallies.putIfAbsent(key, created);
+			if (tally == null) {
+				tally = created;
+				tally.keep(cause);
+			}
+		}
+		else {
+			int rate = RiskConstants.FAILURE_SAMPLE_RATE;
+			if (rate > 0 && ThreadLocalRandom.current().nextInt(rate) == 0) {
+				tally.keep(cause);
+			}
+		}
+		tally.count.increment();
+	}
+	
+	/**
+	 * Returns true IFF no decision has failed.
+	 */
+	public boolean isEmpty() {
+		return this.tallies.isEmpty();
+	}
+	
+	/**
+	 * Total number of failed decisions of the named player.
+	 */
+	public long getFailures(String playerName) {
+		long total = 0;
+		for (Map.Entry<Key, Tally> entry : this.tallies.entrySet()) {
+			if (entry.getKey().playerName.equals(playerName)) {
+				total += entry.getValue().count.sum();
+			}
+		}
+		return total;
+	}
+	
+	/**
+	 * Prints one line per kind of failure, most frequent first, each followed by
+	 * the top frames of the exceptions kept for it. Prints nothing if no decision failed.
+	 */
+	public void printSummary(PrintStream out) {
+		List<Map.Entry<Key, Tally>> entries = new ArrayList<Map.Entry<Key, Tally>>(this.tallies.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<Key, Tally>>() {
+			@Override
+			public int compare(Map.Entry<Key, Tally> a, Map.Entry<Key, Tally> b) {
+				return Long.compare(b.getValue().count.sum(), a.getValue().count.sum());
+			}
+		});
+		for (Map.Entry<Key, Tally> entry : entries) {
+			Key key = entry.getKey();
+			out.println(key.playerName + " threw " + key.type.getName() + " " + entry.getValue().count.sum() + " time(s) during " + key.phase);
+			AtomicReferenceArray<Throwable> samples = entry.getValue().samples;
+			for (int i = 0; i < samples.length(); i++) {
+				Throwable sample = samples.get(i);
+				if (sample != null) {
+					printSample(out, sample);
+				}
+			}
+		}
+	}
+	
+	private static void printSample(PrintStream out, Throwable sample) {
+		out.println("\t" + sample);
+		StackTraceElement[] frames = sample.getStackTrace();
+		if (frames.length == 0) {
+			//the JIT throws common exceptions from hot code without a trace
+			out.println("\t\t(no stack trace; run with -XX:-OmitStackTraceInFastThrow to keep them)");
+		}
+		for (int i = 0; i < frames.length && i < PRINTED_FRAMES; i++) {
+			out.println("\t\tat " + frames[i]);
+		}
+		if (frames.length > PRINTED_FRAMES) {
+			out.println("\t\t... " + (frames.length - PRINTED_FRAMES) + " more");
+		}
+	}
+	
+	private static class Key {
+		private final String playerName;
+		private final Phase phase;
+		private final Class<?> type;
+		private final int hash;
+		
+		private Key(String playerName, Phase phase, Class<?> type) {
+			this.playerName = playerName;
+			this.phase = phase;
+			this.type = type;
+			this.hash = (playerName.hashCode() * 31 + phase.ordinal()) * 31 + type.hashCode();
+		}
+		
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+		
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) other;
+			return this.phase == key.phase && this.type == key.type && this.playerName.equals(key.playerName);
+		}
+	}
+	
+	/**
+	 * The count of one kind of failure, and a few of its exceptions; once the
+	 * slots are full, a newly kept exception replaces the oldest.
+	 */
+	private static class Tally {
+		private final LongAdder count = new LongAdder();
+		private final AtomicReferenceArray<Throwable> samples = new AtomicReferenceArray<Throwable>(MAX_SAMPLES);
+		private final AtomicInteger kept = new AtomicInteger();
+		
+		private void keep(Throwable sample) {
+			this.samples.set((this.kept.getAndIncrement() & Integer.MAX_VALUE) % MAX_SAMPLES, sample);
+		}
+	}
+}
@@ -0,0 +1,282 @@
+package Master;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+import Util.RiskConstants;
+
+/**
+ * Asks the players of one game for their decisions, each under a deadline.
+ *
+ * Every decision runs on the game's own decision thread while the game
+ * thread waits for it, so players are still called one at a time and in
+ * the same order as before. A decision that misses the deadline for its
+ * phase is abandoned: the caller gets a {@link TimeoutException}, which the
+ * game treats like any other invalid response, and the timeout is counted
+ * against the player. A stuck player keeps its thread, so the runner starts
+ * a fresh one for the decisions that follow. Until the abandoned decision
+ * returns, the same player is never asked for another, as it would run
+ * alongside the first on another thread: each of its later decisions fails
+ * at once, as a timeout. A game thread interrupted while it waits gets an
+ * {@link InterruptedException} instead, and the decision is abandoned in
+ * the same way but not counted: the game is being stopped, and the player
+ * is not to blame.
+ *
+ * A deadline of 0 runs that phase directly on the game thread, with no limit.
+ *
+ * Decision threads are daemon platform threads unless the runner is given
+ * a {@link ThreadFactory} of its own, e.g. of virtual threads.
+ */
+public class DecisionRunner {
+	public enum Phase {
+		INITIAL_ALLOCATION, TURN_IN, REINFORCE, ATTACK, DEFEND, ADVANCE, FORTIFY
+	}
+	
+	public static final long DEFAULT_DEADLINE_MS = 2000;
+	private static final long[] DEADLINES_MS = new long[Phase.values().length];
+	static {
+		for (Phase phase : Phase.values()) {
+			DEADLINES_MS[phase.ordinal()] = DEFAULT_DEADLINE_MS;
+		}
+	}
+	
+	private final String gameName;
+	private final Map<String, Integer> timeouts;
+	/**
+	 * The thread of each player's abandoned decision, while it may still be running.
+	 */
+	private final Map<String, Worker> stuck;
+	private Worker worker;
+	private ThreadFactory threads;
+	private int threadCount;
+	private boolean deadlinesEnforced = true;
+	
+	public DecisionRunner(String gameName) {
+		this.gameName = gameName;
+		this.timeouts = new HashMap<String, Integer>();
+		this.stuck = new HashMap<String, Worker>();
+	}
+	
+	/**
+	 * Sets the deadline, in milliseconds, of every later decision of the given phase; 0 removes it.
+	 */
+	public static synchronized void setDeadline(Phase phase, long deadlineMs) {
+		if (deadlineMs < 0) {
+			throw new IllegalArgumentException("DecisionRunner: deadline must not be negative.");
+		}
+		DEADLINES_MS[phase.ordinal()] = deadlineMs;
+	}
+	
+	public static synchronized long getDeadline(Phase phase) {
+		return DEADLINES_MS[phase.ordinal()];
+	}
+	
+	/**
+	 * Turning the deadlines off runs every later decision directly on the
+	 * game thread, as a deadline of 0 does; a human player needs as long as
+	 * it takes.
+	 */
+	public void setDeadlinesEnforced(boolean enforced) {
+		this.deadlinesEnforced = enforced;
+	}
+	
+	/**
+	 * Sets where every later decision thread comes from; null for daemon platform threads.
+	 */
+	public void setThreadFactory(ThreadFactory threads) {
+		this.threads = threads;
+	}
+	
+	/**
+	 * Runs decision for the named player, waiting no longer than the deadline of phase.
+	 * @return the decision's result
+	 * @throws TimeoutException if the deadline passed first, or the player is still stuck in an earlier decision
+	 * @throws InterruptedException if the calling thread was interrupted while it waited
+	 * @throws Exception whatever the decision itself threw
+	 */
+	public <T> T decide(Phase phase, String playerName, Callable<T> decision) throws Exception {
+		Worker stuckWorker = this.stuck.get(playerName);
+		if (stuckWorker != null) {
+			if (stuckWorker.isBusy()) {
+				countTimeout(playerName);
+				throw new TimeoutException("DecisionRunner: " + playerName + " has not returned from an abandoned decision.");
+			}
+			this.stuck.remove(playerName);
+		}
+		long deadlineMs = getDeadline(phase);
+		if (deadlineMs == 0 || !this.deadlinesEnforced) {
+			return decision.call();
+		}
+		if (this.worker == null) {
+			this.worker = new Worker("Decisions: " + this.gameName + " #" + this.threadCount++, this.threads);
+		}
+		try {
+			@SuppressWarnings("unchecked")
+			T result = (T) this.worker.run(decision, RiskConstants.getLastTurnIn(), TimeUnit.MILLISECONDS.toNanos(deadlineMs));
+			return result;
+		}
+		catch (TimeoutException e) {
+			this.worker.abandon();
+			this.stuck.put(playerName, this.worker);
+			this.worker = null;
+			countTimeout(playerName);
+			throw e;
+		}
+		catch (InterruptedException e) {
+			this.worker.abandon();
+			this.stuck.put(playerName, this.worker);
+			this.worker = null;
+			throw e;
+		}
+	}
+	
+	private void countTimeout(String playerName) {
+		Integer count = this.timeouts.get(playerName);
+		this.timeouts.put(playerName, count == null ? 1 : count + 1);
+	}
+	
+	/**
+	 * Number of missed deadlines of each player that has missed any.
+	 */
+	public Map<String, Integer> getTimeouts() {
+		return Collections.unmodifiableMap(this.timeouts);
+	}
+	
+	/**
+	 * Forgets the missed deadlines counted so far, and the players stuck in
+	 * abandoned decisions, when the runner moves on to another game and its
+	 * new players; the decision thread is kept.
+	 */
+	public void resetTimeouts() {
+		this.timeouts.clear();
+		this.stuck.clear();
+	}
+	
+	/**
+	 * Lets the decision thread go once the runner is no longer needed.
+	 */
+	public void shutdown() {
+		if (this.worker != null) {
+			this.worker.abandon();
+			this.worker = null;
+		}
+	}
+	
+	/**
+	 * A daemon thread that runs one decision at a time for the game thread.
+	 *
+	 * Players usually answer within microseconds, and the game asks again
+	 * almost at once, so on a multi-core machine both sides spin briefly
+	 * before parking: a decision then costs two volatile writes rather than
+	 * two trips through the scheduler, as an executor's queue and future
+	 * would. With a single core spinning only delays the other side, so
+	 * both park straight away.
+	 */
+	private static class Worker implements Runnable {
+		private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 1 << 12 : 0;
+		
+		private final Thread thread;
+		/**
+		 * The thread waiting for the current decision; written before the task is handed over.
+		 */
+		private Thread caller;
+		private volatile Callable<?> task;
+		private volatile boolean done;
+		private volatile boolean abandoned;
+		private int lastTurnIn;
+		private Object result;
+		private Exception failure;
+		
+		private Worker(String name, ThreadFactory threads) {
+			if (threads == null) {
+				this.thread = new Thread(this, name);
+				this.thread.setDaemon(true);
+			}
+			else {
+				this.thread = threads.newThread(this);
+				this.thread.setName(name);
+			}
+			this.thread.start();
+		}
+		
+		/**
+		 * Called on the game thread: hands task over and waits for its outcome.
+		 */
+		private Object run(Callable<?> task, int lastTurnIn, long timeoutNanos) throws Exception {
+			this.caller = Thread.currentThread();
+			this.lastTurnIn = lastTurnIn;
+			this.done = false;
+			this.task = task;
+			LockSupport.unpark(this.thread);
+			long deadline = System.nanoTime() + timeoutNanos;
+			for (int i = 0; !this.done && i < SPINS; i++) {
+			}
+			while (!this.done) {
+				//an interrupted thread's park returns at once, so without this the wait would spin to the deadline
+				if (Thread.interrupted()) {
+					throw new InterruptedException("DecisionRunner: interrupted while waiting for a decision.");
+				}
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					throw new TimeoutException("DecisionRunner: no decision within " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms.");
+				}
+				LockSupport.parkNanos(this, remaining);
+			}
+			if (this.failure != null) {
+				Exception e = this.failure;
+				this.failure = null;
+				throw e;
+			}
+			Object outcome = this.result;
+			this.result = null;
+			return outcome;
+		}
+		
+		/**
+		 * Returns true IFF the task handed over may still be running.
+		 */
+		private boolean isBusy() {
+			return !this.done && this.thread.isAlive();
+		}
+		
+		private void abandon() {
+			this.abandoned = true;
+			this.thread.interrupt();
+			LockSupport.unpark(this.thread);
+		}
+		
+		@Override
+		public void run() {
+			while (!this.abandoned) {
+				Callable<?> next = this.task;
+				for (int i = 0; next == null && i < SPINS; i++) {
+					next = this.task;
+				}
+				if (next == null) {
+					LockSupport.park(this);
+					continue;
+				}
+				this.task = null;
+				//the card bonus progression is per thread; the decision must see the game's
+				RiskConstants.setLastTurnIn(this.lastTurnIn);
+				try {
+					this.result = next.call();
+				}
+				catch (Exception e) {
+					this.failure = e;
+				}
+				catch (Throwable t) {
+					this.failure = new ExecutionException(t);
+				}
+				this.done = true;
+				LockSupport.unpark(this.caller);
+			}
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package Master;
+import Map.Country;
+import Player.Player;
+
+/**
+ * Lets a front end follow, pace and stop a game run by {@link GameEngine}.
+ *
+ * Every method does nothing by default, so a front end overrides only what
+ * it needs; a headless game uses {@link #NONE}. The engine calls the hooks
+ * on its own thread, in the middle of the game, so they must not touch the
+ * engine's state themselves; blocking in them simply holds the game up.
+ *
+ * The hooks report changes of state, which not every event shows: the board
+ * also changes when a bonus country is reinforced or an eliminated player's
+ * countries are dealt out again. What happened, and why, is reported to the
+ * event sinks of the engine instead.
+ */
+public abstract class EngineHooks {
+	/**
+	 * Hooks that never pace or stop a game and ignore every change.
+	 */
+	public static final EngineHooks NONE = new EngineHooks() {
+	};
+	
+	/**
+	 * Asked before every step and decision; once it returns true the game
+	 * stops at the next check and {@link GameEngine#play()} returns null.
+	 */
+	public boolean isCancelled() {
+		return false;
+	}
+	
+	/**
+	 * Called before every player decision and at the start of every turn; may
+	 * block, e.g. while the game is paused.
+	 */
+	public void pace() {
+	}
+	
+	public void turnStarting(Player player) {
+	}
+	
+	/**
+	 * Called before each of the reinforce, attack and fortify steps of a turn.
+	 */
+	public void stepStarting(Player player) {
+	}
+	
+	/**
+	 * Called once the player has finished a turn without being eliminated.
+	 */
+	public void turnEnded(Player player) {
+	}
+	
+	public void ownerChanged(Country country) {
+	}
+	
+	public void armiesChanged(Country country) {
+	}
+	
+	/**
+	 * Called once the loser's countries and cards have been handed on.
+	 */
+	public void playerEliminated(String loserName, String reason) {
+	}
+}
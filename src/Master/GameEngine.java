@@ -0,0 +1,1276 @@
+package Master;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeoutException;
+
+import Map.Country;
+import Map.RiskMap;
+import Master.DecisionRunner.Phase;
+import Player.CommandConsole;
+import Player.Player;
+import Player.PlayerFactory;
+import Player.StandingDefender;
+import Response.AdvanceResponse;
+import Response.AttackResponse;
+import Response.BlitzAttackResponse;
+import Response.CardTurnInResponse;
+import Response.DefendResponse;
+import Response.FortifyResponse;
+import Response.ReinforcementResponse;
+import Util.Card;
+import Util.DiceRoller;
+import Util.GameLog;
+import Util.PlayerEliminatedException;
+import Util.RandomStreams;
+import Util.RiskConstants;
+import Util.RiskUtils;
+import Util.RollOutcome;
+import Util.StalemateDetector;
+
+/**
+ * The rules of one game: the map, the deck, the players and their hands,
+ * and the turn loop that asks the players for their decisions and carries
+ * them out.
+ *
+ * Both {@link GameMaster} and the JavaFX FXUIGameMaster play their games
+ * through an engine. Everything a front end adds -- showing changes,
+ * slowing bots down, pausing, ending the game early -- goes through the
+ * {@link EngineHooks} it hands in; a headless game passes
+ * {@link EngineHooks#NONE}.
+ *
+ * A new game is set up with {@link #loadPlayers(String)},
+ * {@link #allocateMap()} and {@link #initializeForces()}; a saved one
+ * with {@link #restorePlayers(List, Map)} and the country setters. Either
+ * way, {@link #play()} then runs it to the end, or {@link #runTurn()} one
+ * turn at a time.
+ *
+ * An engine can play any number of games, one after another:
+ * {@link #reset(long, long, String)} starts a new one on the same map,
+ * deck, hands and decision thread, so that a long batch allocates next to
+ * nothing per game beyond what its players do. An engine must only be
+ * used by one thread at a time, and {@link #close()}d once it is done.
+ *
+ * What happens in the game is reported as typed events to the sinks
+ * attached with {@link #addEventSink(GameLog)}: the text or binary log,
+ * the statistics, the UI's messages. With no sink attached the events go to
+ * {@link GameLog#NONE}, and not one of them is formatted.
+ */
+public class GameEngine {
+	public static final String STALEMATE = "Stalemate!";
+	public static final String DETECTED_STALEMATE = "Stalemate (detected)!";
+	private static RiskMap starterMap = null;
+	
+	private final RiskMap map;
+	private final Deque<Card> deck;
+	/**
+	 * The deck in the order it is shuffled in; kept only to be reused.
+	 */
+	private final List<Card> deckOrder;
+	private final RandomStreams streams;
+	private final DiceRoller dice;
+	private final StalemateDetector stalemates;
+	private final DecisionRunner decisions;
+	/**
+	 * Every sink of the game's events, and the one log that reports to them all.
+	 */
+	private final List<GameLog> sinks;
+	private GameLog log;
+	private final EngineHooks hooks;
+	private DecisionFailures failures;
+	private final List<String> players;
+	/**
+	 * Player objects and hands, indexed by the id each player is given on
+	 * the map; an eliminated player's slot is null.
+	 */
+	private Player[] playersById;
+	private final List<Collection<Card>> cardsById;
+	/**
+	 * Read-only views of the hands, made once, for the front end.
+	 */
+	private final List<Collection<Card>> cardViewsById;
+	/**
+	 * Each player's copy of its hand, refilled for every decision, which the
+	 * player is free to change; a new game gets new copies, so that a
+	 * decision abandoned in the last one never shares them.
+	 */
+	private final List<List<Card>> handCopiesById;
+	/**
+	 * Every hand, and its view, ever handed out by this engine, for the next game to reuse.
+	 */
+	private final List<Collection<Card>> handPool, handViewPool;
+	private final Map<String, Player> lineup;
+	/**
+	 * Every player the game started with, eliminated or not, until they are released.
+	 */
+	private final List<Player> seated;
+	private final List<String> turnOrderNames;
+	private final List<Player> turnOrderPlayers;
+	private final Map<String, Integer> cardCounts;
+	private int allocationIdx;
+	private int round;
+	/**
+	 * Index in the turn order of the player whose turn is next.
+	 */
+	private int turn;
+	private boolean over;
+	private String result;
+	private boolean stalemateDetection = true;
+	private boolean deadlinesEnforced = true;
+	/**
+	 * Whether a player at the console was seated; a human always gets as
+	 * long as it takes, whatever the front end asked for.
+	 */
+	private boolean humanSeated;
+	/**
+	 * Set once the game thread was interrupted while waiting for a decision; the game then stops.
+	 */
+	private boolean interrupted;
+	
+	/**
+	 * Sets up an unowned board and a shuffled deck.
+	 * @param streams random number streams of this game
+	 * @param gameName name of the game's decision thread
+	 * @param log the first sink of the game's events; {@link GameLog#NONE} for none
+	 * @param hooks the front end's hooks
+	 */
+	public GameEngine(RandomStreams streams, String gameName, GameLog log, EngineHooks hooks) {
+		this.streams = streams;
+		this.dice = new DiceRoller(streams.getDice());
+		this.stalemates = new StalemateDetector(RiskConstants.STALEMATE_WINDOW, RiskConstants.STALEMATE_REPEATS);
+		this.decisions = new DecisionRunner(gameName);
+		this.failures = new DecisionFailures();
+		this.sinks = new ArrayList<GameLog>();
+		this.sinks.add(log);
+		this.log = GameLog.of(this.sinks);
+		this.hooks = hooks;
+		this.players = new ArrayList<String>();
+		this.playersById = new Player[RiskConstants.MAX_PLAYERS];
+		this.cardsById = new ArrayList<Collection<Card>>();
+		this.cardViewsById = new ArrayList<Collection<Card>>();
+		this.handCopiesById = new ArrayList<List<Card>>();
+		this.handPool = new ArrayList<Collection<Card>>();
+		this.handViewPool = new ArrayList<Collection<Card>>();
+		this.lineup = new HashMap<String, Player>();
+		this.seated = new ArrayList<Player>();
+		this.turnOrderNames = new ArrayList<String>();
+		this.turnOrderPlayers = new ArrayList<Player>();
+		this.cardCounts = new CardCounts();
+		this.map = getStarterMap().getCopy();
+		this.deck = new ArrayDeque<Card>();
+		this.deckOrder = new ArrayList<Card>();
+		loadDeck();
+	}
+	
+	/**
+	 * Sets up game number gameIndex of the batch started from masterSeed
+	 * in place of whatever this engine played before: an unowned board, a
+	 * shuffled deck, and a new line-up of players dealt their countries. The
+	 * game then plays exactly as a new engine's would.
+	 * @param players comma-separated player types, or null for the default line-up
+	 * @return true IFF the number of players is within the rules
+	 */
+	public boolean reset(long masterSeed, long gameIndex, String players) {
+		RiskConstants.resetTurnIn();
+		this.streams.reset(masterSeed, gameIndex);
+		this.dice.setRandom(this.streams.getDice());
+		this.stalemates.reset();
+		this.decisions.resetTimeouts();
+		this.map.clear();
+		this.players.clear();
+		Arrays.fill(this.playersById, null);
+		this.cardsById.clear();
+		this.cardViewsById.clear();
+		this.allocationIdx = 0;
+		this.round = 0;
+		this.turn = 0;
+		this.over = false;
+		this.result = null;
+		loadDeck();
+		boolean valid = loadPlayers(players);
+		allocateMap();
+		return valid;
+	}
+	
+	/**
+	 * Plays a newly set up game from the placement of the starting armies to the end.
+	 * @return as {@link #play()}
+	 */
+	public String runGame() {
+		initializeForces();
+		return play();
+	}
+	
+	/**
+	 * Plays the game from the current position to the end.
+	 * @return the name of the victor, a stalemate code (see {@link #isStalemate(String)}),
+	 * or null if the game was cancelled or has no players
+	 */
+	public String play() {
+		while (runTurn()) {
+		}
+		return this.result;
+	}
+	
+	/**
+	 * Plays the next turn of the round-robin, unless the game is over.
+	 * @return true IFF the game goes on after this turn; once it returns
+	 * false, {@link #getResult()} tells how the game ended
+	 */
+	public boolean runTurn() {
+		if (this.over) {
+			return false;
+		}
+		//play round-robin until there is only one player left
+		if (this.players.size() > 1) {
+			if (cancelled()) {
+				return end(null);
+			}
+			if (this.turn == 0) {
+				this.round++;
+				this.log.round(this.round);
+				if (this.round > RiskConstants.MAX_ROUNDS) {
+					return end(STALEMATE);
+				}
+			}
+			Player currentPlayer = getPlayerObject(this.players.get(this.turn));
+			this.hooks.pace();
+			this.hooks.turnStarting(currentPlayer);
+			this.log.turnStart(currentPlayer.getName());
+			String stalemate = this.stalemateDetection && !this.humanSeated ? this.stalemates.recordTurn(getPositionHash(this.turn), this.map.getOwnershipHash()) : null;
+			if (stalemate != null) {
+				this.log.line(DETECTED_STALEMATE + " " + stalemate);
+				return end(DETECTED_STALEMATE);
+			}
+			try {
+				playTurn(currentPlayer);
+				this.turn = (this.players.indexOf(currentPlayer.getName()) + 1) % this.players.size();
+			}
+			catch (PlayerEliminatedException e) {
+				//If an elimination exception is thrown up to this level,
+				//then it was currentPlayer who was eliminated.
+				this.turn %= this.players.size();
+			}
+			if (this.players.size() > 1) {
+				return true;
+			}
+		}
+		if (this.players.isEmpty() || cancelled()) {
+			return end(null);
+		}
+		this.log.victor(this.players.get(0));
+		return end(this.players.get(0));
+	}
+	
+	private boolean end(String result) {
+		this.over = true;
+		this.result = result;
+		releasePlayers();
+		return false;
+	}
+	
+	/**
+	 * How the game ended: as {@link #play()} returns; null while it goes on.
+	 */
+	public String getResult() {
+		return this.result;
+	}
+	
+	/**
+	 * Lets the engine's decision thread go, and the players of an unfinished
+	 * game; an engine can still play after this, at the cost of starting a
+	 * new decision thread.
+	 */
+	public void close() {
+		releasePlayers();
+		this.decisions.shutdown();
+	}
+	
+	/**
+	 * Closes the players of the game that hold resources of their own, such
+	 * as a session with an external bot, once the game no longer needs them.
+	 */
+	private void releasePlayers() {
+		for (Player player : this.seated) {
+			if (player instanceof Closeable) {
+				try {
+					((Closeable) player).close();
+				}
+				catch (IOException e) {
+					//the game is over for this player either way
+				}
+			}
+		}
+		this.seated.clear();
+	}
+	
+	private void playTurn(Player currentPlayer) throws PlayerEliminatedException {
+		this.hooks.stepStarting(currentPlayer);
+		if (cancelled()) {
+			return;
+		}
+		reinforce(currentPlayer, true);
+		this.hooks.stepStarting(currentPlayer);
+		if (cancelled()) {
+			return;
+		}
+		attack(currentPlayer);
+		this.hooks.stepStarting(currentPlayer);
+		if (cancelled()) {
+			return;
+		}
+		fortify(currentPlayer);
+		this.hooks.turnEnded(currentPlayer);
+	}
+	
+	private boolean cancelled() {
+		return this.interrupted || this.hooks.isCancelled();
+	}
+	
+	/**
+	 * Asks every player in turn order for the placement of their starting armies.
+	 * @return true IFF at least one player is left
+	 */
+	public boolean initializeForces() {
+		boolean valid;
+		int attempts;
+		int playerIndex = 0;
+		//get initial troop allocation
+		while (playerIndex < this.players.size() && !cancelled()) {
+			Player player = getPlayerObject(this.players.get(playerIndex));
+			this.log.allocationRequested(player.getName());
+			int reinforcements;
+			valid = false;
+			attempts = 0;
+			while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !cancelled()) {
+				attempts++;
+				reinforcements = RiskConstants.INIT_ARMIES / this.players.size();
+				ReinforcementResponse rsp = tryInitialAllocation(player, reinforcements);
+				if (valid = ReinforcementResponse.isValidResponse(rsp, this.map, player.getName(), reinforcements)
+						&& validateInitialAllocation(rsp.getAllocation(), player.getName(), reinforcements)) {
+					allocateArmies(player.getName(), rsp.getAllocation(), reinforcements);
+					playerIndex++;
+					this.log.allocationMade(player.getName());
+				}
+			}
+			
+			if (!valid && !cancelled()) {
+				try {
+					eliminate(player, null, "You failed to provide a valid initial army allocation.");
+				}
+				catch (PlayerEliminatedException e) {
+					playerIndex = 0;
+				}
+			}
+		}
+		
+		return this.players.size() > 0;
+	}
+	
+	private void validatePlayerName(Player player) throws PlayerEliminatedException {
+		if (getPlayerObject(player.getName()) != player) {
+			eliminate(player, null, "Players who hide their true identity are not welcome here. BEGONE!");
+		}
+	}
+	
+	private void reinforce(Player currentPlayer, boolean withCountryBonus) throws PlayerEliminatedException {
+		int reinforcements = 0;
+		int attempts = 0;
+		boolean valid = false;
+		reinforcements += getCardTurnIn(currentPlayer, getPlayerCardCounts());
+		if (cancelled()) {
+			return;
+		}
+		Map<String, Integer> oppCards = getPlayerCardCounts();
+		if (withCountryBonus) {
+			reinforcements += RiskUtils.calculateReinforcements(this.map, currentPlayer.getName());
+		}
+		this.log.reinforcing(currentPlayer.getName(), reinforcements);
+		while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !cancelled()) {
+			attempts++;
+			ReinforcementResponse rsp = tryReinforce(currentPlayer, oppCards, reinforcements);
+			if (valid = ReinforcementResponse.isValidResponse(rsp, this.map, currentPlayer.getName(), reinforcements)) {
+				for (Map.Entry<Country, Integer> entry : rsp.getAllocation().entrySet()) {
+					addArmies(entry.getKey(), entry.getValue());
+					this.log.placement(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		if (!valid && !cancelled()) {
+			eliminate(currentPlayer, null, "You failed to provide a valid reinforcement allocation.");
+		}
+		this.log.eventEnd();
+	}
+	
+	private void attack(Player currentPlayer) throws PlayerEliminatedException {
+		int attempts = 0;
+		boolean resetTurn;
+		boolean hasGottenCard = false;
+		while (attempts < RiskConstants.MAX_ATTEMPTS && this.players.size() > 1 && !cancelled()) {
+			attempts++;
+			resetTurn = false;
+			AttackResponse atkRsp = tryAttack(currentPlayer, getPlayerCardCounts());
+			if (atkRsp != null) {
+				boolean blitz = atkRsp instanceof BlitzAttackResponse;
+				if (blitz ? BlitzAttackResponse.isValidResponse((BlitzAttackResponse) atkRsp, this.map, currentPlayer.getName())
+						: AttackResponse.isValidResponse(atkRsp, this.map, currentPlayer.getName())) {
+					attempts = 0;
+					Player defender = getOwnerObject(atkRsp.getDfdCountry());
+					//a blitz is rolled here, one roll after another, without going back to the attacker
+					AttackResponse roll = blitz ? new AttackResponse(atkRsp) : atkRsp;
+					do {
+						if (blitz) {
+							roll.setNumDice(Math.min(atkRsp.getNumDice(), this.map.getCountryArmies(atkRsp.getAtkCountry()) - 1));
+						}
+						this.log.attack(currentPlayer.getName(), roll.getDfdCountry(), this.map.getCountryArmies(roll.getDfdCountry()),
+								roll.getAtkCountry(), this.map.getCountryArmies(roll.getAtkCountry()));
+						DefendResponse dfdRsp = getStandingDefense(defender, roll.getDfdCountry());
+						if (dfdRsp == null) {
+							try {
+								//this is guaranteed to either be valid or throw a PlayerEliminatedException, unless the game was cancelled
+								dfdRsp = defend(defender, getPlayerCardCounts(), roll);
+							}
+							catch (PlayerEliminatedException e) {
+								//defender messed up and was auto-eliminated
+								resetTurn = true;
+							}
+						}
+						if (cancelled()) {
+							return;
+						}
+						if (!resetTurn) {
+							carryOutAttack(roll, dfdRsp);
+						}
+					} while (blitz && !resetTurn && continueBlitz((BlitzAttackResponse) atkRsp));
+					if (!resetTurn) {
+						hasGottenCard = checkForTakeover(currentPlayer, roll, hasGottenCard) || hasGottenCard;
+					}
+				}
+			}
+			else {
+				//because an attack is not required, a null response is taken to mean that the player declines the opportunity
+				attempts = RiskConstants.MAX_ATTEMPTS;
+			}
+		}
+	}
+	
+	private boolean continueBlitz(BlitzAttackResponse atkRsp) {
+		int atkArmies = this.map.getCountryArmies(atkRsp.getAtkCountry());
+		return this.map.getCountryArmies(atkRsp.getDfdCountry()) > 0
+				&& atkArmies > 1 && atkArmies > atkRsp.getMinArmiesRemaining();
+	}
+	
+	/**
+	 * Returns the standing defense of a StandingDefender, or null if the defender
+	 * has none (or gave an invalid one) and must be asked through defend().
+	 */
+	private DefendResponse getStandingDefense(Player defender, Country dfdCountry) {
+		if (defender instanceof StandingDefender) {
+			try {
+				DefendResponse rsp = new DefendResponse(((StandingDefender) defender).getStandingDefenseDice(this.map.getCountryArmies(dfdCountry)));
+				if (DefendResponse.isValidResponse(rsp, this.map, dfdCountry)) {
+					return rsp;
+				}
+			}
+			catch (Exception e) {
+			}
+		}
+		return null;
+	}
+	
+	private DefendResponse defend(Player defender, Map<String, Integer> oppCards, AttackResponse atkRsp) throws PlayerEliminatedException {
+		int attempts = 0;
+		boolean valid = false;
+		DefendResponse rsp = null;
+		while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !cancelled()) {
+			attempts++;
+			rsp = tryDefend(defender, oppCards, new AttackResponse(atkRsp));
+			valid = DefendResponse.isValidResponse(rsp, this.map, atkRsp.getDfdCountry());
+		}
+		if (!valid && !cancelled()) {
+			eliminate(defender, null, "You failed to provide a valid defense response.");
+		}
+		return rsp;
+	}
+	
+	private void carryOutAttack(AttackResponse atk, DefendResponse dfd) {
+		RollOutcome result = this.dice.roll(atk.getNumDice(), dfd.getNumDice());
+		addArmies(atk.getAtkCountry(), -1 * result.getAtkLosses());
+		addArmies(atk.getDfdCountry(), -1 * result.getDfdLosses());
+		this.log.losses(result.getAtkLosses(), result.getDfdLosses());
+	}
+	
+	private boolean checkForTakeover(Player attacker, AttackResponse atkRsp, boolean hasGottenCard) throws PlayerEliminatedException {
+		if (this.map.getCountryArmies(atkRsp.getDfdCountry()) == 0) {
+			String loserName = this.map.getCountryOwner(atkRsp.getDfdCountry());
+			this.log.taken(attacker.getName(), atkRsp.getDfdCountry(), loserName);
+			setOwner(atkRsp.getDfdCountry(), this.map.getPlayerId(attacker.getName()));
+			if (!hasGottenCard) {
+				awardCard(attacker.getName());
+			}
+			boolean allowReinforce = false;
+			try {
+				advanceArmies(attacker, atkRsp);
+				allowReinforce = true;
+			}
+			catch (PlayerEliminatedException attackerException) {
+				throw attackerException;
+			}
+			finally {
+				checkForElimination(attacker, loserName, atkRsp.getDfdCountry(), allowReinforce);
+			}
+			return true;
+		}
+		else {
+			return false;
+		}
+	}
+	
+	private void advanceArmies(Player attacker, AttackResponse atkRsp) throws PlayerEliminatedException {
+		int attempts = 0;
+		boolean valid = false;
+		while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !cancelled()) {
+			attempts++;
+			AdvanceResponse advRsp = tryAdvance(attacker, getPlayerCardCounts(), atkRsp);
+			if (valid = AdvanceResponse.isValidResponse(advRsp, atkRsp, this.map)) {
+				this.log.advanced(attacker.getName(), advRsp.getNumArmies(), atkRsp.getDfdCountry(), atkRsp.getAtkCountry());
+				addArmies(atkRsp.getAtkCountry(), -1 * advRsp.getNumArmies());
+				addArmies(atkRsp.getDfdCountry(), advRsp.getNumArmies());
+			}
+		}
+		if (!valid && !cancelled()) {
+			eliminate(attacker, null, "You failed to provide a valid advance response.");
+		}
+	}
+	
+	private void awardCard(String playerName) {
+		this.log.cardAwarded(playerName);
+		if (this.deck.size() > 0) {
+			getPlayerCards(playerName).add(this.deck.removeFirst());
+		}
+	}
+	
+	private void checkForElimination(Player attacker, String loserName, Country takenCountry, boolean allowReinforce) throws PlayerEliminatedException {
+		try {
+			if (this.map.getPlayerCountryCount(loserName) == 0) {
+				eliminate(getPlayerObject(loserName), attacker, "You were eliminated by " + attacker.getName() + " at " + takenCountry.getName() + ".");
+			}
+		}
+		catch (PlayerEliminatedException defenderException) {
+			//this ensures that attacker will not be allowed to reinforce if (s)he was auto-eliminated during the advanceArmies() call or the game ended.
+			//also, player can only reinforce after eliminating another player if (s)he is forced to turn in cards
+			if (allowReinforce && getPlayerCards(attacker.getName()).size() >= RiskConstants.FORCE_TURN_IN && this.players.size() > 1) {
+				reinforce(attacker, false);//note that if the current player fails to reinforce, the player can be eliminated here and an exception thrown back up to play()
+			}
+		}
+	}
+	
+	private void fortify(Player currentPlayer) {
+		int attempts = 0;
+		boolean valid = false;
+		while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !cancelled()) {
+			attempts++;
+			FortifyResponse rsp = tryFortify(currentPlayer, getPlayerCardCounts());
+			if (rsp != null) {
+				if (valid = FortifyResponse.isValidResponse(rsp, this.map, currentPlayer.getName())) {
+					this.log.fortified(currentPlayer.getName(), rsp.getNumArmies(), rsp.getFromCountry(), rsp.getToCountry());
+					addArmies(rsp.getFromCountry(), -1 * rsp.getNumArmies());
+					addArmies(rsp.getToCountry(), rsp.getNumArmies());
+				}
+			}
+			else {
+				//because fortification is not required, a null response is taken to mean that the player declines the opportunity
+				attempts = RiskConstants.MAX_ATTEMPTS;
+			}
+		}
+	}
+	
+	/**
+	 * Runs one decision of player on the decision thread, once the front end lets the game go on.
+	 */
+	private <T> T decide(Phase phase, Player player, Callable<T> decision) throws Exception {
+		this.hooks.pace();
+		return this.decisions.decide(phase, player.getName(), decision);
+	}
+	
+	/**
+	 * Counts e against player, unless it is not the player's own failure:
+	 * the engine eliminating it, a missed deadline, which the
+	 * {@link DecisionRunner} counts already, or the game thread being
+	 * interrupted, which stops the game.
+	 */
+	private void recordFailure(Player player, Phase phase, Exception e) {
+		if (e instanceof InterruptedException) {
+			this.interrupted = true;
+			//whoever interrupted the thread still needs to see it
+			Thread.currentThread().interrupt();
+		}
+		else if (!(e instanceof PlayerEliminatedException) && !(e instanceof TimeoutException)) {
+			this.failures.record(player.getName(), phase, e);
+		}
+	}
+	
+	private ReinforcementResponse tryInitialAllocation(final Player player, final int reinforcements) {
+		final RiskMap view = this.map.getReadOnlyView();
+		try {
+			ReinforcementResponse rsp = decide(Phase.INITIAL_ALLOCATION, player, new Callable<ReinforcementResponse>() {
+				@Override
+				public ReinforcementResponse call() {
+					return player.getInitialAllocation(view, reinforcements);
+				}
+			});
+			validatePlayerName(player);
+			return rsp;
+		}
+		catch (Exception e) {
+			recordFailure(player, Phase.INITIAL_ALLOCATION, e);
+			return null;
+		}
+	}
+	
+	private CardTurnInResponse tryTurnIn(final Player player, final Map<String, Integer> oppCards, final boolean turnInRequired) {
+		final RiskMap view = this.map.getReadOnlyView();
+		try {
+			CardTurnInResponse rsp = decide(Phase.TURN_IN, player, new Callable<CardTurnInResponse>() {
+				@Override
+				public CardTurnInResponse call() {
+					return player.proposeTurnIn(view, createCardSetCopy(player.getName()), oppCards, turnInRequired);
+				}
+			});
+			validatePlayerName(player);
+			return rsp;
+		}
+		catch (Exception e) {
+			recordFailure(player, Phase.TURN_IN, e);
+			return null;
+		}
+	}
+	
+	private ReinforcementResponse tryReinforce(final Player player, final Map<String, Integer> oppCards, final int reinforcements) {
+		final RiskMap view = this.map.getReadOnlyView();
+		try {
+			ReinforcementResponse rsp = decide(Phase.REINFORCE, player, new Callable<ReinforcementResponse>() {
+				@Override
+				public ReinforcementResponse call() {
+					return player.reinforce(view, createCardSetCopy(player.getName()), oppCards, reinforcements);
+				}
+			});
+			validatePlayerName(player);
+			return rsp;
+		}
+		catch (Exception e) {
+			recordFailure(player, Phase.REINFORCE, e);
+			return null;
+		}
+	}
+	
+	private AttackResponse tryAttack(final Player player, final Map<String, Integer> oppCards) {
+		final RiskMap view = this.map.getReadOnlyView();
+		try {
+			AttackResponse rsp = decide(Phase.ATTACK, player, new Callable<AttackResponse>() {
+				@Override
+				public AttackResponse call() {
+					return player.attack(view, createCardSetCopy(player.getName()), oppCards);
+				}
+			});
+			validatePlayerName(player);
+			return rsp;
+		}
+		catch (Exception e) {
+			recordFailure(player, Phase.ATTACK, e);
+			return null;
+		}
+	}
+	
+	private DefendResponse tryDefend(final Player player, final Map<String, Integer> oppCards, final AttackResponse atkRsp) {
+		final RiskMap view = this.map.getReadOnlyView();
+		try {
+			DefendResponse rsp = decide(Phase.DEFEND, player, new Callable<DefendResponse>() {
+				@Override
+				public DefendResponse call() {
+					return player.defend(view, createCardSetCopy(player.getName()), oppCards, atkRsp.getAtkCountry(), atkRsp.getDfdCountry(), atkRsp.getNumDice());
+				}
+			});
+			validatePlayerName(player);
+			return rsp;
+		}
+		catch (Exception e) {
+			recordFailure(player, Phase.DEFEND, e);
+			return null;
+		}
+	}
+	
+	private AdvanceResponse tryAdvance(final Player player, final Map<String, Integer> oppCards, final AttackResponse atkRsp) {
+		final RiskMap view = this.map.getReadOnlyView();
+		try {
+			AdvanceResponse rsp = decide(Phase.ADVANCE, player, new Callable<AdvanceResponse>() {
+				@Override
+				public AdvanceResponse call() {
+					return player.advance(view, createCardSetCopy(player.getName()), oppCards, atkRsp.getAtkCountry(), atkRsp.getDfdCountry(), atkRsp.getNumDice());
+				}
+			});
+			validatePlayerName(player);
+			return rsp;
+		}
+		catch (Exception e) {
+			recordFailure(player, Phase.ADVANCE, e);
+			return null;
+		}
+	}
+	
+	private FortifyResponse tryFortify(final Player player, final Map<String, Integer> oppCards) {
+		final RiskMap view = this.map.getReadOnlyView();
+		try {
+			FortifyResponse rsp = decide(Phase.FORTIFY, player, new Callable<FortifyResponse>() {
+				@Override
+				public FortifyResponse call() {
+					return player.fortify(view, createCardSetCopy(player.getName()), oppCards);
+				}
+			});
+			validatePlayerName(player);
+			return rsp;
+		}
+		catch (Exception e) {
+			recordFailure(player, Phase.FORTIFY, e);
+			return null;
+		}
+	}
+	
+	private boolean validateInitialAllocation(Map<Country, Integer> allocation, String playerName, int armies) {
+		Map<Country, Boolean> allocatedCheck = new HashMap<Country, Boolean>();
+		for (Country country : RiskUtils.getPlayerCountries(this.map, playerName)) {
+			allocatedCheck.put(country, false);
+		}
+		for (Country country : allocation.keySet()) {
+			if (!allocatedCheck.containsKey(country)) {
+				return false;
+			}
+			else if (allocation.get(country) < 1) {
+				return false;
+			}
+			else {
+				allocatedCheck.put(country, true);
+				armies -= allocation.get(country);
+			}
+		}
+		for (Boolean check : allocatedCheck.values()) {
+			if (!check) {
+				return false;
+			}
+		}
+		return armies == 0;
+	}
+	
+	private void allocateArmies(String playerName, Map<Country, Integer> allocation, int reinforcements) {
+		this.log.reinforcing(playerName, reinforcements);
+		for (Map.Entry<Country, Integer> entry : allocation.entrySet()) {
+			setArmies(entry.getKey(), entry.getValue());
+			this.log.placement(entry.getKey(), entry.getValue());
+		}
+		this.log.eventEnd();
+	}
+	
+	private int getCardTurnIn(Player currentPlayer, Map<String, Integer> oppCards) throws PlayerEliminatedException {
+		int cardBonus = 0;
+		int attempts = 0;
+		boolean valid = false;
+		boolean turnInRequired = oppCards.get(currentPlayer.getName()) >= RiskConstants.FORCE_TURN_IN;
+		while (!valid && attempts < RiskConstants.MAX_ATTEMPTS && !cancelled()) {
+			CardTurnInResponse rsp = tryTurnIn(currentPlayer, oppCards, turnInRequired);
+			if (rsp != null) {
+				if (valid = CardTurnInResponse.isValidResponse(rsp, getPlayerCards(currentPlayer.getName()))) {
+					cardBonus = RiskConstants.advanceTurnIn();
+					this.log.turnedIn(currentPlayer.getName(), cardBonus);
+					if (rsp.getBonusCountry() != null) {
+						if (this.map.isOwnedBy(rsp.getBonusCountry(), this.map.getPlayerId(currentPlayer.getName()))) {
+							addArmies(rsp.getBonusCountry(), RiskConstants.BONUS_COUNTRY_ARMIES);
+						}
+					}
+					for (Card card : rsp.getCards()) {
+						returnToDeck(getPlayerCards(currentPlayer.getName()), card);
+					}
+				}
+			}
+			else {
+				//if a turn-in is not required, a null response is taken as the player declining
+				valid = !turnInRequired;
+			}
+			attempts++;
+		}
+		if (!valid && turnInRequired && !cancelled()) {
+			eliminate(currentPlayer, null, "You were required to turn in cards this turn, and you failed to do so.");
+		}
+		return cardBonus;
+	}
+	
+	/**
+	 * Moves the held card equal to card from hand to the bottom of the deck.
+	 * The held card is moved rather than the player's, so the deck only
+	 * ever holds the shared instances.
+	 */
+	private void returnToDeck(Collection<Card> hand, Card card) {
+		for (Iterator<Card> held = hand.iterator(); held.hasNext();) {
+			Card heldCard = held.next();
+			if (card.equals(heldCard)) {
+				held.remove();
+				this.deck.addLast(heldCard);
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * The named player's copy of its hand, refilled from the hand itself.
+	 * Called from within a decision, so that a player stuck in an abandoned
+	 * one never sees its copy change.
+	 */
+	private Collection<Card> createCardSetCopy(String playerName) {
+		byte playerId = this.map.getPlayerId(playerName);
+		List<Card> copy = this.handCopiesById.get(playerId);
+		copy.clear();
+		copy.addAll(this.cardsById.get(playerId));
+		return copy;
+	}
+	
+	private Player getOwnerObject(Country country) {
+		return getPlayerObject(this.map.getCountryOwnerId(country));
+	}
+	
+	private Player getPlayerObject(String playerName) {
+		return getPlayerObject(this.map.getPlayerId(playerName));
+	}
+	
+	private Player getPlayerObject(byte playerId) {
+		return playerId == RiskMap.NO_OWNER || playerId >= this.playersById.length ? null : this.playersById[playerId];
+	}
+	
+	private Collection<Card> getPlayerCards(String playerName) {
+		return this.cardsById.get(this.map.getPlayerId(playerName));
+	}
+	
+	private Map<String, Integer> getPlayerCardCounts() {
+		return this.cardCounts;
+	}
+	
+	private void loadDeck() {
+		this.log.line("Building deck...");
+		List<Card> cards = Card.getDeck();
+		this.deckOrder.clear();
+		for (int i = 0; i < cards.size(); i++) {
+			this.deckOrder.add(cards.get(i));
+		}
+		shuffleCards(this.deckOrder);
+		this.deck.clear();
+		for (int i = 0; i < this.deckOrder.size(); i++) {
+			this.deck.addLast(this.deckOrder.get(i));
+		}
+	}
+	
+	private void shuffleCards(List<Card> cardList) {
+		int j;
+		Card temp;
+		for (int i = 0; i < 2 * cardList.size(); i++) {
+			j = this.streams.getDeck().nextInt(cardList.size());
+			temp = cardList.get(i % cardList.size());
+			cardList.set(i % cardList.size(), cardList.get(j));
+			cardList.set(j, temp);
+		}
+	}
+	
+	/**
+	 * Creates the players of a new game and shuffles them into turn order.
+	 * @param players comma-separated player types, or null for the default line-up
+	 * @return true IFF the number of players is within the rules
+	 */
+	public boolean loadPlayers(String players) {
+		this.log.line("Loading players...");
+		Map<String, Player> playerMap = this.lineup;
+		playerMap.clear();
+		
+		if (players == null) {
+			players = RiskConstants.DEFAULT_PLAYERS;
+		}
+		
+		List<Player> playerList = PlayerFactory.getPlayersFromString(players);
+		
+		for (Player player : playerList) {
+			playerMap.put(player.getName(), player);
+		}
+		
+		//a cleared map of at most MAX_PLAYERS names iterates just as a new one would
+		List<String> turnOrder = this.turnOrderNames;
+		turnOrder.clear();
+		turnOrder.addAll(playerMap.keySet());
+		shufflePlayers(turnOrder);//choose a random turn order
+		List<Player> playersInTurnOrder = this.turnOrderPlayers;
+		playersInTurnOrder.clear();
+		for (String playerName : turnOrder) {
+			playersInTurnOrder.add(playerMap.get(playerName));
+		}
+		registerPlayers(playersInTurnOrder);
+		playerMap.clear();
+		playersInTurnOrder.clear();
+		
+		if (this.players.size() < RiskConstants.MIN_PLAYERS || this.players.size() > RiskConstants.MAX_PLAYERS) {
+			return false;
+		}
+		else {
+			this.log.line("Players:");
+			for (String playerName : this.players) {
+				this.log.line(playerName);
+			}
+			this.log.eventEnd();
+			return true;
+		}
+	}
+	
+	/**
+	 * Brings back the players of a saved game, with the cards they held.
+	 * The cards held are taken out of the deck.
+	 * @param turnOrder the players still in the game, in turn order
+	 * @param hands the cards of each player, by name
+	 */
+	public void restorePlayers(List<Player> turnOrder, Map<String, ? extends Collection<Card>> hands) {
+		registerPlayers(turnOrder);
+		for (Player player : turnOrder) {
+			Collection<Card> hand = hands.get(player.getName());
+			if (hand != null) {
+				for (Card card : hand) {
+					this.deck.remove(card);
+					getPlayerCards(player.getName()).add(card);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Numbers the players in turn order; from here on they are known by id.
+	 * Each is given an empty hand, from the pool if one is free.
+	 */
+	private void registerPlayers(List<Player> turnOrder) {
+		releasePlayers();
+		this.players.clear();
+		if (this.playersById.length < turnOrder.size()) {
+			this.playersById = new Player[turnOrder.size()];
+		}
+		Arrays.fill(this.playersById, null);
+		this.cardsById.clear();
+		this.cardViewsById.clear();
+		this.handCopiesById.clear();
+		this.humanSeated = false;
+		this.interrupted = false;
+		for (int i = 0; i < turnOrder.size(); i++) {
+			Player player = turnOrder.get(i);
+			this.humanSeated |= player instanceof CommandConsole;
+			this.seated.add(player);
+			this.players.add(player.getName());
+			this.playersById[this.map.registerPlayer(player.getName())] = player;
+			if (i == this.handPool.size()) {
+				Collection<Card> hand = new ArrayList<Card>();
+				this.handPool.add(hand);
+				this.handViewPool.add(Collections.unmodifiableCollection(hand));
+			}
+			this.handPool.get(i).clear();
+			this.cardsById.add(this.handPool.get(i));
+			this.cardViewsById.add(this.handViewPool.get(i));
+			this.handCopiesById.add(new ArrayList<Card>());
+		}
+		this.decisions.setDeadlinesEnforced(this.deadlinesEnforced && !this.humanSeated);
+	}
+	
+	private void shufflePlayers(List<String> playerList) {
+		int j;
+		String temp;
+		for (int i = 0; i < 2 * playerList.size(); i++) {
+			j = this.streams.getTurnOrder().nextInt(playerList.size());
+			temp = playerList.get(i % playerList.size());
+			playerList.set(i % playerList.size(), playerList.get(j));
+			playerList.set(j, temp);
+		}
+	}
+	
+	//only allocates unowned countries
+	private void allocateUnownedCountries() {
+		if (this.players.size() > 0) {
+			this.log.line("Re-allocating eliminated player's countries...");
+			for (Country country : Country.values()) {
+				if (map.getCountryOwnerId(country) == RiskMap.NO_OWNER) {
+					setOwner(country, this.map.getPlayerId(this.players.get(allocationIdx % this.players.size())));
+					if (this.round > 0) {
+						//If these countries are being eliminated during a game,
+						//it is due to a player being eliminated by the Master,
+						//and so the re-allocated countries must be occupied.
+						setArmies(country, 1);
+					}
+					allocationIdx++;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Deals every country of a new game out to the players, in deck order.
+	 */
+	public void allocateMap() {
+		if (this.players.size() > 0) {
+			this.log.line("Allocating countries...");
+			for (Card card : this.deck) {
+				if (!card.getType().equals(RiskConstants.WILD_CARD)) {
+					setOwner(card.getCountry(), this.map.getPlayerId(this.players.get(allocationIdx % this.players.size())));
+					allocationIdx++;
+				}
+			}
+		}
+	}
+	
+	private void eliminate(Player loser, Player eliminator, String reason) throws PlayerEliminatedException {
+		byte loserId = this.map.getPlayerId(loser.getName());
+		if (getPlayerObject(loserId) != null) {
+			this.log.eliminated(loser.getName(), reason);
+			byte eliminatorId = eliminator != null ? this.map.getPlayerId(eliminator.getName()) : RiskMap.NO_OWNER;
+			for (Country country : Country.values()) {
+				if (map.getCountryOwnerId(country) == loserId) {
+					setOwner(country, eliminatorId);
+				}
+			}
+			if (eliminator != null) {
+				this.cardsById.get(eliminatorId).addAll(this.cardsById.get(loserId));
+				this.cardsById.get(loserId).clear();
+			}
+			this.players.remove(loser.getName());
+			this.playersById[loserId] = null;
+			allocateUnownedCountries();
+			this.hooks.playerEliminated(loser.getName(), reason);
+			throw new PlayerEliminatedException(loser.getName() + " Eliminated! " + reason);
+		}
+	}
+	
+	private void setOwner(Country country, byte playerId) {
+		this.map.setCountryOwnerId(country, playerId);
+		this.hooks.ownerChanged(country);
+	}
+	
+	private void setArmies(Country country, int armies) {
+		this.map.setCountryArmies(country, armies);
+		this.hooks.armiesChanged(country);
+	}
+	
+	private void addArmies(Country country, int armies) {
+		this.map.addCountryArmies(country, armies);
+		this.hooks.armiesChanged(country);
+	}
+	
+	/**
+	 * Restores the owner of a country of a saved game.
+	 */
+	public void setCountryOwner(Country country, String playerName) {
+		this.map.setCountryOwner(country, playerName);
+		this.hooks.ownerChanged(country);
+	}
+	
+	/**
+	 * Restores the armies in a country of a saved game.
+	 */
+	public void setCountryArmies(Country country, int armies) {
+		setArmies(country, armies);
+	}
+	
+	/**
+	 * The pristine map is built once and only ever copied, so every game,
+	 * on whichever thread it runs, starts from the same unowned board.
+	 */
+	private static synchronized RiskMap getStarterMap() {
+		if (starterMap == null) {
+			starterMap = new RiskMap();
+		}
+		return starterMap;
+	}
+	
+	/**
+	 * Hash of the game position at the start of the given player's turn: the
+	 * board, whose turn it is, every hand size and the next card bonus.
+	 */
+	private long getPositionHash(int turn) {
+		long hash = StalemateDetector.combine(this.map.getPositionHash(), turn);
+		for (String playerName : this.players) {
+			hash = StalemateDetector.combine(hash, getPlayerCards(playerName).size());
+		}
+		return StalemateDetector.combine(hash, RiskConstants.peekNextTurnIn());
+	}
+	
+	/**
+	 * Returns true IFF the result returned by {@link #play()} is a stalemate rather than a victor.
+	 */
+	public static boolean isStalemate(String result) {
+		return STALEMATE.equals(result) || DETECTED_STALEMATE.equals(result);
+	}
+	
+	/**
+	 * The game's own map; a front end may read it, but must only change it through the engine.
+	 */
+	public RiskMap getMap() {
+		return this.map;
+	}
+	
+	public int getRound() {
+		return this.round;
+	}
+	
+	/**
+	 * Sets the number of rounds already played, when restoring a saved game.
+	 */
+	public void setRound(int round) {
+		this.round = round;
+	}
+	
+	/**
+	 * Live, read-only list of the players still in the game, in turn order.
+	 */
+	public List<String> getPlayerNames() {
+		return Collections.unmodifiableList(this.players);
+	}
+	
+	/**
+	 * The named player, or null if no such player is still in the game.
+	 */
+	public Player getPlayer(String playerName) {
+		return getPlayerObject(playerName);
+	}
+	
+	/**
+	 * Live, read-only view of the named player's hand, or null if no such player is still in the game.
+	 */
+	public Collection<Card> getHand(String playerName) {
+		return getPlayerObject(playerName) == null ? null : this.cardViewsById.get(this.map.getPlayerId(playerName));
+	}
+	
+	/**
+	 * Reports every later event of the game to sink as well. The engine
+	 * never closes its sinks; whoever attached one closes it.
+	 */
+	public void addEventSink(GameLog sink) {
+		this.sinks.add(sink);
+		this.log = GameLog.of(this.sinks);
+	}
+	
+	public void removeEventSink(GameLog sink) {
+		this.sinks.remove(sink);
+		this.log = GameLog.of(this.sinks);
+	}
+	
+	/**
+	 * Decides whether decisions run under the deadlines of {@link DecisionRunner};
+	 * a game with a human player should not impose them. A game that seats
+	 * a {@link CommandConsole} never does.
+	 */
+	public void setDeadlinesEnforced(boolean enforced) {
+		this.deadlinesEnforced = enforced;
+		this.decisions.setDeadlinesEnforced(enforced && !this.humanSeated);
+	}
+	
+	/**
+	 * Decides whether a game with no winner in sight is ended early, as a
+	 * detected stalemate; a game with a human player should only ever end
+	 * at {@link RiskConstants#MAX_ROUNDS}. On by default; a game that seats
+	 * a {@link CommandConsole} never detects stalemates.
+	 */
+	public void setStalemateDetection(boolean enabled) {
+		this.stalemateDetection = enabled;
+	}
+	
+	/**
+	 * Sets where the engine's later decision threads come from; see
+	 * {@link DecisionRunner#setThreadFactory(ThreadFactory)}.
+	 */
+	public void setDecisionThreads(ThreadFactory threads) {
+		this.decisions.setThreadFactory(threads);
+	}
+	
+	/**
+	 * Number of decision deadlines each player missed in this game, for the players that missed any.
+	 */
+	public Map<String, Integer> getTimeouts() {
+		return this.decisions.getTimeouts();
+	}
+	
+	public void setDecisionFailures(DecisionFailures failures) {
+		this.failures = failures;
+	}
+	
+	public DecisionFailures getDecisionFailures() {
+		return this.failures;
+	}
+	
+	/**
+	 * Live, read-only map from the name of every player still in the game
+	 * to the number of cards in their hand.
+	 */
+	private class CardCounts extends AbstractMap<String, Integer> {
+		private final Set<Entry<String, Integer>> entries = new AbstractSet<Entry<String, Integer>>() {
+			@Override
+			public Iterator<Entry<String, Integer>> iterator() {
+				final Iterator<String> names = GameEngine.this.players.iterator();
+				return new Iterator<Entry<String, Integer>>() {
+					@Override
+					public boolean hasNext() {
+						return names.hasNext();
+					}
+					
+					@Override
+					public Entry<String, Integer> next() {
+						String playerName = names.next();
+						return new SimpleImmutableEntry<String, Integer>(playerName, getPlayerCards(playerName).size());
+					}
+					
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+			
+			@Override
+			public int size() {
+				return GameEngine.this.players.size();
+			}
+		};
+		
+		@Override
+		public Set<Entry<String, Integer>> entrySet() {
+			return this.entries;
+		}
+		
+		@Override
+		public Integer get(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			byte playerId = GameEngine.this.map.getPlayerId((String) key);
+			return getPlayerObject(playerId) == null ? null : GameEngine.this.cardsById.get(playerId).size();
+		}
+		
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+		
+		@Override
+		public int size() {
+			return GameEngine.this.players.size();
+		}
+	}
+}
@@ -0,0 +1,487 @@
+package Master;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Player.Player;
+import Util.GameLog;
+import Util.RandomStreams;
+
+/**
+ * Hosts many independent games in one JVM at the same time, each on a thread
+ * of its own.
+ *
+ * A batch of bots keeps every core busy with a few threads (see
+ * {@link Tournament}), but a game with a human or remote player spends
+ * nearly all of its time waiting in a decision such as
+ * {@link Player#attack}, and a host that runs hundreds of those must not
+ * pay a platform thread for every one. On a JRE with virtual threads
+ * (Java 21 or later) the host therefore runs each game's turn loop, and
+ * the decision thread of its engine, on virtual threads, found by
+ * reflection so that the code still builds for Java 8; a waiting decision
+ * then parks its virtual thread and holds no carrier. Elsewhere the host
+ * falls back to daemon platform threads, which work the same, just less
+ * cheaply.
+ *
+ * At most maxConcurrent games run at once; the others wait in the order
+ * they were submitted, without a thread, and start as running games end.
+ * The engines of finished games are reset and reused, as the workers of a
+ * Tournament reuse theirs. Each game is tracked by a {@link HostedGame},
+ * which tells its state, its round and its result, and can cancel it, and
+ * {@link #printReport(PrintStream)} reports the host's throughput.
+ *
+ * As in a batch, game number n is always played from the streams of
+ * (seed, n - 1), so a hosted game ends exactly as the same game of a
+ * Tournament does.
+ */
+public class GameHost {
+	public enum State {
+		QUEUED, RUNNING, FINISHED, CANCELLED, FAILED
+	}
+	
+	private final int maxConcurrent;
+	private final ThreadFactory gameThreads, decisionThreads;
+	private final boolean virtualThreads;
+	private final Deque<HostedGame> queued = new ArrayDeque<HostedGame>();
+	private final Deque<Slot> idle = new ArrayDeque<Slot>();
+	private final List<Slot> slots = new ArrayList<Slot>();
+	private final List<HostedGame> games = new ArrayList<HostedGame>();
+	private final Map<String, Integer> timeouts = new TreeMap<String, Integer>();
+	private final DecisionFailures failures = new DecisionFailures();
+	private boolean deadlinesEnforced = true;
+	private boolean shutDown;
+	private int running, peakRunning;
+	private int finished, cancelled, failed;
+	private long turnsPlayed;
+	private long startNanos, lastEndNanos;
+	private PrintStream out;
+	
+	/**
+	 * @param maxConcurrent most games to run at once; anything below 1 means no limit
+	 */
+	public GameHost(int maxConcurrent) {
+		this.maxConcurrent = maxConcurrent < 1 ? Integer.MAX_VALUE : maxConcurrent;
+		ThreadFactory virtual = newVirtualThreadFactory("Hosted game ");
+		this.virtualThreads = virtual != null;
+		this.gameThreads = this.virtualThreads ? virtual : new PlatformThreads("Hosted game ");
+		this.decisionThreads = this.virtualThreads ? newVirtualThreadFactory("Hosted decisions ") : null;
+	}
+	
+	/**
+	 * Returns true IFF the games run on virtual threads rather than platform threads.
+	 */
+	public boolean usesVirtualThreads() {
+		return this.virtualThreads;
+	}
+	
+	/**
+	 * Decides whether the decisions of later games run under the deadlines
+	 * of {@link DecisionRunner}; a host of human players should not impose them.
+	 */
+	public synchronized void setDeadlinesEnforced(boolean enforced) {
+		this.deadlinesEnforced = enforced;
+	}
+	
+	/**
+	 * Sets where the record of each game is printed as it ends; null, the default, prints nothing.
+	 */
+	public synchronized void setOutput(PrintStream out) {
+		this.out = out;
+	}
+	
+	/**
+	 * Queues a game, which starts as soon as fewer than maxConcurrent games are running.
+	 * @param seed master seed of the game's batch
+	 * @param gameNumber number of the game in that batch, counting from 1
+	 * @param players comma-separated player types, or null for the default line-up
+	 * @return the game, to follow or cancel it by
+	 */
+	public synchronized HostedGame submit(long seed, long gameNumber, String players) {
+		if (this.shutDown) {
+			throw new IllegalStateException("GameHost: already shut down.");
+		}
+		if (gameNumber < 1) {
+			throw new IllegalArgumentException("GameHost: games are numbered from 1.");
+		}
+		HostedGame game = new HostedGame(seed, gameNumber, players);
+		if (this.games.isEmpty()) {
+			this.startNanos = game.queuedNanos;
+		}
+		this.games.add(game);
+		this.queued.add(game);
+		startQueued();
+		return game;
+	}
+	
+	/**
+	 * Waits until no game is queued or running.
+	 */
+	public synchronized void awaitAll() throws InterruptedException {
+		while (!this.queued.isEmpty() || this.running > 0) {
+			wait();
+		}
+	}
+	
+	/**
+	 * Every game submitted so far, in the order of submission.
+	 */
+	public synchronized List<HostedGame> getGames() {
+		return new ArrayList<HostedGame>(this.games);
+	}
+	
+	public synchronized int getRunning() {
+		return this.running;
+	}
+	
+	public synchronized int getQueued() {
+		return this.queued.size();
+	}
+	
+	/**
+	 * Cancels every queued and running game, waits for the running ones to
+	 * stop and lets the decision threads of every engine go.
+	 */
+	public void shutdown() throws InterruptedException {
+		synchronized (this) {
+			this.shutDown = true;
+			for (HostedGame game : this.games) {
+				game.cancel();
+			}
+		}
+		awaitAll();
+		synchronized (this) {
+			for (Slot slot : this.slots) {
+				slot.engine.close();
+			}
+			this.slots.clear();
+			this.idle.clear();
+		}
+	}
+	
+	/**
+	 * Prints how many games ended, how fast they were played, and how many
+	 * decision deadlines and decisions each player missed.
+	 */
+	public synchronized void printReport(PrintStream out) {
+		int ended = this.finished + this.cancelled + this.failed;
+		double seconds = ended == 0 ? 0 : (this.lastEndNanos - this.startNanos) / 1e9;
+		out.println("Hosted " + ended + " game(s) in " + String.format("%.2f", seconds) + " s on "
+				+ (this.virtualThreads ? "virtual" : "platform") + " threads: "
+				+ this.finished + " finished, " + this.cancelled + " cancelled, " + this.failed + " failed");
+		out.println("At most " + this.peakRunning + " game(s) ran at once"
+				+ (this.maxConcurrent == Integer.MAX_VALUE ? "" : " (limit " + this.maxConcurrent + ")")
+				+ "; " + this.running + " running, " + this.queued.size() + " queued");
+		if (seconds > 0) {
+			out.println(String.format("Throughput: %.1f games/s, %.0f turns/s", ended / seconds, this.turnsPlayed / seconds));
+		}
+		for (Map.Entry<String, Integer> entry : this.timeouts.entrySet()) {
+			out.println(entry.getKey() + " missed " + entry.getValue() + " decision deadline(s)");
+		}
+		this.failures.printSummary(out);
+	}
+	
+	/**
+	 * Starts queued games while there is room for them.
+	 */
+	private synchronized void startQueued() {
+		while (this.running < this.maxConcurrent && !this.queued.isEmpty()) {
+			final HostedGame game = this.queued.poll();
+			if (game.isCancelRequested()) {
+				game.end(State.CANCELLED, null, null);
+				this.cancelled++;
+				this.lastEndNanos = game.endNanos;
+				continue;
+			}
+			final Slot slot = this.idle.isEmpty() ? newSlot() : this.idle.poll();
+			slot.game = game;
+			this.running++;
+			this.peakRunning = Math.max(this.peakRunning, this.running);
+			this.gameThreads.newThread(new Runnable() {
+				@Override
+				public void run() {
+					play(slot, game);
+				}
+			}).start();
+		}
+		notifyAll();
+	}
+	
+	private Slot newSlot() {
+		Slot slot = new Slot(this.slots.size());
+		this.slots.add(slot);
+		return slot;
+	}
+	
+	/**
+	 * Runs on the game's own thread: plays the game on the slot's engine,
+	 * then hands the slot on.
+	 */
+	private void play(Slot slot, HostedGame game) {
+		GameEngine engine = slot.engine;
+		State state = State.FAILED;
+		String result = null;
+		Throwable failure = null;
+		game.start();
+		try {
+			synchronized (this) {
+				engine.setDeadlinesEnforced(this.deadlinesEnforced);
+			}
+			if (!engine.reset(game.seed, game.number - 1, game.players)) {
+				throw new IllegalArgumentException("Invalid number of players. 2-6 Players allowed.");
+			}
+			result = engine.runGame();
+			state = game.isCancelRequested() ? State.CANCELLED : State.FINISHED;
+		}
+		catch (RuntimeException e) {
+			failure = e;
+		}
+		catch (Error e) {
+			failure = e;
+		}
+		finally {
+			game.end(state, result, failure);
+			ended(slot, game, engine.getTimeouts());
+		}
+	}
+	
+	private synchronized void ended(Slot slot, HostedGame game, Map<String, Integer> gameTimeouts) {
+		for (Map.Entry<String, Integer> entry : gameTimeouts.entrySet()) {
+			Integer total = this.timeouts.get(entry.getKey());
+			this.timeouts.put(entry.getKey(), total == null ? entry.getValue() : total + entry.getValue());
+		}
+		this.turnsPlayed += game.turns;
+		this.lastEndNanos = game.endNanos;
+		if (game.state == State.FINISHED) {
+			this.finished++;
+		}
+		else if (game.state == State.CANCELLED) {
+			this.cancelled++;
+		}
+		else {
+			this.failed++;
+		}
+		if (this.out != null) {
+			this.out.println(game);
+		}
+		slot.game = null;
+		this.idle.add(slot);
+		this.running--;
+		startQueued();
+	}
+	
+	/**
+	 * Plays games number numGames, 1 to numGames, of the batch started from
+	 * seed, with at most maxConcurrent at once, printing each game as it ends
+	 * and then the report: numGames seed [players [maxConcurrent [deadlines]]],
+	 * where players is "-" for the default line-up and deadlines is "on" to
+	 * give every decision its time limit. Deadlines are off by default.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		if (args == null || args.length < 2) {
+			System.out.println("expected: numGames seed [players|- [maxConcurrent [deadlines: on|off, default off]]]");
+			return;
+		}
+		int numGames = Integer.parseInt(args[0]);
+		long seed = Long.parseLong(args[1]);
+		String players = args.length >= 3 && !args[2].equals("-") ? args[2] : null;
+		int maxConcurrent = args.length >= 4 ? Integer.parseInt(args[3]) : 0;
+		GameHost host = new GameHost(maxConcurrent);
+		host.setDeadlinesEnforced(args.length >= 5 && "on".equalsIgnoreCase(args[4]));
+		host.setOutput(System.out);
+		for (int i = 1; i <= numGames; i++) {
+			host.submit(seed, i, players);
+		}
+		host.awaitAll();
+		host.printReport(System.out);
+		host.shutdown();
+	}
+	
+	/**
+	 * A factory of virtual threads named prefix and a count, if this JRE has
+	 * them; null otherwise. Thread.ofVirtual() is looked up rather than
+	 * called so that the host still builds and runs on Java 8.
+	 */
+	static ThreadFactory newVirtualThreadFactory(String prefix) {
+		try {
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			Method ofVirtual = Thread.class.getMethod("ofVirtual");
+			Object builder = ofVirtual.invoke(null);
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		}
+		catch (ReflectiveOperationException e) {
+			//before Java 21, or a preview that is not enabled
+			return null;
+		}
+	}
+	
+	/**
+	 * One game in the host, from submission to its end. Its state, round and
+	 * turn count are updated by the game's thread as it plays and may be read
+	 * from any thread.
+	 */
+	public static class HostedGame {
+		private final long seed, number;
+		private final String players;
+		private final long queuedNanos;
+		private volatile long startNanos, endNanos;
+		private volatile State state = State.QUEUED;
+		private volatile int round, turns;
+		private volatile boolean cancelRequested;
+		private volatile String result;
+		private volatile Throwable failure;
+		
+		private HostedGame(long seed, long number, String players) {
+			this.seed = seed;
+			this.number = number;
+			this.players = players;
+			this.queuedNanos = System.nanoTime();
+		}
+		
+		private void start() {
+			this.startNanos = System.nanoTime();
+			this.state = State.RUNNING;
+		}
+		
+		private void end(State state, String result, Throwable failure) {
+			this.result = result;
+			this.failure = failure;
+			this.endNanos = System.nanoTime();
+			this.state = state;
+		}
+		
+		/**
+		 * Stops the game: at once if it is still queued, otherwise at its engine's next check.
+		 */
+		public void cancel() {
+			this.cancelRequested = true;
+		}
+		
+		public boolean isCancelRequested() {
+			return this.cancelRequested;
+		}
+		
+		public long getNumber() {
+			return this.number;
+		}
+		
+		public State getState() {
+			return this.state;
+		}
+		
+		public int getRound() {
+			return this.round;
+		}
+		
+		public int getTurns() {
+			return this.turns;
+		}
+		
+		/**
+		 * How the game ended: as {@link GameEngine#play()} returns; null until it has.
+		 */
+		public String getResult() {
+			return this.result;
+		}
+		
+		/**
+		 * What made the game fail, if it did.
+		 */
+		public Throwable getFailure() {
+			return this.failure;
+		}
+		
+		/**
+		 * Milliseconds the game has waited in the queue, or waited before it started.
+		 */
+		public long getQueuedMillis() {
+			long start = this.state == State.QUEUED ? System.nanoTime()
+					: this.startNanos != 0 ? this.startNanos : this.endNanos;
+			return TimeUnit.NANOSECONDS.toMillis(start - this.queuedNanos);
+		}
+		
+		/**
+		 * Milliseconds the game has been running, or ran for.
+		 */
+		public long getRunningMillis() {
+			State now = this.state;
+			if (now == State.QUEUED || this.startNanos == 0) {
+				return 0;
+			}
+			long end = now == State.RUNNING ? System.nanoTime() : this.endNanos;
+			return TimeUnit.NANOSECONDS.toMillis(end - this.startNanos);
+		}
+		
+		/**
+		 * The game's record, as a batch prints it once the game has ended.
+		 */
+		@Override
+		public String toString() {
+			switch (this.state) {
+				case FINISHED:
+					if (this.result == null || GameEngine.isStalemate(this.result)) {
+						return this.number + " - " + this.result;
+					}
+					return this.number + " - " + this.result + " is the victor!";
+				case FAILED:
+					return this.number + " - failed: " + this.failure;
+				default:
+					return this.number + " - " + this.state.toString().toLowerCase();
+			}
+		}
+	}
+	
+	/**
+	 * An engine, and the hooks through which it reports to whichever game
+	 * it is playing; kept by the host to be reused from one game to the next.
+	 */
+	private class Slot extends EngineHooks {
+		private final GameEngine engine;
+		private volatile HostedGame game;
+		
+		private Slot(int id) {
+			this.engine = new GameEngine(new RandomStreams(0, 0), "Hosted engine " + id, GameLog.NONE, this);
+			this.engine.setDecisionFailures(GameHost.this.failures);
+			this.engine.setDecisionThreads(GameHost.this.decisionThreads);
+		}
+		
+		@Override
+		public boolean isCancelled() {
+			return this.game.cancelRequested;
+		}
+		
+		@Override
+		public void turnStarting(Player player) {
+			HostedGame current = this.game;
+			current.round = this.engine.getRound();
+			current.turns++;
+		}
+	}
+	
+	/**
+	 * Daemon platform threads, for JREs without virtual threads.
+	 */
+	private static class PlatformThreads implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger count = new AtomicInteger();
+		
+		private PlatformThreads(String prefix) {
+			this.prefix = prefix;
+		}
+		
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, this.prefix + this.count.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package Master;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Util.GameLog;
+import Util.RandomStreams;
+import Util.RiskConstants;
+
+/**
+ * Plays a batch of headless games and tallies the victors.
+ *
+ * Games are independent of each other, so they can be spread across a pool of
+ * worker threads. Each game owns its own map, deck, random number streams
+ * and turn-in progression; results are collected in game order, so the printed
+ * record and the win summary look the same no matter how many threads are used.
+ * Only the last game of the batch is logged.
+ *
+ * Each thread plays the rest of its games on one {@link GameEngine}, reset
+ * between games rather than built anew, so that the board, the deck, the
+ * hands and the decision thread are all reused.
+ *
+ * Games are numbered from 1, and game number n is always played from the
+ * streams of (seed, n - 1). Running a batch of one game that starts at n
+ * therefore replays exactly game n of any larger batch with the same seed.
+ *
+ * Every decision of every player runs under the deadlines of
+ * {@link DecisionRunner}, so no single game can hold a worker for long;
+ * the summary reports how many deadlines each player missed. Exceptions
+ * thrown by the players are counted across the whole batch in one
+ * {@link DecisionFailures} table and summarized at the end as well.
+ */
+public class Tournament {
+	private static final String MAP_FILE = "Countries.txt";
+
+	private String players;
+	private int numGames;
+	private int numThreads;
+	private long seed;
+	private int firstGame;
+	private final Map<String, Integer> timeouts = new TreeMap<String, Integer>();
+	private final DecisionFailures failures = new DecisionFailures();
+	private final ThreadLocal<GameEngine> engines = new ThreadLocal<GameEngine>();
+	private final List<GameEngine> allEngines = new ArrayList<GameEngine>();
+	private PrintStream out = System.out;
+
+	/**
+	 * @param players comma-separated player types, or null for the default line-up
+	 * @param numGames
+	 * @param numThreads number of worker threads; anything below 1 uses every available core
+	 * @param seed master seed of the batch
+	 * @param firstGame number of the first game to play, counting from 1
+	 */
+	public Tournament(String players, int numGames, int numThreads, long seed, int firstGame) {
+		this.players = players;
+		this.numGames = numGames;
+		this.numThreads = numThreads < 1 ? Runtime.getRuntime().availableProcessors() : numThreads;
+		this.seed = seed;
+		this.firstGame = Math.max(firstGame, 1);
+	}
+
+	/**
+	 * Sets where the record of each game and the summary are printed; System.out by default.
+	 */
+	public void setOutput(PrintStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Plays every game in the batch, unless the line-up breaks the rules.
+	 * @return number of games won, keyed by victor; empty if no game was played
+	 * @throws IOException if the log for the final game could not be opened
+	 */
+	public Map<String, Integer> run() throws IOException {
+		Map<String, Integer> winLog = new HashMap<String, Integer>();
+		int numPlayers = (this.players == null ? RiskConstants.DEFAULT_PLAYERS : this.players).split(",").length;
+		if (numPlayers < RiskConstants.MIN_PLAYERS || numPlayers > RiskConstants.MAX_PLAYERS) {
+			this.out.println("Invalid number of players. 2-6 Players allowed.");
+			return winLog;
+		}
+		if (this.numThreads == 1 || this.numGames <= 1) {
+			try {
+				for (int i = 0; i < this.numGames; i++) {
+					recordVictor(winLog, i, playGame(i));
+				}
+			}
+			finally {
+				closeEngines();
+			}
+		}
+		else {
+			ExecutorService pool = Executors.newFixedThreadPool(Math.min(this.numThreads, this.numGames), new WorkerFactory());
+			try {
+				List<Future<String>> results = new ArrayList<Future<String>>();
+				for (int i = 0; i < this.numGames; i++) {
+					final int gameIndex = i;
+					results.add(pool.submit(new Callable<String>() {
+						@Override
+						public String call() throws IOException {
+							return playGame(gameIndex);
+						}
+					}));
+				}
+				for (int i = 0; i < this.numGames; i++) {
+					recordVictor(winLog, i, results.get(i).get());
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Tournament interrupted.", e);
+			}
+			catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new RuntimeException(e.getCause());
+			}
+			finally {
+				pool.shutdownNow();
+				closeEngines();
+			}
+		}
+		return winLog;
+	}
+
+	/**
+	 * Prints the win percentage of each victor.
+	 * @param winLog
+	 */
+	public void printSummary(Map<String, Integer> winLog) {
+		for (Map.Entry<String, Integer> entry : winLog.entrySet()) {
+			this.out.println(entry.getKey() + " had a win percentage of " + 100.0 * entry.getValue() / this.numGames + "%");
+		}
+		synchronized (this.timeouts) {
+			for (Map.Entry<String, Integer> entry : this.timeouts.entrySet()) {
+				this.out.println(entry.getKey() + " missed " + entry.getValue() + " decision deadline(s)");
+			}
+		}
+		this.failures.printSummary(this.out);
+	}
+
+	private String playGame(int gameIndex) throws IOException {
+		long gameNumber = this.firstGame - 1 + gameIndex;
+		String victor;
+		if (gameIndex == this.numGames - 1) {
+			//the logged game gets a game master of its own, which opens and closes the logs
+			RiskConstants.resetTurnIn();
+			GameMaster game = new GameMaster(MAP_FILE, this.players, GameMaster.LOGGING_ON, this.seed, gameNumber);
+			game.setDecisionFailures(this.failures);
+			victor = game.begin();
+			addTimeouts(game.getTimeouts());
+		}
+		else {
+			GameEngine engine = getEngine();
+			//run() has checked the line-up already
+			engine.reset(this.seed, gameNumber, this.players);
+			victor = engine.runGame();
+			addTimeouts(engine.getTimeouts());
+		}
+		return victor;
+	}
+
+	/**
+	 * The calling thread's engine, built the first time the thread asks.
+	 */
+	private GameEngine getEngine() {
+		GameEngine engine = this.engines.get();
+		if (engine == null) {
+			engine = new GameEngine(new RandomStreams(this.seed, 0), Thread.currentThread().getName(), GameLog.NONE, EngineHooks.NONE);
+			engine.setDecisionFailures(this.failures);
+			this.engines.set(engine);
+			synchronized (this.allEngines) {
+				this.allEngines.add(engine);
+			}
+		}
+		return engine;
+	}
+
+	private void closeEngines() {
+		synchronized (this.allEngines) {
+			for (GameEngine engine : this.allEngines) {
+				engine.close();
+			}
+			this.allEngines.clear();
+		}
+	}
+
+	private void addTimeouts(Map<String, Integer> gameTimeouts) {
+		synchronized (this.timeouts) {
+			for (Map.Entry<String, Integer> entry : gameTimeouts.entrySet()) {
+				Integer total = this.timeouts.get(entry.getKey());
+				this.timeouts.put(entry.getKey(), total == null ? entry.getValue() : total + entry.getValue());
+			}
+		}
+	}
+
+	private void recordVictor(Map<String, Integer> winLog, int gameIndex, String victor) {
+		int gameNumber = this.firstGame + gameIndex;
+		if (GameMaster.isStalemate(victor)) {
+			this.out.println(gameNumber + " - " + victor);
+		}
+		else {
+			this.out.println(gameNumber + " - " + victor + " is the victor!");
+		}
+		if (!winLog.containsKey(victor)) {
+			winLog.put(victor, 0);
+		}
+		winLog.put(victor, winLog.get(victor) + 1);
+	}
+
+	/**
+	 * Daemon workers, so that an abandoned batch never keeps the JVM alive.
+	 */
+	private static class WorkerFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread worker = new Thread(r, "Tournament worker " + this.count.getAndIncrement());
+			worker.setDaemon(true);
+			return worker;
+		}
+	}
+}
@@ -23,7 +23,7 @@ import Util.RiskUtils;
  * Implements the methods in the Player interface with
  * minimally viable simplicity.
  */
-public class EasyDefaultPlayer implements Player {
+public class EasyDefaultPlayer implements Player, StandingDefender {
 	protected String name;
 	protected Country lastCountryReinforced;
 	
@@ -169,13 +169,14 @@ public class EasyDefaultPlayer implements Player {
 	 * For the first country that can attack a neighbor, attack the weakest neighbor with the maximum number of dice.
 	 */
 	public AttackResponse attack(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards) {
+		byte myId = map.getPlayerId(this.name);
 		AttackResponse rsp = new AttackResponse();
 		Set<Country> myCountries = RiskUtils.getPlayerCountries(map, this.name);
 		Country atkCountry = null, dfdCountry = null;
 		for (Country currentCountry : myCountries) {
 			if (map.getCountryArmies(currentCountry) > 1) {
 				for (Country neighbor : currentCountry.getNeighbors()) {
-					if (!map.getCountryOwner(neighbor).equals(this.name) && (dfdCountry == null
+					if (map.getCountryOwnerId(neighbor) != myId && (dfdCountry == null
 						|| (dfdCountry != null && map.getCountryArmies(dfdCountry) > map.getCountryArmies(neighbor)))) {
 						atkCountry = currentCountry;
 						dfdCountry = neighbor;
@@ -216,11 +217,18 @@ public class EasyDefaultPlayer implements Player {
 	 */
 	public DefendResponse defend(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards, Country atkCountry, Country dfdCountry, int numAtkDice) {
 		DefendResponse rsp = new DefendResponse();
-		int numDice = map.getCountryArmies(dfdCountry);
+		rsp.setNumDice(getStandingDefenseDice(map.getCountryArmies(dfdCountry)));
+		return rsp;
+	}
+	
+	/**
+	 * The same choice as defend(), offered to the engine as a standing policy.
+	 */
+	public int getStandingDefenseDice(int dfdArmies) {
+		int numDice = dfdArmies;
 		if (numDice > RiskConstants.MAX_DFD_DICE) {
 			numDice = RiskConstants.MAX_DFD_DICE;
 		}
-		rsp.setNumDice(numDice);
-		return rsp;
+		return numDice;
 	}
 }
\ No newline at end of file
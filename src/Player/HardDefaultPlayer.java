@@ -47,13 +47,14 @@ public class HardDefaultPlayer extends NormalDefaultPlayer {
 	 */
 	@Override
 	public ReinforcementResponse reinforce(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards, int reinforcements) {
+		byte myId = map.getPlayerId(this.name);
 		ReinforcementResponse rsp = new ReinforcementResponse();
 		Set<Country> myCountries = RiskUtils.filterCountriesByBorderStatus(map, this.name, RiskUtils.getPlayerCountries(map, this.name), false);
 		boolean beginReinforce = this.lastCountryReinforced == null || !myCountries.contains(this.lastCountryReinforced);
 		while (reinforcements > 0) {
 			for (Country country : myCountries) {
 				for (Country neighbor : country.getNeighbors()) {
-					if (!map.getCountryOwner(neighbor).equals(this.name) && reinforcements > 0) {
+					if (map.getCountryOwnerId(neighbor) != myId && reinforcements > 0) {
 						if (beginReinforce) {
 							reinforcements -= rsp.reinforce(country, 1);
 							this.lastCountryReinforced = country;
@@ -74,6 +75,7 @@ public class HardDefaultPlayer extends NormalDefaultPlayer {
 	 */
 	@Override
 	public AttackResponse attack(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards) {
+		byte myId = map.getPlayerId(this.name);
 		AttackResponse rsp = new AttackResponse();
 		Set<Country> myCountries = RiskUtils.getPlayerCountries(map, this.name);
 		Country atkCountry = null, dfdCountry = null;
@@ -81,7 +83,7 @@ public class HardDefaultPlayer extends NormalDefaultPlayer {
 		for (Country currentCountry : myCountries) {
 			if (map.getCountryArmies(currentCountry) > 1) {
 				for (Country neighbor : currentCountry.getNeighbors()) {
-					if (!map.getCountryOwner(neighbor).equals(this.name)
+					if (map.getCountryOwnerId(neighbor) != myId
 						&& (dfdCountry == null
 						|| map.getCountryArmies(neighbor) < map.getCountryArmies(dfdCountry))
 						&& map.getCountryArmies(currentCountry) > map.getCountryArmies(neighbor) + strDiffThresh) {
@@ -112,11 +114,12 @@ public class HardDefaultPlayer extends NormalDefaultPlayer {
 	 */
 	@Override
 	public AdvanceResponse advance(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards, Country fromCountry, Country toCountry, int min) {
+		byte myId = map.getPlayerId(this.name);
 		AdvanceResponse rsp = new AdvanceResponse();
 		int maxAdvance = map.getCountryArmies(fromCountry) - 1;
 		boolean external = false;
 		for (Country neighbor : fromCountry.getNeighbors()) {
-			if (!map.getCountryOwner(neighbor).equals(this.name)){
+			if (map.getCountryOwnerId(neighbor) != myId){
 				external = true;
 			}
 		}
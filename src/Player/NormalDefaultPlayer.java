@@ -74,13 +74,14 @@ public class NormalDefaultPlayer extends EasyDefaultPlayer{
 	 */
 	@Override
 	public AttackResponse attack(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards) {
+		byte myId = map.getPlayerId(this.name);
 		AttackResponse rsp = new AttackResponse();
 		Set<Country> myCountries = RiskUtils.getPlayerCountries(map, this.name);
 		Country atkCountry = null, dfdCountry = null;
 		for (Country currentCountry : myCountries) {
 			if (map.getCountryArmies(currentCountry) > 1) {
 				for (Country neighbor : currentCountry.getNeighbors()) {
-					if (!map.getCountryOwner(neighbor).equals(this.name)
+					if (map.getCountryOwnerId(neighbor) != myId
 						&& (dfdCountry == null
 						|| map.getCountryArmies(neighbor) < map.getCountryArmies(dfdCountry))
 						&& map.getCountryArmies(currentCountry) > map.getCountryArmies(neighbor)) {
@@ -111,6 +112,7 @@ public class NormalDefaultPlayer extends EasyDefaultPlayer{
 	 */
 	@Override
 	public FortifyResponse fortify(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards) {
+		byte myId = map.getPlayerId(this.name);
 		FortifyResponse rsp = new FortifyResponse();
 		Set<Country> myCountries = RiskUtils.getPlayerCountries(map, this.name);
 		for (Country currentCountry : myCountries) {
@@ -118,12 +120,12 @@ public class NormalDefaultPlayer extends EasyDefaultPlayer{
 			if (map.getCountryArmies(currentCountry) > 1) {
 				boolean isInterior = true;
 				for (Country neighbor : currentCountry.getNeighbors()) {
-					if (!map.getCountryOwner(neighbor).equals(this.name)) {
+					if (map.getCountryOwnerId(neighbor) != myId) {
 						isInterior = false;
 					}
 					else if (exteriorNeighbor == null) {
 						for (Country potentialEnemy : neighbor.getNeighbors()) {
-							if (!map.getCountryOwner(potentialEnemy).equals(this.name)) {
+							if (map.getCountryOwnerId(potentialEnemy) != myId) {
 								exteriorNeighbor = neighbor;
 							}
 						}
@@ -1,19 +1,18 @@
 package Player;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Factory Class for Players.
+ * 
+ * The UI player lives with the JavaFX front end, outside the headless core,
+ * so it is looked up by name and only when asked for; a headless build
+ * offers every other type without JavaFX on the classpath.
  */
 public class PlayerFactory {
-	private static int numEasy = 0;
-	private static int numNormal = 0;
-	private static int numHard = 0;
-	private static int numSeth = 0;
-	private static int numFXUI = 0;
-	private static int numConsole = 0;
-
 	public static final String EASY = "Easy";
 	public static final String NORMAL = "Normal";
 	public static final String HARD = "Hard";
@@ -21,40 +20,71 @@ public class PlayerFactory {
 	public static final String FXUI = "FXUI";
 	public static final String FXUIAsk = "FXUIAsk";
 	public static final String CONSOLE = "Console";
+	public static final String REMOTE = "Remote";
+	private static final String FXUI_PLAYER_CLASS = "Player.FXUIPlayer";
 	
 	/**
 	 * Builds a Player object of the specified sub-type.
+	 * Players are numbered by how many of the same type are already in
+	 * playerNames, so that concurrent games never share a counter.
 	 * @param type
 	 * @param playerNames 
 	 * @return Player object
 	 */
 	public static Player getPlayer(String type, List<String> playerNames) {
 		if (EASY.equals(type)) {
-			return new EasyDefaultPlayer(EASY + " " + numEasy++);
+			return new EasyDefaultPlayer(EASY + " " + countPlayersOfType(EASY, playerNames));
 		}
 		else if (NORMAL.equals(type)) {
-			return new NormalDefaultPlayer(NORMAL + " " + numNormal++);
+			return new NormalDefaultPlayer(NORMAL + " " + countPlayersOfType(NORMAL, playerNames));
 		}
 		else if (HARD.equals(type)) {
-			return new HardDefaultPlayer(HARD + " " + numHard++);
+			return new HardDefaultPlayer(HARD + " " + countPlayersOfType(HARD, playerNames));
 		}
 		else if (SETH.equals(type)) {
-			return new Seth(SETH + " " + numSeth++);
+			return new Seth(SETH + " " + countPlayersOfType(SETH, playerNames));
 		}
 		else if (FXUI.equals(type)) {
-			return new FXUIPlayer(FXUI + " " + numFXUI++);
+			return newUIPlayer(new Class<?>[] {String.class},
+					FXUI + " " + countPlayersOfType(FXUI, playerNames));
 		}
 		else if (FXUIAsk.equals(type)) {
-			return new FXUIPlayer(true, playerNames);
+			return newUIPlayer(new Class<?>[] {boolean.class, Collection.class}, true, playerNames);
 		}
 		else if (CONSOLE.equals(type)) {
-			return new CommandConsole(CONSOLE + " " + numConsole++);
+			return new CommandConsole(CONSOLE + " " + countPlayersOfType(CONSOLE, playerNames));
+		}
+		else if (REMOTE.equals(type)) {
+			return new RemotePlayer(REMOTE + " " + countPlayersOfType(REMOTE, playerNames), RemoteBotPool.getShared());
 		}
 		else {
 			throw new RuntimeException("Cannot instantiate Player type: " + type);
 		}
 	}
 	
+	/**
+	 * Builds the JavaFX UI player through its constructor taking the given
+	 * parameter types.
+	 * @param parameterTypes
+	 * @param args
+	 * @return Player object
+	 */
+	private static Player newUIPlayer(Class<?>[] parameterTypes, Object... args) {
+		try {
+			return (Player) Class.forName(FXUI_PLAYER_CLASS).getConstructor(parameterTypes).newInstance(args);
+		}
+		catch (ClassNotFoundException | LinkageError e) {
+			throw new RuntimeException("Cannot instantiate Player type " + FXUI
+					+ ": this is a headless build, without the JavaFX UI.", e);
+		}
+		catch (InvocationTargetException e) {
+			throw new RuntimeException("Cannot instantiate Player type: " + FXUI, e.getCause());
+		}
+		catch (ReflectiveOperationException e) {
+			throw new RuntimeException("Cannot instantiate Player type: " + FXUI, e);
+		}
+	}
+	
 	/**
 	 * Given a comma-separated String of Player types, return a list of
 	 * Players that correspond to those types.
@@ -75,12 +105,22 @@ public class PlayerFactory {
 		return players;
 	}
 	
-	public static void resetPlayerCounts() {
-		numEasy = 0;
-		numNormal = 0;
-		numHard = 0;
-		numSeth = 0;
-		numFXUI = 0;
-		numConsole = 0;
+	/**
+	 * Counts the names in playerNames that were generated for the given type.
+	 * @param type
+	 * @param playerNames
+	 * @return number of players of that type
+	 */
+	private static int countPlayersOfType(String type, List<String> playerNames) {
+		int count = 0;
+		if (playerNames != null) {
+			String prefix = type + " ";
+			for (String name : playerNames) {
+				if (name != null && name.startsWith(prefix)) {
+					count++;
+				}
+			}
+		}
+		return count;
 	}
 }
@@ -0,0 +1,351 @@
+package Player;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import Map.Country;
+import Map.RiskMap;
+import Util.Card;
+import Util.RiskConstants;
+
+/**
+ * The bot of reference for {@link RemoteProtocol}, and the stand-in used by
+ * {@link RemoteBotPool} when no other bot is given: it makes random, but
+ * always valid, decisions, drawn from the seed its session was opened with.
+ * It masses its armies and only attacks where it has more, which is just
+ * enough purpose for two of them to finish a game.
+ *
+ * Run with no arguments, it serves one connection on its standard input
+ * and output, as a pool starts it; "-port n" instead serves every
+ * connection to that port of the loopback interface, each on a thread of
+ * its own, for pools given "tcp:n". Answers are written as each request is
+ * read, and flushed only once no more requests are waiting, so that a
+ * pipelined burst of requests is answered in a single write.
+ */
+public class RandomRemoteBot {
+	private static final Country[] COUNTRIES = Country.values();
+	static {
+		//building a board links every country to its neighbors
+		new RiskMap();
+	}
+	
+	private final InputStream in;
+	private final OutputStream out;
+	private final Map<Integer, Session> sessions;
+	
+	public RandomRemoteBot(InputStream in, OutputStream out) {
+		this.in = new BufferedInputStream(in, 1 << 14);
+		this.out = new BufferedOutputStream(out, 1 << 14);
+		this.sessions = new HashMap<Integer, Session>();
+	}
+	
+	/**
+	 * Answers requests until the input ends.
+	 */
+	public void serve() throws IOException {
+		byte[] body;
+		while ((body = RemoteProtocol.readFrame(this.in)) != null) {
+			ByteArrayInputStream message = new ByteArrayInputStream(body);
+			int sessionId = RemoteProtocol.readVarint(message);
+			int type = RemoteProtocol.readByte(message);
+			if (type == RemoteProtocol.OPEN) {
+				long seed = RemoteProtocol.readVarlong(message);
+				this.sessions.put(sessionId, new Session(RemoteProtocol.readString(message), seed));
+			}
+			else if (type == RemoteProtocol.CLOSE) {
+				this.sessions.remove(sessionId);
+			}
+			else {
+				int requestId = RemoteProtocol.readVarint(message);
+				ByteArrayOutputStream answer = new ByteArrayOutputStream();
+				RemoteProtocol.writeVarint(answer, requestId);
+				Session session = this.sessions.get(sessionId);
+				if (session == null) {
+					answer.write(RemoteProtocol.NO_RESPONSE);
+				}
+				else {
+					session.readState(message);
+					session.decide(type, message, answer);
+				}
+				RemoteProtocol.writeFrame(this.out, answer.toByteArray());
+			}
+			if (this.in.available() == 0) {
+				this.out.flush();
+			}
+		}
+		this.out.flush();
+	}
+	
+	public static void main(String[] args) throws IOException {
+		if (args.length >= 2 && args[0].equals("-port")) {
+			ServerSocket server = new ServerSocket(Integer.parseInt(args[1]), 50, InetAddress.getLoopbackAddress());
+			while (true) {
+				final Socket client = server.accept();
+				client.setTcpNoDelay(true);
+				new Thread(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							new RandomRemoteBot(client.getInputStream(), client.getOutputStream()).serve();
+						}
+						catch (IOException e) {
+							System.err.println("RandomRemoteBot: connection lost: " + e);
+						}
+						finally {
+							try {
+								client.close();
+							}
+							catch (IOException e) {
+							}
+						}
+					}
+				}, "RandomRemoteBot " + client.getRemoteSocketAddress()).start();
+			}
+		}
+		else {
+			new RandomRemoteBot(System.in, System.out).serve();
+		}
+	}
+	
+	/**
+	 * One player's view of one game.
+	 */
+	private static class Session {
+		private final String name;
+		private final SplittableRandom random;
+		private final int[] owners, armies;
+		private final List<Integer> hand;
+		private int myId = -1;
+		
+		private Session(String name, long seed) {
+			this.name = name;
+			this.random = new SplittableRandom(seed);
+			this.owners = new int[COUNTRIES.length];
+			this.armies = new int[COUNTRIES.length];
+			this.hand = new ArrayList<Integer>();
+			Arrays.fill(this.owners, -1);
+		}
+		
+		private void readState(InputStream in) throws IOException {
+			for (int n = RemoteProtocol.readVarint(in); n > 0; n--) {
+				int id = RemoteProtocol.readVarint(in);
+				if (RemoteProtocol.readString(in).equals(this.name)) {
+					this.myId = id;
+				}
+			}
+			for (int n = RemoteProtocol.readVarint(in); n > 0; n--) {
+				int country = RemoteProtocol.readCountry(in).ordinal();
+				this.owners[country] = RemoteProtocol.readVarint(in) - 1;
+				this.armies[country] = RemoteProtocol.readVarint(in);
+			}
+			this.hand.clear();
+			for (int n = RemoteProtocol.readVarint(in); n > 0; n--) {
+				this.hand.add(RemoteProtocol.readVarint(in));
+			}
+			for (int n = RemoteProtocol.readVarint(in); n > 0; n--) {
+				//the other players' card counts play no part in a random decision
+				RemoteProtocol.readVarint(in);
+				RemoteProtocol.readVarint(in);
+			}
+		}
+		
+		private void decide(int type, InputStream in, OutputStream out) throws IOException {
+			switch (type) {
+				case RemoteProtocol.INITIAL_ALLOCATION:
+					allocate(RemoteProtocol.readVarint(in), true, out);
+					break;
+				case RemoteProtocol.REINFORCE:
+					allocate(RemoteProtocol.readVarint(in), false, out);
+					break;
+				case RemoteProtocol.TURN_IN:
+					turnIn(RemoteProtocol.readVarint(in) == 1, out);
+					break;
+				case RemoteProtocol.ATTACK:
+					attack(out);
+					break;
+				case RemoteProtocol.ADVANCE:
+					int from = RemoteProtocol.readCountry(in).ordinal();
+					RemoteProtocol.readCountry(in);
+					RemoteProtocol.readVarint(in);
+					//everything that can move goes forward, where the enemy is
+					out.write(RemoteProtocol.RESPONSE);
+					RemoteProtocol.writeVarint(out, this.armies[from] - 1);
+					break;
+				case RemoteProtocol.FORTIFY:
+					fortify(out);
+					break;
+				case RemoteProtocol.DEFEND:
+					RemoteProtocol.readCountry(in);
+					int dfd = RemoteProtocol.readCountry(in).ordinal();
+					out.write(RemoteProtocol.RESPONSE);
+					RemoteProtocol.writeVarint(out, 1 + this.random.nextInt(Math.min(RiskConstants.MAX_DFD_DICE, this.armies[dfd])));
+					break;
+				default:
+					out.write(RemoteProtocol.NO_RESPONSE);
+			}
+		}
+		
+		private List<Integer> myCountries() {
+			List<Integer> mine = new ArrayList<Integer>();
+			for (int i = 0; i < this.owners.length; i++) {
+				if (this.owners[i] == this.myId) {
+					mine.add(i);
+				}
+			}
+			return mine;
+		}
+		
+		/**
+		 * Places every army on one random country that borders an enemy, so
+		 * that the bot's attacks have something behind them; the initial
+		 * allocation first puts one army on each country of its own.
+		 */
+		private void allocate(int reinforcements, boolean initial, OutputStream out) throws IOException {
+			List<Integer> mine = myCountries();
+			if (mine.isEmpty() || initial && reinforcements < mine.size()) {
+				out.write(RemoteProtocol.NO_RESPONSE);
+				return;
+			}
+			int[] placed = new int[COUNTRIES.length];
+			if (initial) {
+				for (int country : mine) {
+					placed[country] = 1;
+				}
+				reinforcements -= mine.size();
+			}
+			List<Integer> borders = new ArrayList<Integer>();
+			for (int country : mine) {
+				if (!enemyNeighbors(country).isEmpty()) {
+					borders.add(country);
+				}
+			}
+			if (borders.isEmpty()) {
+				borders = mine;
+			}
+			placed[borders.get(this.random.nextInt(borders.size()))] += reinforcements;
+			ByteArrayOutputStream allocation = new ByteArrayOutputStream();
+			int count = 0;
+			for (int country : mine) {
+				if (placed[country] > 0) {
+					RemoteProtocol.writeVarint(allocation, country);
+					RemoteProtocol.writeVarint(allocation, placed[country]);
+					count++;
+				}
+			}
+			out.write(RemoteProtocol.RESPONSE);
+			RemoteProtocol.writeVarint(out, count);
+			allocation.writeTo(out);
+		}
+		
+		/**
+		 * Turns in the first valid set of the hand, but only when it must.
+		 */
+		private void turnIn(boolean required, OutputStream out) throws IOException {
+			int size = this.hand.size();
+			for (int a = 0; required && a < size; a++) {
+				for (int b = a + 1; b < size; b++) {
+					for (int c = b + 1; c < size; c++) {
+						if (isSet(this.hand.get(a), this.hand.get(b), this.hand.get(c))) {
+							out.write(RemoteProtocol.RESPONSE);
+							RemoteProtocol.writeVarint(out, 3);
+							RemoteProtocol.writeVarint(out, this.hand.get(a));
+							RemoteProtocol.writeVarint(out, this.hand.get(b));
+							RemoteProtocol.writeVarint(out, this.hand.get(c));
+							RemoteProtocol.writeVarint(out, 0);
+							return;
+						}
+					}
+				}
+			}
+			out.write(RemoteProtocol.NO_RESPONSE);
+		}
+		
+		private static boolean isSet(int a, int b, int c) {
+			if (a == RemoteProtocol.WILD || b == RemoteProtocol.WILD || c == RemoteProtocol.WILD) {
+				return true;
+			}
+			String typeA = Card.getCard(COUNTRIES[a]).getType();
+			String typeB = Card.getCard(COUNTRIES[b]).getType();
+			String typeC = Card.getCard(COUNTRIES[c]).getType();
+			return (typeA.equals(typeB) && typeB.equals(typeC))
+					|| (!typeA.equals(typeB) && !typeB.equals(typeC) && !typeA.equals(typeC));
+		}
+		
+		/**
+		 * Attacks, from a random country, a random enemy neighbor it outnumbers;
+		 * stops once there is none.
+		 */
+		private void attack(OutputStream out) throws IOException {
+			List<Integer> from = new ArrayList<Integer>();
+			List<Integer> to = new ArrayList<Integer>();
+			for (int country : myCountries()) {
+				for (int enemy : enemyNeighbors(country)) {
+					if (this.armies[country] > 1 && this.armies[country] > this.armies[enemy]) {
+						from.add(country);
+						to.add(enemy);
+					}
+				}
+			}
+			if (from.isEmpty()) {
+				out.write(RemoteProtocol.NO_RESPONSE);
+				return;
+			}
+			int pick = this.random.nextInt(from.size());
+			out.write(RemoteProtocol.RESPONSE);
+			RemoteProtocol.writeVarint(out, from.get(pick));
+			RemoteProtocol.writeVarint(out, to.get(pick));
+			RemoteProtocol.writeVarint(out, Math.min(RiskConstants.MAX_ATK_DICE, this.armies[from.get(pick)] - 1));
+		}
+		
+		private List<Integer> enemyNeighbors(int country) {
+			List<Integer> enemies = new ArrayList<Integer>();
+			for (Country neighbor : COUNTRIES[country].getNeighbors()) {
+				if (this.owners[neighbor.ordinal()] != this.myId) {
+					enemies.add(neighbor.ordinal());
+				}
+			}
+			return enemies;
+		}
+		
+		/**
+		 * Half of the time, moves some armies from a random country to a
+		 * neighbor it also owns.
+		 */
+		private void fortify(OutputStream out) throws IOException {
+			List<Integer> from = new ArrayList<Integer>();
+			List<Integer> to = new ArrayList<Integer>();
+			for (int country : myCountries()) {
+				if (this.armies[country] > 1) {
+					for (Country neighbor : COUNTRIES[country].getNeighbors()) {
+						if (this.owners[neighbor.ordinal()] == this.myId) {
+							from.add(country);
+							to.add(neighbor.ordinal());
+						}
+					}
+				}
+			}
+			if (from.isEmpty() || this.random.nextBoolean()) {
+				out.write(RemoteProtocol.NO_RESPONSE);
+				return;
+			}
+			int move = this.random.nextInt(from.size());
+			out.write(RemoteProtocol.RESPONSE);
+			RemoteProtocol.writeVarint(out, from.get(move));
+			RemoteProtocol.writeVarint(out, to.get(move));
+			RemoteProtocol.writeVarint(out, 1 + this.random.nextInt(this.armies[from.get(move)] - 1));
+		}
+	}
+}
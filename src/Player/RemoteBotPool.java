@@ -0,0 +1,346 @@
+package Player;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The external bot processes, or local socket connections, that the
+ * {@link RemotePlayer}s of every game talk to.
+ *
+ * Starting a JVM or any other bot process costs far more than a game, so
+ * the pool starts at most size connections, lazily, and keeps them for as
+ * long as it lives: each new player opens a session on the connection with
+ * the fewest sessions, and closes it when the game is over. A connection
+ * that fails is replaced by the next player to need one.
+ *
+ * Every connection carries many sessions at once and never waits for one
+ * answer before sending the next request, so the requests of concurrent
+ * games are pipelined. A writer thread sends whatever frames are waiting
+ * with a single flush, and a reader thread hands each answer to the player
+ * waiting for it, in whatever order the bot answers.
+ *
+ * The bot is given as a command line, which is started with its standard
+ * input and output as the connection, or as "tcp:port" for a bot already
+ * listening on that port of the loopback interface. A bot process ends when
+ * its input does, which includes the end of this JVM.
+ */
+public class RemoteBotPool {
+	/**
+	 * System property holding the bot of the shared pool; by default, {@link RandomRemoteBot}.
+	 */
+	public static final String BOT_PROPERTY = "risk.remote.bot";
+	/**
+	 * System property holding the size of the shared pool; 2 by default.
+	 */
+	public static final String SIZE_PROPERTY = "risk.remote.processes";
+	private static final String TCP = "tcp:";
+	private static RemoteBotPool shared = null;
+	
+	private final List<String> command;
+	private final int port;
+	private final Connection[] connections;
+	private boolean shutDown;
+	
+	/**
+	 * @param bot command line of the bot, or "tcp:port"
+	 * @param size most connections to open
+	 */
+	public RemoteBotPool(String bot, int size) {
+		this(bot.startsWith(TCP) ? null : Arrays.asList(bot.trim().split("\\s+")),
+				bot.startsWith(TCP) ? Integer.parseInt(bot.substring(TCP.length())) : -1, size);
+	}
+	
+	private RemoteBotPool(List<String> command, int port, int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("RemoteBotPool: size must be positive.");
+		}
+		this.command = command;
+		this.port = port;
+		this.connections = new Connection[size];
+	}
+	
+	/**
+	 * The pool used by the players that {@link PlayerFactory} builds, set up
+	 * from {@link #BOT_PROPERTY} and {@link #SIZE_PROPERTY} the first time
+	 * it is asked for.
+	 */
+	public static synchronized RemoteBotPool getShared() {
+		if (shared == null) {
+			int size = Integer.parseInt(System.getProperty(SIZE_PROPERTY, "2"));
+			String bot = System.getProperty(BOT_PROPERTY);
+			if (bot != null) {
+				shared = new RemoteBotPool(bot, size);
+			}
+			else {
+				String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+				shared = new RemoteBotPool(Arrays.asList(java, "-cp", System.getProperty("java.class.path"),
+						RandomRemoteBot.class.getName()), -1, size);
+			}
+		}
+		return shared;
+	}
+	
+	/**
+	 * The live connection with the fewest sessions, started if need be.
+	 * @throws IOException if a connection was needed and could not be opened
+	 */
+	synchronized Connection acquire() throws IOException {
+		if (this.shutDown) {
+			throw new IOException("RemoteBotPool: already shut down.");
+		}
+		Connection best = null;
+		int free = -1;
+		for (int i = 0; i < this.connections.length; i++) {
+			if (this.connections[i] != null && this.connections[i].isClosed()) {
+				this.connections[i] = null;
+			}
+			if (this.connections[i] == null) {
+				free = free < 0 ? i : free;
+			}
+			else if (best == null || this.connections[i].sessions.get() < best.sessions.get()) {
+				best = this.connections[i];
+			}
+		}
+		//a busy connection gets company while there is room for more
+		if (free >= 0 && (best == null || best.sessions.get() > 0)) {
+			best = this.connections[free] = connect(free);
+		}
+		return best;
+	}
+	
+	private Connection connect(int slot) throws IOException {
+		String name = "Remote bot " + slot;
+		if (this.command == null) {
+			Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.port);
+			socket.setTcpNoDelay(true);
+			return new Connection(name, socket.getInputStream(), socket.getOutputStream(), null, socket);
+		}
+		ProcessBuilder builder = new ProcessBuilder(this.command);
+		builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+		Process process = builder.start();
+		return new Connection(name, process.getInputStream(), process.getOutputStream(), process, null);
+	}
+	
+	/**
+	 * Closes every connection, which ends the bot processes, and refuses any more sessions.
+	 */
+	public synchronized void shutdown() {
+		this.shutDown = true;
+		for (int i = 0; i < this.connections.length; i++) {
+			if (this.connections[i] != null) {
+				this.connections[i].close(new IOException("RemoteBotPool: shut down."));
+				this.connections[i] = null;
+			}
+		}
+	}
+	
+	/**
+	 * One bot process or socket, and the sessions and requests in flight on it.
+	 */
+	static class Connection {
+		private final InputStream in;
+		private final OutputStream out;
+		private final Process process;
+		private final Socket socket;
+		private final BlockingQueue<byte[]> outbox;
+		private final ConcurrentHashMap<Integer, CompletableFuture<byte[]>> pending;
+		private final AtomicInteger nextSession, nextRequest, sessions;
+		private final Thread writer;
+		private volatile IOException failure;
+		
+		private Connection(String name, InputStream in, OutputStream out, Process process, Socket socket) {
+			this.in = new BufferedInputStream(in, 1 << 14);
+			this.out = new BufferedOutputStream(out, 1 << 14);
+			this.process = process;
+			this.socket = socket;
+			this.outbox = new LinkedBlockingQueue<byte[]>();
+			this.pending = new ConcurrentHashMap<Integer, CompletableFuture<byte[]>>();
+			this.nextSession = new AtomicInteger();
+			this.nextRequest = new AtomicInteger();
+			this.sessions = new AtomicInteger();
+			startDaemon(name + " reader", new Runnable() {
+				@Override
+				public void run() {
+					read();
+				}
+			});
+			this.writer = startDaemon(name + " writer", new Runnable() {
+				@Override
+				public void run() {
+					write();
+				}
+			});
+		}
+		
+		private static Thread startDaemon(String name, Runnable task) {
+			Thread thread = new Thread(task, name);
+			thread.setDaemon(true);
+			thread.start();
+			return thread;
+		}
+		
+		boolean isClosed() {
+			return this.failure != null;
+		}
+		
+		/**
+		 * Opens a session for the named player; sent without waiting for the bot.
+		 * @return the session's number
+		 */
+		int openSession(String playerName, long seed) throws IOException {
+			int session = this.nextSession.getAndIncrement();
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			RemoteProtocol.writeVarint(body, session);
+			body.write(RemoteProtocol.OPEN);
+			RemoteProtocol.writeVarlong(body, seed);
+			RemoteProtocol.writeString(body, playerName);
+			send(body.toByteArray());
+			this.sessions.incrementAndGet();
+			return session;
+		}
+		
+		void closeSession(int session) {
+			this.sessions.decrementAndGet();
+			if (isClosed()) {
+				return;
+			}
+			try {
+				ByteArrayOutputStream body = new ByteArrayOutputStream();
+				RemoteProtocol.writeVarint(body, session);
+				body.write(RemoteProtocol.CLOSE);
+				send(body.toByteArray());
+			}
+			catch (IOException e) {
+				//the connection is gone, and the session with it
+			}
+		}
+		
+		/**
+		 * Sends a request and waits for its answer.
+		 * @param request the request's state and parameters
+		 * @return the response, without its status byte; null for no response
+		 */
+		byte[] call(int session, int type, byte[] request) throws IOException {
+			int requestId = this.nextRequest.getAndIncrement();
+			ByteArrayOutputStream body = new ByteArrayOutputStream(request.length + 8);
+			RemoteProtocol.writeVarint(body, session);
+			body.write(type);
+			RemoteProtocol.writeVarint(body, requestId);
+			body.write(request);
+			CompletableFuture<byte[]> answer = new CompletableFuture<byte[]>();
+			this.pending.put(requestId, answer);
+			try {
+				send(body.toByteArray());
+				return answer.get();
+			}
+			catch (InterruptedException e) {
+				//the decision was abandoned; its answer will be dropped when it comes
+				Thread.currentThread().interrupt();
+				throw new IOException("RemoteBotPool: interrupted while waiting for the bot.", e);
+			}
+			catch (ExecutionException e) {
+				throw (IOException) e.getCause();
+			}
+			finally {
+				this.pending.remove(requestId);
+			}
+		}
+		
+		private void send(byte[] body) throws IOException {
+			IOException failed = this.failure;
+			if (failed != null) {
+				throw failed;
+			}
+			this.outbox.add(body);
+		}
+		
+		/**
+		 * Writes every waiting frame, then flushes once, for as long as the connection lives.
+		 */
+		private void write() {
+			List<byte[]> batch = new ArrayList<byte[]>();
+			try {
+				while (!isClosed()) {
+					batch.add(this.outbox.take());
+					this.outbox.drainTo(batch);
+					for (byte[] body : batch) {
+						RemoteProtocol.writeFrame(this.out, body);
+					}
+					batch.clear();
+					this.out.flush();
+				}
+			}
+			catch (InterruptedException e) {
+				close(new IOException("RemoteBotPool: writer interrupted.", e));
+			}
+			catch (IOException e) {
+				close(e);
+			}
+		}
+		
+		/**
+		 * Hands every answer to the request waiting for it, for as long as the connection lives.
+		 */
+		private void read() {
+			try {
+				byte[] body;
+				while ((body = RemoteProtocol.readFrame(this.in)) != null) {
+					ByteArrayInputStream answer = new ByteArrayInputStream(body);
+					int requestId = RemoteProtocol.readVarint(answer);
+					CompletableFuture<byte[]> waiting = this.pending.get(requestId);
+					if (waiting != null) {
+						boolean responded = RemoteProtocol.readByte(answer) == RemoteProtocol.RESPONSE;
+						byte[] response = new byte[answer.available()];
+						answer.read(response, 0, response.length);
+						waiting.complete(responded ? response : null);
+					}
+				}
+				close(new IOException("RemoteBotPool: the bot closed the connection."));
+			}
+			catch (IOException e) {
+				close(e);
+			}
+		}
+		
+		/**
+		 * Fails every request in flight, and every later one, with failure.
+		 */
+		private synchronized void close(IOException failure) {
+			if (this.failure != null) {
+				return;
+			}
+			this.failure = failure;
+			for (CompletableFuture<byte[]> waiting : this.pending.values()) {
+				waiting.completeExceptionally(failure);
+			}
+			this.writer.interrupt();
+			try {
+				this.out.close();
+				if (this.socket != null) {
+					this.socket.close();
+				}
+			}
+			catch (IOException e) {
+			}
+			if (this.process != null) {
+				this.process.destroy();
+			}
+		}
+	}
+}
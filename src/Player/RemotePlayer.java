@@ -0,0 +1,298 @@
+package Player;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+import Map.Country;
+import Map.RiskMap;
+import Response.AdvanceResponse;
+import Response.AttackResponse;
+import Response.CardTurnInResponse;
+import Response.DefendResponse;
+import Response.FortifyResponse;
+import Response.ReinforcementResponse;
+import Util.Card;
+import Util.RiskConstants;
+
+/**
+ * A player whose decisions are made by an external bot, in any language,
+ * reached through a {@link RemoteBotPool} and spoken to in the binary
+ * format of {@link RemoteProtocol}.
+ *
+ * The player opens a session with the bot at its first decision and
+ * closes it when the game releases its players. Each request sends only
+ * what changed since the last: the countries whose owner or armies did,
+ * and the names of players the bot has not been told about. A game asks
+ * its players one decision at a time, each depending on the last, so a
+ * player never has more than one request in flight; it is the players of
+ * concurrent games that share, and pipeline, a connection.
+ *
+ * A bot that answers with something other than a valid response, or not
+ * at all, is treated by the game as any other player would be; a lost
+ * connection makes every later decision fail.
+ */
+public class RemotePlayer implements Player, Closeable {
+	private static final int COUNTRIES = Country.values().length;
+	private static final Country[] COUNTRY_VALUES = Country.values();
+	
+	private final String name;
+	private final RemoteBotPool pool;
+	private RemoteBotPool.Connection connection;
+	private int session = -1;
+	/**
+	 * The board as the bot last saw it; an owner of -2 has never been sent.
+	 */
+	private final int[] sentOwners, sentArmies;
+	private final boolean[] namedPlayers;
+	
+	public RemotePlayer(String nameIn, RemoteBotPool pool) {
+		this.name = nameIn;
+		this.pool = pool;
+		this.sentOwners = new int[COUNTRIES];
+		this.sentArmies = new int[COUNTRIES];
+		this.namedPlayers = new boolean[1 << 8];
+		Arrays.fill(this.sentOwners, -2);
+	}
+	
+	@Override
+	public ReinforcementResponse getInitialAllocation(RiskMap map, int reinforcements) {
+		return readAllocation(ask(RemoteProtocol.INITIAL_ALLOCATION, map, null, null, reinforcements));
+	}
+	
+	@Override
+	public CardTurnInResponse proposeTurnIn(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards, boolean turnInRequired) {
+		InputStream in = ask(RemoteProtocol.TURN_IN, map, myCards, playerCards, turnInRequired ? 1 : 0);
+		if (in == null) {
+			return null;
+		}
+		try {
+			CardTurnInResponse rsp = new CardTurnInResponse();
+			for (int n = RemoteProtocol.readVarint(in); n > 0; n--) {
+				rsp.addCard(readCard(in, myCards));
+			}
+			int bonus = RemoteProtocol.readVarint(in);
+			if (bonus > 0) {
+				rsp.setBonusCountry(COUNTRY_VALUES[checkCountry(bonus - 1)]);
+			}
+			return rsp;
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(this.name + ": malformed response.", e);
+		}
+	}
+	
+	@Override
+	public ReinforcementResponse reinforce(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards, int reinforcements) {
+		return readAllocation(ask(RemoteProtocol.REINFORCE, map, myCards, playerCards, reinforcements));
+	}
+	
+	@Override
+	public AttackResponse attack(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards) {
+		InputStream in = ask(RemoteProtocol.ATTACK, map, myCards, playerCards);
+		if (in == null) {
+			return null;
+		}
+		try {
+			return new AttackResponse(RemoteProtocol.readCountry(in), RemoteProtocol.readCountry(in), RemoteProtocol.readVarint(in));
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(this.name + ": malformed response.", e);
+		}
+	}
+	
+	@Override
+	public AdvanceResponse advance(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards, Country fromCountry, Country toCountry, int min) {
+		InputStream in = ask(RemoteProtocol.ADVANCE, map, myCards, playerCards, fromCountry.ordinal(), toCountry.ordinal(), min);
+		if (in == null) {
+			return null;
+		}
+		try {
+			return new AdvanceResponse(RemoteProtocol.readVarint(in));
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(this.name + ": malformed response.", e);
+		}
+	}
+	
+	@Override
+	public FortifyResponse fortify(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards) {
+		InputStream in = ask(RemoteProtocol.FORTIFY, map, myCards, playerCards);
+		if (in == null) {
+			return null;
+		}
+		try {
+			return new FortifyResponse(RemoteProtocol.readCountry(in), RemoteProtocol.readCountry(in), RemoteProtocol.readVarint(in));
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(this.name + ": malformed response.", e);
+		}
+	}
+	
+	@Override
+	public DefendResponse defend(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards, Country atkCountry, Country dfdCountry, int numAtkDice) {
+		InputStream in = ask(RemoteProtocol.DEFEND, map, myCards, playerCards, atkCountry.ordinal(), dfdCountry.ordinal(), numAtkDice);
+		if (in == null) {
+			return null;
+		}
+		try {
+			return new DefendResponse(RemoteProtocol.readVarint(in));
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(this.name + ": malformed response.", e);
+		}
+	}
+	
+	@Override
+	public String getName() {
+		return this.name;
+	}
+	
+	/**
+	 * Ends the session with the bot; the connection stays in the pool. A
+	 * later decision opens a new session, and sends it the whole board.
+	 */
+	@Override
+	public synchronized void close() {
+		if (this.connection != null) {
+			this.connection.closeSession(this.session);
+			this.connection = null;
+		}
+		Arrays.fill(this.sentOwners, -2);
+		Arrays.fill(this.namedPlayers, false);
+	}
+	
+	/**
+	 * Sends one request, with the state the bot has not seen yet, and waits for the answer.
+	 * @return the response, or null if the bot gave none
+	 */
+	private synchronized InputStream ask(int type, RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards, int... parameters) {
+		try {
+			if (this.connection == null || this.connection.isClosed()) {
+				if (this.connection != null) {
+					throw new IOException(this.name + ": lost the connection to the bot.");
+				}
+				this.connection = this.pool.acquire();
+				//the same game gives the bot the same seed
+				this.session = this.connection.openSession(this.name, this.name.hashCode() * 0x9E3779B97F4A7C15L ^ map.getPositionHash());
+			}
+			ByteArrayOutputStream request = new ByteArrayOutputStream(128);
+			writeState(request, map, myCards, playerCards);
+			for (int parameter : parameters) {
+				RemoteProtocol.writeVarint(request, parameter);
+			}
+			byte[] response = this.connection.call(this.session, type, request.toByteArray());
+			return response == null ? null : new ByteArrayInputStream(response);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(this.name + ": " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Writes the players, board, hand and card counts sections of a request.
+	 */
+	private void writeState(ByteArrayOutputStream out, RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards) throws IOException {
+		ByteArrayOutputStream players = new ByteArrayOutputStream();
+		int newPlayers = 0;
+		newPlayers += namePlayer(players, map, map.getPlayerId(this.name));
+		ByteArrayOutputStream board = new ByteArrayOutputStream(COUNTRIES * 3);
+		int changed = 0;
+		for (Country country : COUNTRY_VALUES) {
+			int i = country.ordinal();
+			int owner = map.getCountryOwnerId(country);
+			int armies = map.getCountryArmies(country);
+			if (owner != this.sentOwners[i] || armies != this.sentArmies[i]) {
+				newPlayers += namePlayer(players, map, (byte) owner);
+				RemoteProtocol.writeVarint(board, i);
+				RemoteProtocol.writeVarint(board, owner + 1);
+				RemoteProtocol.writeVarint(board, armies);
+				this.sentOwners[i] = owner;
+				this.sentArmies[i] = armies;
+				changed++;
+			}
+		}
+		ByteArrayOutputStream cards = new ByteArrayOutputStream();
+		int counts = 0;
+		if (playerCards != null) {
+			for (Map.Entry<String, Integer> entry : playerCards.entrySet()) {
+				byte id = map.getPlayerId(entry.getKey());
+				if (id != RiskMap.NO_OWNER) {
+					newPlayers += namePlayer(players, map, id);
+					RemoteProtocol.writeVarint(cards, id);
+					RemoteProtocol.writeVarint(cards, entry.getValue());
+					counts++;
+				}
+			}
+		}
+		RemoteProtocol.writeVarint(out, newPlayers);
+		players.writeTo(out);
+		RemoteProtocol.writeVarint(out, changed);
+		board.writeTo(out);
+		RemoteProtocol.writeVarint(out, myCards == null ? 0 : myCards.size());
+		if (myCards != null) {
+			for (Card card : myCards) {
+				RemoteProtocol.writeVarint(out, card.getCountry() == null ? RemoteProtocol.WILD : card.getCountry().ordinal());
+			}
+		}
+		RemoteProtocol.writeVarint(out, counts);
+		cards.writeTo(out);
+	}
+	
+	/**
+	 * Names the player to the bot, unless it already has been.
+	 * @return 1 if the player was named, otherwise 0
+	 */
+	private int namePlayer(ByteArrayOutputStream out, RiskMap map, byte playerId) throws IOException {
+		if (playerId == RiskMap.NO_OWNER || this.namedPlayers[playerId & 0xFF]) {
+			return 0;
+		}
+		this.namedPlayers[playerId & 0xFF] = true;
+		RemoteProtocol.writeVarint(out, playerId);
+		RemoteProtocol.writeString(out, map.getPlayerName(playerId));
+		return 1;
+	}
+	
+	private ReinforcementResponse readAllocation(InputStream in) {
+		if (in == null) {
+			return null;
+		}
+		try {
+			ReinforcementResponse rsp = new ReinforcementResponse();
+			for (int n = RemoteProtocol.readVarint(in); n > 0; n--) {
+				rsp.reinforce(RemoteProtocol.readCountry(in), RemoteProtocol.readVarint(in));
+			}
+			return rsp;
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(this.name + ": malformed response.", e);
+		}
+	}
+	
+	/**
+	 * The card of the given code: a country's, or a wild card of the player's hand.
+	 */
+	private Card readCard(InputStream in, Collection<Card> myCards) throws IOException {
+		int code = RemoteProtocol.readVarint(in);
+		if (code == RemoteProtocol.WILD) {
+			for (Card card : myCards) {
+				if (card.getType().equals(RiskConstants.WILD_CARD)) {
+					return card;
+				}
+			}
+			return Card.getDeck().get(COUNTRIES);
+		}
+		return Card.getCard(COUNTRY_VALUES[checkCountry(code)]);
+	}
+	
+	private int checkCountry(int ordinal) throws IOException {
+		if (ordinal >= COUNTRIES) {
+			throw new IOException("RemotePlayer: bad country ordinal " + ordinal + ".");
+		}
+		return ordinal;
+	}
+}
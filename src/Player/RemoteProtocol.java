@@ -0,0 +1,191 @@
+package Player;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import Map.Country;
+
+/**
+ * Wire format between a {@link RemotePlayer} and an external bot process,
+ * in the style of {@link Util.BinaryGameLog}: every number is an unsigned
+ * varint (7 bits a byte, low bits first), countries are their ordinal,
+ * strings are a length and UTF-8 bytes.
+ *
+ * Each message is a frame: its length, then its body. One connection
+ * carries the sessions of many players, of many games, at once, so every
+ * frame the game sends starts with a session number and a message type:
+ *
+ * <pre>
+ * OPEN     session type seed name           starts a session for the named player
+ * CLOSE    session type                     ends it
+ * requests session type requestId state parameters
+ * </pre>
+ *
+ * OPEN and CLOSE are never answered. The state of a request brings the
+ * bot's copy of the game up to date, and is followed by the parameters of
+ * the decision:
+ *
+ * <pre>
+ * players  count, then (playerId, name) for each player not named before
+ * board    count, then (country, owner + 1, armies) for each country changed
+ *          since the session's last request; an owner of 0 means none
+ * hand     count, then the player's cards
+ * cards    count, then (playerId, number of cards) for each player
+ * </pre>
+ *
+ * A card is its country, or {@link #WILD} for a wild card. The parameters
+ * are: reinforcements for INITIAL_ALLOCATION and REINFORCE; 1 if a turn-in
+ * is required, else 0, for TURN_IN; nothing for ATTACK and FORTIFY; the
+ * attacking and defending countries and the minimum, for ADVANCE; and the
+ * attacking and defending countries and the attack dice, for DEFEND.
+ *
+ * Every request is answered, in any order, by a frame holding its
+ * requestId, then 0 for no response (an optional decision declined, or a
+ * bot that cannot decide) or 1 followed by the response:
+ *
+ * <pre>
+ * INITIAL_ALLOCATION, REINFORCE  count, then (country, armies)
+ * TURN_IN                        count, then the cards; bonus country + 1, or 0
+ * ATTACK                         attacking country, defending country, dice
+ * ADVANCE                        armies
+ * FORTIFY                        from country, to country, armies
+ * DEFEND                         dice
+ * </pre>
+ *
+ * The bot decides whether to answer requests in the order they came or
+ * as each is decided; see {@link RandomRemoteBot} for a bot of reference.
+ */
+public class RemoteProtocol {
+	public static final int OPEN = 0;
+	public static final int CLOSE = 1;
+	public static final int INITIAL_ALLOCATION = 2;
+	public static final int TURN_IN = 3;
+	public static final int REINFORCE = 4;
+	public static final int ATTACK = 5;
+	public static final int ADVANCE = 6;
+	public static final int FORTIFY = 7;
+	public static final int DEFEND = 8;
+	
+	public static final int NO_RESPONSE = 0;
+	public static final int RESPONSE = 1;
+	
+	/**
+	 * The code of a wild card, one past the last country.
+	 */
+	public static final int WILD = Country.values().length;
+	/**
+	 * Largest frame either side accepts; a longer one means the stream is corrupt.
+	 */
+	public static final int MAX_FRAME = 1 << 20;
+	
+	private static final Country[] COUNTRIES = Country.values();
+	
+	/**
+	 * Reads the body of the next frame.
+	 * @return the body, or null at the end of the stream
+	 */
+	public static byte[] readFrame(InputStream in) throws IOException {
+		int first = in.read();
+		if (first < 0) {
+			return null;
+		}
+		int length = readVarint(in, first);
+		if (length > MAX_FRAME) {
+			throw new IOException("RemoteProtocol: frame of " + length + " bytes is too long.");
+		}
+		byte[] body = new byte[length];
+		for (int read = 0; read < length; ) {
+			int n = in.read(body, read, length - read);
+			if (n < 0) {
+				throw new EOFException("RemoteProtocol: stream ended inside a frame.");
+			}
+			read += n;
+		}
+		return body;
+	}
+	
+	/**
+	 * Writes body as one frame; the caller flushes.
+	 */
+	public static void writeFrame(OutputStream out, byte[] body) throws IOException {
+		writeVarint(out, body.length);
+		out.write(body);
+	}
+	
+	public static void writeVarint(OutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+	
+	public static void writeVarlong(OutputStream out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+	
+	public static void writeString(OutputStream out, String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		writeVarint(out, bytes.length);
+		out.write(bytes);
+	}
+	
+	public static int readVarint(InputStream in) throws IOException {
+		return readVarint(in, readByte(in));
+	}
+	
+	private static int readVarint(InputStream in, int first) throws IOException {
+		int value = first & 0x7F;
+		int b = first;
+		for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+			if (shift >= 35) {
+				throw new IOException("RemoteProtocol: malformed varint.");
+			}
+			b = readByte(in);
+			value |= (b & 0x7F) << shift;
+		}
+		return value;
+	}
+	
+	public static long readVarlong(InputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			int b = readByte(in);
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("RemoteProtocol: malformed varint.");
+	}
+	
+	public static String readString(InputStream in) throws IOException {
+		byte[] bytes = new byte[readVarint(in)];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) readByte(in);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	public static Country readCountry(InputStream in) throws IOException {
+		int ordinal = readVarint(in);
+		if (ordinal >= COUNTRIES.length) {
+			throw new IOException("RemoteProtocol: bad country ordinal " + ordinal + ".");
+		}
+		return COUNTRIES[ordinal];
+	}
+	
+	public static int readByte(InputStream in) throws IOException {
+		int b = in.read();
+		if (b < 0) {
+			throw new EOFException("RemoteProtocol: message ended early.");
+		}
+		return b;
+	}
+}
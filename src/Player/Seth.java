@@ -3,6 +3,8 @@ package Player;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -23,7 +25,7 @@ import Util.Card;
 import Util.RiskConstants;
 import Util.RiskUtils;
 
-public class Seth implements Player {
+public class Seth implements Player, StandingDefender {
 	protected static final int MIN_SCORE = -9999;
 	protected String name;
 	protected Country lastCountryReinforced;
@@ -76,6 +78,7 @@ public class Seth implements Player {
 	 * Finds a set of cards that can be turned in, or null if none exists.
 	 */
 	protected CardTurnInResponse turnInCards(RiskMap map, Collection<Card> myCards) {
+		byte myId = map.getPlayerId(this.name);
 		Deque<Card> wildCards = new LinkedList<Card>();
 		//find all wilds
 		for (Card card : myCards) {
@@ -93,7 +96,7 @@ public class Seth implements Player {
 		if (cardSet != null) {
 			for (Card card : cardSet) {
 				if (card.getCountry() != null
-					&& map.getCountryOwner(card.getCountry()).equals(this.name)) {
+					&& map.getCountryOwnerId(card.getCountry()) == myId) {
 					rsp.setBonusCountry(card.getCountry());
 				}
 				rsp.addCard(card);
@@ -187,13 +190,14 @@ public class Seth implements Player {
 	 * Reinforces the external boundary countries of all owned continents.
 	 */
 	protected int reinforceOwnedContinents(RiskMap map, ReinforcementResponse rsp, int reinforcements) {
+		byte myId = map.getPlayerId(this.name);
 		int remaining = reinforcements;
 		for (Continent continent : RiskUtils.getPlayerContinents(map, this.name)) {
 			for (Country country : continent.getCountries()) {
 				if (remaining > 0) {
 					int adjacentEnemyArmies = 0;
 					for (Country neighbor : country.getNeighbors()) {
-						if (!map.getCountryOwner(neighbor).equals(this.name)) {
+						if (map.getCountryOwnerId(neighbor) != myId) {
 							adjacentEnemyArmies += map.getCountryArmies(neighbor);
 						}
 					}
@@ -219,13 +223,14 @@ public class Seth implements Player {
 	 * Reinforces countries in or around the target continent, if any.
 	 */
 	protected int reinforceTargetContinent(RiskMap map, ReinforcementResponse rsp, Continent targetContinent, int reinforcements) {
+		byte myId = map.getPlayerId(this.name);
 		int remaining = reinforcements;
 		boolean found = false;
 		do {
 			for (Country currentCountry : targetContinent.getCountries()) {
-				if (map.getCountryOwner(currentCountry).equals(this.name)) {
+				if (map.getCountryOwnerId(currentCountry) == myId) {
 					for (Country neighbor : currentCountry.getNeighbors()) {
-						if (!map.getCountryOwner(neighbor).equals(this.name)) {
+						if (map.getCountryOwnerId(neighbor) != myId) {
 							if (remaining > 0) {
 								remaining -= rsp.reinforce(currentCountry, 1);
 								found = true;
@@ -234,7 +239,7 @@ public class Seth implements Player {
 						else {
 							for (Country nbrNeighbor : neighbor.getNeighbors()) {
 								if (nbrNeighbor.getContinent() == targetContinent
-									&& !map.getCountryOwner(nbrNeighbor).equals(this.name)) {
+									&& map.getCountryOwnerId(nbrNeighbor) != myId) {
 									if (remaining > 0) {
 										remaining -= rsp.reinforce(neighbor, 1);
 										found = true;
@@ -247,7 +252,7 @@ public class Seth implements Player {
 				else {
 					for (Country neighbor : currentCountry.getNeighbors()) {
 						if (neighbor.getContinent() != targetContinent
-							&& map.getCountryOwner(neighbor).equals(this.name)) {
+							&& map.getCountryOwnerId(neighbor) == myId) {
 							if (remaining > 0) {
 								remaining -= rsp.reinforce(neighbor, 1);
 								found = true;
@@ -264,19 +269,20 @@ public class Seth implements Player {
 	 * Reinforces throughout the entire set of owned countries, giving precedence to attainable continents.
 	 */
 	protected int reinforceAll(RiskMap map, ReinforcementResponse rsp, int reinforcements, Map<Continent, Integer> continentAttainability) {
+		byte myId = map.getPlayerId(this.name);
 		int remaining = reinforcements;
 		
 		boolean hopeless = maxScoreContinent(continentAttainability) == null;
 		Set<Country> myCountries = RiskUtils.getPlayerCountries(map, this.name);
 		boolean beginReinforce = !myCountries.contains(this.lastCountryReinforced);
 		
-		Set<Country> reinforceable = new HashSet<Country>();
+		Set<Country> reinforceable = EnumSet.noneOf(Country.class);
 		boolean useSet = false;
 		while (remaining > 0) {
 			for (Country currentCountry : useSet ? reinforceable : myCountries) {
 				if (hopeless || continentAttainability.get(currentCountry.getContinent()) >= 0) {
 					for (Country neighbor : currentCountry.getNeighbors()) {
-						if (!map.getCountryOwner(neighbor).equals(this.name) && remaining > 0) {
+						if (map.getCountryOwnerId(neighbor) != myId && remaining > 0) {
 							if (beginReinforce) {
 								remaining -= rsp.reinforce(currentCountry, 1);
 								this.lastCountryReinforced = currentCountry;
@@ -289,7 +295,7 @@ public class Seth implements Player {
 				}
 				else if (!hopeless) {
 					for (Country neighbor : currentCountry.getNeighbors()) {
-						if (!map.getCountryOwner(neighbor).equals(this.name)
+						if (map.getCountryOwnerId(neighbor) != myId
 							&& continentAttainability.get(neighbor.getContinent()) >= 0
 							&& remaining > 0) {
 							if (beginReinforce) {
@@ -363,6 +369,7 @@ public class Seth implements Player {
 	 * In that case, leave a small portion, determined by the number of armies available.
 	 */
 	public AdvanceResponse advance(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards, Country fromCountry, Country toCountry, int min) {
+		byte myId = map.getPlayerId(this.name);
 		AdvanceResponse rsp = new AdvanceResponse();
 		Continent targetContinent = getTargetContinent(map, 0);
 		int maxAdvance = map.getCountryArmies(fromCountry) - 1;
@@ -370,7 +377,7 @@ public class Seth implements Player {
 		int pastEnemyArmies = 0, futureEnemyArmies = 0;
 		boolean fromBorder = false;
 		for (Country neighbor : fromCountry.getNeighbors()) {
-			if (!map.getCountryOwner(neighbor).equals(this.name)){
+			if (map.getCountryOwnerId(neighbor) != myId){
 				enemyNeighbors++;
 				pastEnemyArmies += map.getCountryArmies(neighbor);
 				if (RiskUtils.areConnected(map, toCountry, neighbor, this.name, false)) {
@@ -389,7 +396,7 @@ public class Seth implements Player {
 		}
 		boolean toInternal = true;
 		for (Country neighbor : toCountry.getNeighbors()) {
-			if (!map.getCountryOwner(neighbor).equals(this.name)) {
+			if (map.getCountryOwnerId(neighbor) != myId) {
 				toInternal = false;
 				if (!fromCountry.getNeighbors().contains(neighbor)) {
 					futureEnemyArmies += map.getCountryArmies(neighbor) + 1;
@@ -463,6 +470,7 @@ public class Seth implements Player {
 	 * Searches all connected country sets for the most effective interior-exterior fortification move.
 	 */
 	protected FortifyResponse fortifyInternalExternal(RiskMap map, Collection<Set<Country>> allConnectedSets, Map<Continent, Integer> continentBaseScores, Continent targetContinent) {
+		byte myId = map.getPlayerId(this.name);
 		Country strongestFrom = null, weakestTo = null;
 		int bestEnemyStr = 0, bestTargetEnemyStr = 0;
 		Country borderFortifyFrom = null, borderFortifyTo = null;
@@ -484,7 +492,7 @@ public class Seth implements Player {
 				//this country might be the external border of an owned continent
 				boolean isOwnedBorder = continentBaseScores.get(currentCountry.getContinent()) == MIN_SCORE;
 				for (Country neighbor : currentCountry.getNeighbors()) {
-					if (!map.getCountryOwner(neighbor).equals(this.name)) {
+					if (map.getCountryOwnerId(neighbor) != myId) {
 						enemyStr += map.getCountryArmies(neighbor);
 						if (neighbor.getContinent() == targetContinent) {
 							enemyForcesInTarget += map.getCountryArmies(neighbor);
@@ -551,6 +559,7 @@ public class Seth implements Player {
 	 * are being brought back into immediate play.
 	 */
 	protected FortifyResponse fortifyExteriorExterior(RiskMap map, Collection<Set<Country>> allConnectedSets, Continent targetContinent) {
+		byte myId = map.getPlayerId(this.name);
 		Country strongestFrom = null, weakestTo = null;
 		int bestEnemyStr = 0, bestTargetEnemyStr = 0;
 		for (Set<Country> connectedSet : allConnectedSets) {
@@ -564,7 +573,7 @@ public class Seth implements Player {
 				int enemyForcesInTarget = 0;
 				int enemyStr = 0;
 				for (Country neighbor : currentCountry.getNeighbors()) {
-					if (!map.getCountryOwner(neighbor).equals(this.name)) {
+					if (map.getCountryOwnerId(neighbor) != myId) {
 						enemyStr += map.getCountryArmies(neighbor);
 						if (neighbor.getContinent() == targetContinent) {
 							enemyForcesInTarget += map.getCountryArmies(neighbor);
@@ -643,7 +652,7 @@ public class Seth implements Player {
 	 * Get attainability scores for all continents.
 	 */
 	protected Map<Continent, Integer> getallAttainabilities(RiskMap map, int additionalArmies) {
-		Map<Continent, Integer> scores = new HashMap<Continent, Integer>();
+		Map<Continent, Integer> scores = new EnumMap<Continent, Integer>(Continent.class);
 		for (Continent continent : Continent.values()) {
 			scores.put(continent, getContinentAttainability(map, continent, additionalArmies));
 		}
@@ -651,6 +660,7 @@ public class Seth implements Player {
 	}
 	
 	protected int getTrueContinentAttainability(RiskMap map, Continent continent, int additionalArmies) {
+		byte myId = map.getPlayerId(this.name);
 		int myCountries = 0;
 		int enemyCountries = 0;
 		int myArmies = additionalArmies;
@@ -659,7 +669,7 @@ public class Seth implements Player {
 		Set<Country> checked = new HashSet<Country>();
 		
 		for (Country country : continent.getCountries()) {
-			if (map.getCountryOwner(country).equals(this.name)) {
+			if (map.getCountryOwnerId(country) == myId) {
 				myCountries++;
 				myArmies += map.getCountryArmies(country);
 			}
@@ -674,7 +684,7 @@ public class Seth implements Player {
 					if (!checked.contains(neighbor)) {
 						checked.add(neighbor);
 						//only add armies, not countries, as the countries are not in the target continent, but the armies could eventually be
-						if (map.getCountryOwner(neighbor).equals(this.name)) {
+						if (map.getCountryOwnerId(neighbor) == myId) {
 							myArmies += map.getCountryArmies(neighbor) - 1;
 						}
 						else {
@@ -698,6 +708,7 @@ public class Seth implements Player {
 	 *     number of armies owned vs un-owned
 	 */
 	protected int getContinentAttainability(RiskMap map, Continent continent, int additionalArmies) {
+		byte myId = map.getPlayerId(this.name);
 		int myCountries = 0;
 		int enemyCountries = 0;
 		int myArmies = additionalArmies;
@@ -707,7 +718,7 @@ public class Seth implements Player {
 		Set<Country> checked = new HashSet<Country>();
 		
 		for (Country country : continent.getCountries()) {
-			if (map.getCountryOwner(country).equals(this.name)) {
+			if (map.getCountryOwnerId(country) == myId) {
 				myCountries++;
 				myArmies += map.getCountryArmies(country);
 			}
@@ -723,7 +734,7 @@ public class Seth implements Player {
 					if (!checked.contains(neighbor)) {
 						checked.add(neighbor);
 						//only add armies, not countries, as the countries are not in the target continent, but the armies could eventually be
-						if (map.getCountryOwner(neighbor).equals(this.name)) {
+						if (map.getCountryOwnerId(neighbor) == myId) {
 							myArmies += map.getCountryArmies(neighbor) - 1;
 						}
 						else {
@@ -751,12 +762,19 @@ public class Seth implements Player {
 	 */
 	public DefendResponse defend(RiskMap map, Collection<Card> myCards, Map<String, Integer> playerCards, Country atkCountry, Country dfdCountry, int numAtkDice) {
 		DefendResponse rsp = new DefendResponse();
-		int numDice = map.getCountryArmies(dfdCountry);
+		rsp.setNumDice(getStandingDefenseDice(map.getCountryArmies(dfdCountry)));
+		return rsp;
+	}
+	
+	/**
+	 * The same choice as defend(), offered to the engine as a standing policy.
+	 */
+	public int getStandingDefenseDice(int dfdArmies) {
+		int numDice = dfdArmies;
 		if (numDice > RiskConstants.MAX_DFD_DICE) {
 			numDice = RiskConstants.MAX_DFD_DICE;
 		}
-		rsp.setNumDice(numDice);
-		return rsp;
+		return numDice;
 	}
 
 	public String getName() {
@@ -799,6 +817,7 @@ class AttackDecider {
 	 *     For example, if useHighestStrengthDiff is set to false, and no other metrics are specified.
 	 */
 	public AttackResponse determineBattleground(RiskMap map) {
+		byte myId = map.getPlayerId(this.playerName);
 		Set<Country> myCountries = RiskUtils.getPlayerCountries(map, this.playerName);
 		AttackResponse rsp = new AttackResponse();
 		Country atkCountry = null, dfdCountry = null, sharedAtk = null, sharedDfd = null;
@@ -815,14 +834,14 @@ class AttackDecider {
 			if (map.getCountryArmies(currentCountry) > 1) {
 				//can attack FROM this country
 				for (Country neighbor : currentCountry.getNeighbors()) {
-					if (!map.getCountryOwner(neighbor).equals(this.playerName)) {
+					if (map.getCountryOwnerId(neighbor) != myId) {
 						//is an ENEMY country
 						boolean skipThisOption = false;
 						boolean needsDistributedAttack = true;
 						int sharedNeighbors = 0;
 						int combinedStrDiff = 0;
 						for (Country nbrNeighbor : neighbor.getNeighbors()) {
-							if (map.getCountryOwner(nbrNeighbor).equals(this.playerName)) {
+							if (map.getCountryOwnerId(nbrNeighbor) == myId) {
 								if (!this.useStrDiffThreshold
 									|| map.getCountryArmies(nbrNeighbor) >= map.getCountryArmies(neighbor) + this.strDiffThresh) {
 									needsDistributedAttack = false;
@@ -841,7 +860,7 @@ class AttackDecider {
 									//if this country is the main attack force's only way into the target continent, defer
 									int numOptions = 0;
 									for (Country mainAtkPathCountry : nbrNeighbor.getNeighbors()) {
-										if (!map.getCountryOwner(mainAtkPathCountry).equals(this.playerName)) {
+										if (map.getCountryOwnerId(mainAtkPathCountry) != myId) {
 											if (!this.useTargetContinent
 												|| mainAtkPathCountry.getContinent() == this.targetContinent) {
 												numOptions++;
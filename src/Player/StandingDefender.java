@@ -0,0 +1,18 @@
+package Player;
+
+/**
+ * Optional interface for players whose defense depends on nothing but the
+ * number of armies in the defended country.
+ *
+ * For such a defender the engine skips the full defend() call-back (and the
+ * map and card copies that go with it) on every roll, including every roll of
+ * a {@link Response.BlitzAttackResponse}, and uses the standing choice instead.
+ */
+public interface StandingDefender {
+	/**
+	 * Number of dice to defend with.
+	 * @param dfdArmies armies currently in the defended country
+	 * @return number of dice; an invalid answer falls back to a regular defend() call
+	 */
+	public int getStandingDefenseDice(int dfdArmies);
+}
@@ -55,7 +55,7 @@ public class AttackResponse {
 			if (rsp.getAtkCountry() != null
 				&& map.getCountryArmies(rsp.getAtkCountry()) > rsp.getNumDice()) {
 				if (rsp.getDfdCountry() != null
-					&& !map.getCountryOwner(rsp.getDfdCountry()).equals(playerName)) {
+					&& !map.isOwnedBy(rsp.getDfdCountry(), map.getPlayerId(playerName))) {
 					return true;
 				}
 				else {
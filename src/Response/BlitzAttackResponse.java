@@ -0,0 +1,42 @@
+package Response;
+import Map.Country;
+import Map.RiskMap;
+
+/**
+ * An attack that the engine keeps rolling on its own, without asking the
+ * attacker again, until the defending country falls or the attacking
+ * country is down to minArmiesRemaining armies.
+ * Each roll uses as many dice as allowed, up to numDice.
+ */
+public class BlitzAttackResponse extends AttackResponse {
+	private int minArmiesRemaining;
+	
+	public BlitzAttackResponse() {
+		super();
+		this.minArmiesRemaining = 1;
+	}
+	
+	public BlitzAttackResponse(Country atk, Country dfd, int numIn, int minArmiesRemaining) {
+		super(atk, dfd, numIn);
+		this.minArmiesRemaining = minArmiesRemaining;
+	}
+	
+	public BlitzAttackResponse(BlitzAttackResponse original) {
+		super(original);
+		this.minArmiesRemaining = original.getMinArmiesRemaining();
+	}
+	
+	public int getMinArmiesRemaining() {
+		return this.minArmiesRemaining;
+	}
+	
+	public void setMinArmiesRemaining(int numIn) {
+		this.minArmiesRemaining = numIn;
+	}
+	
+	public static boolean isValidResponse(BlitzAttackResponse rsp, RiskMap map, String playerName) {
+		return AttackResponse.isValidResponse(rsp, map, playerName)
+				&& rsp.getMinArmiesRemaining() >= 1
+				&& map.getCountryArmies(rsp.getAtkCountry()) > rsp.getMinArmiesRemaining();
+	}
+}
@@ -1,7 +1,6 @@
 package Response;
 import Map.Country;
 import Map.RiskMap;
-import Util.RiskUtils;
 
 public class FortifyResponse {
 	private Country fromCountry;
@@ -51,9 +50,10 @@ public class FortifyResponse {
 				rsp.getNumArmies() < map.getCountryArmies(rsp.getFromCountry())) {
 			Country from = rsp.getFromCountry();
 			Country to = rsp.getToCountry();
-			return map.getCountryOwner(from).equals(playerName)
-					&& map.getCountryOwner(to).equals(playerName)
-					&& RiskUtils.areConnected(map, from, to, playerName, true);
+			byte playerId = map.getPlayerId(playerName);
+			return map.isOwnedBy(from, playerId)
+					&& map.isOwnedBy(to, playerId)
+					&& map.getConnectedComponents(playerId).areConnected(from, to);
 		}
 		else {
 			return false;
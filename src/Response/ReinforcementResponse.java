@@ -1,6 +1,6 @@
 package Response;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map.Entry;
 import java.lang.String;
 
@@ -11,7 +11,7 @@ public class ReinforcementResponse {
 	private Map<Country, Integer> allocation;
 	
 	public ReinforcementResponse() {
-		this.allocation = new HashMap<Country, Integer>();
+		this.allocation = new EnumMap<Country, Integer>(Country.class);
 	}
 	
 	public ReinforcementResponse(Map<Country, Integer> map) {
@@ -19,7 +19,7 @@ public class ReinforcementResponse {
 			this.allocation = map;
 		}
 		else {
-			this.allocation = new HashMap<Country, Integer>();
+			this.allocation = new EnumMap<Country, Integer>(Country.class);
 		}
 	}
 	
@@ -72,8 +72,9 @@ public class ReinforcementResponse {
 	public static boolean isValidResponse(ReinforcementResponse rsp, RiskMap map, String playerName, int reinforcements) {
 		if (rsp != null) {
 			int total = 0;
+			byte playerId = map.getPlayerId(playerName);
 			for (Entry<Country, Integer> entry : rsp.getAllocation().entrySet()) {
-				if (!map.getCountryOwner(entry.getKey()).equals(playerName) || entry.getValue() < 0) {
+				if (!map.isOwnedBy(entry.getKey(), playerId) || entry.getValue() < 0) {
 					return false;
 				}
 				else {
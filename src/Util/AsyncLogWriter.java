@@ -0,0 +1,250 @@
+package Util;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A file Writer that hands its text to a background thread instead of
+ * writing it on the caller's thread.
+ *
+ * Text passes through a bounded ring buffer; the game only blocks if it gets
+ * a whole buffer ahead of the disk. The background thread writes whatever has
+ * queued up in one go and flushes the file every FLUSH_LINES writes, or once
+ * the buffer has been idle for FLUSH_INTERVAL_MS, so a logged game no longer
+ * makes a system call per line.
+ *
+ * {@link #flush()} and {@link #close()} wait until everything written before
+ * them has reached the file. Writers that are still open when the JVM shuts
+ * down are closed, and so drained, by a shutdown hook.
+ */
+public class AsyncLogWriter extends Writer {
+	private static final int BUFFER_CAPACITY = 4096;
+	private static final int FLUSH_LINES = 512;
+	private static final long FLUSH_INTERVAL_MS = 250;
+	private static final Set<AsyncLogWriter> OPEN_WRITERS = ConcurrentHashMap.newKeySet();
+	private static boolean shutdownHookAdded = false;
+	
+	private final String fileName;
+	private final BlockingQueue<Object> buffer;
+	private final Thread writerThread;
+	private volatile IOException failure;
+	private volatile boolean closed;
+	
+	public AsyncLogWriter(String fileName) throws IOException {
+		this.fileName = fileName;
+		this.buffer = new ArrayBlockingQueue<Object>(BUFFER_CAPACITY);
+		final FileWriter out = new FileWriter(fileName);
+		this.writerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				drainInto(out);
+			}
+		}, "Log writer: " + fileName);
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+		addShutdownHook();
+		OPEN_WRITERS.add(this);
+	}
+	
+	@Override
+	public void write(String str) throws IOException {
+		enqueue(str);
+	}
+	
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		enqueue(new String(cbuf, off, len));
+	}
+	
+	/**
+	 * Blocks until everything written so far is in the file.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (!this.closed) {
+			Marker marker = new Marker(false);
+			enqueue(marker);
+			marker.await();
+		}
+		checkFailure();
+	}
+	
+	/**
+	 * Drains the buffer into the file, then closes it. Closing twice does nothing.
+	 * The file and the background thread are let go even after a failed
+	 * write, which is only reported once they have been.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			OPEN_WRITERS.remove(this);
+			Marker marker = new Marker(true);
+			//the background thread keeps taking items after a failure, so this never waits for long
+			boolean interrupted = false;
+			while (true) {
+				try {
+					this.buffer.put(marker);
+					break;
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			marker.await();
+		}
+		checkFailure();
+	}
+	
+	private void enqueue(Object item) throws IOException {
+		checkFailure();
+		if (this.closed) {
+			throw new IOException("AsyncLogWriter: " + this.fileName + " is closed.");
+		}
+		try {
+			this.buffer.put(item);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("AsyncLogWriter: interrupted while writing " + this.fileName + ".", e);
+		}
+	}
+	
+	private void checkFailure() throws IOException {
+		if (this.failure != null) {
+			throw this.failure;
+		}
+	}
+	
+	/**
+	 * Body of the background thread; runs until it takes a closing marker off
+	 * the buffer. After a failed write the rest of the text is dropped, but
+	 * markers are still answered so that no caller is left waiting.
+	 */
+	private void drainInto(FileWriter out) {
+		List<Object> batch = new ArrayList<Object>(BUFFER_CAPACITY);
+		int unflushed = 0;
+		boolean open = true;
+		while (open) {
+			Object first;
+			try {
+				first = this.buffer.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException e) {
+				//only the JVM stopping interrupts this thread; the shutdown hook drains what is left
+				continue;
+			}
+			if (first == null) {
+				if (unflushed > 0) {
+					unflushed = 0;
+					writeOut(out, null, true);
+				}
+				continue;
+			}
+			batch.add(first);
+			this.buffer.drainTo(batch);
+			for (Object item : batch) {
+				if (item instanceof Marker) {
+					Marker marker = (Marker) item;
+					unflushed = 0;
+					if (marker.closing) {
+						open = false;
+						writeOut(out, null, true);
+						try {
+							out.close();
+						}
+						catch (IOException e) {
+							this.failure = e;
+						}
+					}
+					else {
+						writeOut(out, null, true);
+					}
+					marker.done.countDown();
+				}
+				else if (open) {
+					unflushed++;
+					writeOut(out, (String) item, unflushed >= FLUSH_LINES);
+					if (unflushed >= FLUSH_LINES) {
+						unflushed = 0;
+					}
+				}
+			}
+			batch.clear();
+		}
+	}
+	
+	/**
+	 * Writes text (if any) and then flushes (if asked), unless an earlier write has already failed.
+	 */
+	private void writeOut(FileWriter out, String text, boolean flush) {
+		if (this.failure == null) {
+			try {
+				if (text != null) {
+					out.write(text);
+				}
+				if (flush) {
+					out.flush();
+				}
+			}
+			catch (IOException e) {
+				this.failure = e;
+			}
+		}
+	}
+	
+	private static synchronized void addShutdownHook() {
+		if (!shutdownHookAdded) {
+			Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (AsyncLogWriter writer : OPEN_WRITERS) {
+						try {
+							writer.close();
+						}
+						catch (IOException e) {
+						}
+					}
+				}
+			}, "Log writer shutdown"));
+			shutdownHookAdded = true;
+		}
+	}
+	
+	/**
+	 * Queued behind the text to be flushed; the background thread counts it
+	 * down once everything ahead of it is in the file.
+	 */
+	private static class Marker {
+		private final boolean closing;
+		private final CountDownLatch done = new CountDownLatch(1);
+		
+		private Marker(boolean closing) {
+			this.closing = closing;
+		}
+		
+		private void await() throws IOException {
+			try {
+				this.done.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("AsyncLogWriter: interrupted while draining.", e);
+			}
+		}
+	}
+}
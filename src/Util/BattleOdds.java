@@ -0,0 +1,208 @@
+package Util;
+import Map.Country;
+import Map.RiskMap;
+
+/**
+ * Exact odds of a battle fought to the end.
+ *
+ * A battle between A attacking armies (not counting the one that must stay
+ * behind) and D defending armies is a Markov chain: each round the attacker
+ * rolls min(3, A) dice and the defender min(2, D), and the pair of losses
+ * follows one of the fixed 3v2, 3v1, 2v2, ... distributions computed here by
+ * enumerating every roll, with ties going to the defender as in
+ * {@link DiceRoller}. The chain is solved once, bottom up, into dense tables
+ * covering every A and D up to the army cap, so each query is an array read.
+ *
+ * Instances are immutable and safe to share between games and players; most
+ * callers should use {@link #getInstance()}.
+ */
+public class BattleOdds {
+	private static final int DIE_FACES = 6;
+	/**
+	 * ROUND[atkDice][dfdDice][atkLosses]: probability that a single round
+	 * costs the attacker atkLosses armies, the defender losing the rest of
+	 * the min(atkDice, dfdDice) armies at stake.
+	 */
+	private static final double[][][] ROUND = computeRoundOdds();
+	
+	private final int maxArmies;
+	private final int stride;
+	private final double[] winChance;
+	private final double[] atkSurvivors;
+	private final double[] dfdSurvivors;
+	
+	/**
+	 * @param maxArmies largest number of attackers or defenders that may be queried
+	 */
+	public BattleOdds(int maxArmies) {
+		if (maxArmies < 1) {
+			throw new IllegalArgumentException("BattleOdds: the army cap must be at least 1.");
+		}
+		this.maxArmies = maxArmies;
+		this.stride = maxArmies + 1;
+		this.winChance = new double[this.stride * this.stride];
+		this.atkSurvivors = new double[this.stride * this.stride];
+		this.dfdSurvivors = new double[this.stride * this.stride];
+		solve();
+	}
+	
+	/**
+	 * Shared tables covering up to {@link RiskConstants#BATTLE_ODDS_ARMY_CAP} armies a side.
+	 */
+	public static BattleOdds getInstance() {
+		return Holder.INSTANCE;
+	}
+	
+	public int getMaxArmies() {
+		return this.maxArmies;
+	}
+	
+	/**
+	 * Probability that the attackers eliminate every defender.
+	 * @param attackers armies free to attack, ie. excluding the one that stays behind
+	 * @param defenders
+	 */
+	public double getWinProbability(int attackers, int defenders) {
+		return this.winChance[index(attackers, defenders)];
+	}
+	
+	/**
+	 * Expected number of attacking armies left when the battle ends, counting a loss as 0.
+	 */
+	public double getExpectedAttackerSurvivors(int attackers, int defenders) {
+		return this.atkSurvivors[index(attackers, defenders)];
+	}
+	
+	/**
+	 * Expected number of defending armies left when the battle ends, counting a win as 0.
+	 */
+	public double getExpectedDefenderSurvivors(int attackers, int defenders) {
+		return this.dfdSurvivors[index(attackers, defenders)];
+	}
+	
+	/**
+	 * Probability that an all-out attack from one country captures the other, using every army but
+	 * the one that must stay behind. Armies above the cap are counted as the cap.
+	 */
+	public double getWinProbability(RiskMap map, Country from, Country to) {
+		return getWinProbability(Math.min(map.getCountryArmies(from) - 1, this.maxArmies),
+				Math.min(map.getCountryArmies(to), this.maxArmies));
+	}
+	
+	/**
+	 * Probability that a single roll of the given dice costs the attacker exactly atkLosses armies.
+	 */
+	public static double getRoundProbability(int atkDice, int dfdDice, int atkLosses) {
+		if (atkDice < 1 || atkDice > RiskConstants.MAX_ATK_DICE || dfdDice < 1 || dfdDice > RiskConstants.MAX_DFD_DICE) {
+			throw new IllegalArgumentException("BattleOdds: Attacker must use [1,3] dice and Defender must use [1,2] dice.");
+		}
+		if (atkLosses < 0 || atkLosses > Math.min(atkDice, dfdDice)) {
+			return 0.0;
+		}
+		return ROUND[atkDice][dfdDice][atkLosses];
+	}
+	
+	private int index(int attackers, int defenders) {
+		if (attackers < 0 || defenders < 0 || attackers > this.maxArmies || defenders > this.maxArmies) {
+			throw new IllegalArgumentException("BattleOdds: armies must be in [0," + this.maxArmies + "]; got "
+					+ attackers + " vs " + defenders + ".");
+		}
+		return attackers * this.stride + defenders;
+	}
+	
+	/**
+	 * Fills the tables in order of increasing attackers, then defenders; every
+	 * round costs at least one army, so each state only depends on states
+	 * that have already been solved.
+	 */
+	private void solve() {
+		for (int a = 0; a <= this.maxArmies; a++) {
+			for (int d = 0; d <= this.maxArmies; d++) {
+				int idx = a * this.stride + d;
+				if (d == 0) {
+					this.winChance[idx] = a > 0 ? 1.0 : 0.0;
+					this.atkSurvivors[idx] = a;
+				}
+				else if (a == 0) {
+					this.dfdSurvivors[idx] = d;
+				}
+				else {
+					int atkDice = Math.min(a, RiskConstants.MAX_ATK_DICE);
+					int dfdDice = Math.min(d, RiskConstants.MAX_DFD_DICE);
+					int atStake = Math.min(atkDice, dfdDice);
+					double win = 0.0, atk = 0.0, dfd = 0.0;
+					for (int atkLosses = 0; atkLosses <= atStake; atkLosses++) {
+						double p = ROUND[atkDice][dfdDice][atkLosses];
+						int next = (a - atkLosses) * this.stride + d - (atStake - atkLosses);
+						win += p * this.winChance[next];
+						atk += p * this.atkSurvivors[next];
+						dfd += p * this.dfdSurvivors[next];
+					}
+					this.winChance[idx] = win;
+					this.atkSurvivors[idx] = atk;
+					this.dfdSurvivors[idx] = dfd;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Enumerates every roll of every dice combination.
+	 */
+	private static double[][][] computeRoundOdds() {
+		double[][][] odds = new double[RiskConstants.MAX_ATK_DICE + 1][RiskConstants.MAX_DFD_DICE + 1][];
+		for (int atkDice = 1; atkDice <= RiskConstants.MAX_ATK_DICE; atkDice++) {
+			for (int dfdDice = 1; dfdDice <= RiskConstants.MAX_DFD_DICE; dfdDice++) {
+				int atStake = Math.min(atkDice, dfdDice);
+				int numRolls = 1;
+				for (int i = 0; i < atkDice + dfdDice; i++) {
+					numRolls *= DIE_FACES;
+				}
+				long[] counts = new long[atStake + 1];
+				int[] atk = new int[atkDice];
+				int[] dfd = new int[dfdDice];
+				for (int roll = 0; roll < numRolls; roll++) {
+					int code = roll;
+					for (int i = 0; i < atkDice; i++, code /= DIE_FACES) {
+						atk[i] = code % DIE_FACES;
+					}
+					for (int i = 0; i < dfdDice; i++, code /= DIE_FACES) {
+						dfd[i] = code % DIE_FACES;
+					}
+					sortDescending(atk);
+					sortDescending(dfd);
+					int atkLosses = 0;
+					for (int i = 0; i < atStake; i++) {
+						if (atk[i] <= dfd[i]) {
+							atkLosses++;
+						}
+					}
+					counts[atkLosses]++;
+				}
+				odds[atkDice][dfdDice] = new double[atStake + 1];
+				for (int i = 0; i <= atStake; i++) {
+					odds[atkDice][dfdDice][i] = (double) counts[i] / numRolls;
+				}
+			}
+		}
+		return odds;
+	}
+	
+	private static void sortDescending(int[] dice) {
+		for (int i = 1; i < dice.length; i++) {
+			int die = dice[i];
+			int j = i - 1;
+			for (; j >= 0 && dice[j] < die; j--) {
+				dice[j + 1] = dice[j];
+			}
+			dice[j + 1] = die;
+		}
+	}
+	
+	/**
+	 * Builds the shared tables on first use.
+	 */
+	private static class Holder {
+		private static final BattleOdds INSTANCE = new BattleOdds(RiskConstants.BATTLE_ODDS_ARMY_CAP);
+	}
+}
@@ -0,0 +1,252 @@
+package Util;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import Map.Country;
+
+/**
+ * Compact binary form of the game log.
+ *
+ * The file opens with {@link #MAGIC}, a format version and the number of
+ * countries on the board. Each event that follows is one record: a type byte
+ * and then its fields, with every number written as an unsigned varint (7
+ * bits a byte, low bits first), countries as their ordinal, and players as a
+ * small id. A player's id is assigned by a PLAYER record, carrying the name,
+ * the first time the player appears. Lines that are not one of the typed
+ * events are kept as LINE records holding the text itself, so converting a
+ * text log to binary and back gives the original file.
+ *
+ * Attack and loss lines, the bulk of any log, shrink from 40-60 characters to
+ * 3-6 bytes. See {@link BinaryLogReader} for the reading side.
+ */
+public class BinaryGameLog extends GameLog {
+	public static final String FILE_EXTENSION = ".rlog";
+	static final byte[] MAGIC = {'R', 'I', 'S', 'K', 'L', 'O', 'G'};
+	/**
+	 * Version 2 added the ALLOCATION_REQUESTED and ALLOCATION_MADE records,
+	 * which version 1 stored as LINE records.
+	 */
+	static final int VERSION = 2;
+	
+	static final int LINE = 0;
+	static final int PLAYER = 1;
+	static final int ROUND = 2;
+	static final int TURN_START = 3;
+	static final int VICTOR = 4;
+	static final int REINFORCING = 5;
+	static final int PLACEMENT = 6;
+	static final int EVENT_END = 7;
+	static final int ATTACK = 8;
+	static final int LOSSES = 9;
+	static final int TAKEN = 10;
+	static final int ADVANCED = 11;
+	static final int CARD_AWARDED = 12;
+	static final int FORTIFIED = 13;
+	static final int TURNED_IN = 14;
+	static final int ELIMINATED = 15;
+	static final int ALLOCATION_REQUESTED = 16;
+	static final int ALLOCATION_MADE = 17;
+	
+	private OutputStream out;
+	private Map<String, Integer> playerIds;
+	
+	public BinaryGameLog(String fileName) throws IOException {
+		this(new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16));
+	}
+	
+	public BinaryGameLog(OutputStream out) throws IOException {
+		this.out = out;
+		this.playerIds = new HashMap<String, Integer>();
+		this.out.write(MAGIC);
+		writeVarint(VERSION);
+		writeVarint(Country.values().length);
+	}
+	
+	/**
+	 * Lines that match a typed event are stored as that event.
+	 */
+	@Override
+	public void line(String text) {
+		if (!replayEvent(text, this)) {
+			writeByte(LINE);
+			writeString(text);
+		}
+	}
+	
+	@Override
+	protected void release() throws IOException {
+		this.out.close();
+	}
+	
+	@Override
+	public void allocationRequested(String playerName) {
+		int id = playerId(playerName);
+		writeByte(ALLOCATION_REQUESTED);
+		writeVarint(id);
+	}
+	
+	@Override
+	public void allocationMade(String playerName) {
+		int id = playerId(playerName);
+		writeByte(ALLOCATION_MADE);
+		writeVarint(id);
+	}
+	
+	@Override
+	public void round(int round) {
+		writeByte(ROUND);
+		writeVarint(round);
+	}
+	
+	@Override
+	public void turnStart(String playerName) {
+		int id = playerId(playerName);
+		writeByte(TURN_START);
+		writeVarint(id);
+	}
+	
+	@Override
+	public void victor(String playerName) {
+		int id = playerId(playerName);
+		writeByte(VICTOR);
+		writeVarint(id);
+	}
+	
+	@Override
+	public void reinforcing(String playerName, int armies) {
+		int id = playerId(playerName);
+		writeByte(REINFORCING);
+		writeVarint(id);
+		writeVarint(armies);
+	}
+	
+	@Override
+	public void placement(Country country, int armies) {
+		writeByte(PLACEMENT);
+		writeVarint(country.ordinal());
+		writeVarint(armies);
+	}
+	
+	@Override
+	public void eventEnd() {
+		writeByte(EVENT_END);
+	}
+	
+	@Override
+	public void attack(String playerName, Country dfdCountry, int dfdArmies, Country atkCountry, int atkArmies) {
+		int id = playerId(playerName);
+		writeByte(ATTACK);
+		writeVarint(id);
+		writeVarint(dfdCountry.ordinal());
+		writeVarint(dfdArmies);
+		writeVarint(atkCountry.ordinal());
+		writeVarint(atkArmies);
+	}
+	
+	@Override
+	public void losses(int atkLosses, int dfdLosses) {
+		writeByte(LOSSES);
+		writeVarint(atkLosses);
+		writeVarint(dfdLosses);
+	}
+	
+	@Override
+	public void taken(String playerName, Country country, String loserName) {
+		int id = playerId(playerName);
+		int loserId = playerId(loserName);
+		writeByte(TAKEN);
+		writeVarint(id);
+		writeVarint(country.ordinal());
+		writeVarint(loserId);
+	}
+	
+	@Override
+	public void advanced(String playerName, int armies, Country toCountry, Country fromCountry) {
+		int id = playerId(playerName);
+		writeByte(ADVANCED);
+		writeVarint(id);
+		writeVarint(armies);
+		writeVarint(toCountry.ordinal());
+		writeVarint(fromCountry.ordinal());
+	}
+	
+	@Override
+	public void cardAwarded(String playerName) {
+		int id = playerId(playerName);
+		writeByte(CARD_AWARDED);
+		writeVarint(id);
+	}
+	
+	@Override
+	public void fortified(String playerName, int armies, Country fromCountry, Country toCountry) {
+		int id = playerId(playerName);
+		writeByte(FORTIFIED);
+		writeVarint(id);
+		writeVarint(armies);
+		writeVarint(fromCountry.ordinal());
+		writeVarint(toCountry.ordinal());
+	}
+	
+	@Override
+	public void turnedIn(String playerName, int bonus) {
+		int id = playerId(playerName);
+		writeByte(TURNED_IN);
+		writeVarint(id);
+		writeVarint(bonus);
+	}
+	
+	@Override
+	public void eliminated(String playerName, String reason) {
+		int id = playerId(playerName);
+		writeByte(ELIMINATED);
+		writeVarint(id);
+		writeString(reason);
+	}
+	
+	/**
+	 * Id of the named player, writing a PLAYER record first if the name is new.
+	 */
+	private int playerId(String playerName) {
+		Integer id = this.playerIds.get(playerName);
+		if (id == null) {
+			id = this.playerIds.size();
+			this.playerIds.put(playerName, id);
+			writeByte(PLAYER);
+			writeString(playerName);
+		}
+		return id;
+	}
+	
+	private void writeString(String text) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		writeVarint(bytes.length);
+		try {
+			this.out.write(bytes);
+		}
+		catch (IOException e) {
+			fail(e);
+		}
+	}
+	
+	private void writeVarint(int value) {
+		while ((value & ~0x7F) != 0) {
+			writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		writeByte(value);
+	}
+	
+	private void writeByte(int b) {
+		try {
+			this.out.write(b);
+		}
+		catch (IOException e) {
+			fail(e);
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package Util;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import Map.Country;
+
+/**
+ * Reads the records of a {@link BinaryGameLog} back, reporting each one to a
+ * {@link GameLog} as the event that wrote it.
+ */
+public class BinaryLogReader {
+	private InputStream in;
+	private List<String> playerNames;
+	private Country[] countries;
+	
+	public BinaryLogReader(InputStream in) throws IOException {
+		this.in = in;
+		this.playerNames = new ArrayList<String>();
+		this.countries = Country.values();
+		byte[] magic = new byte[BinaryGameLog.MAGIC.length];
+		for (int i = 0; i < magic.length; i++) {
+			magic[i] = (byte) readByte();
+		}
+		if (!Arrays.equals(magic, BinaryGameLog.MAGIC)) {
+			throw new IOException("BinaryLogReader: not a binary game log.");
+		}
+		int version = readVarint();
+		//older versions only lack record types
+		if (version < 1 || version > BinaryGameLog.VERSION) {
+			throw new IOException("BinaryLogReader: unsupported log version " + version + ".");
+		}
+		int numCountries = readVarint();
+		if (numCountries != this.countries.length) {
+			throw new IOException("BinaryLogReader: log was written for a board of " + numCountries + " countries.");
+		}
+	}
+	
+	/**
+	 * Returns true IFF the file starts like a binary game log.
+	 */
+	public static boolean isBinaryLog(File file) {
+		try (InputStream in = new FileInputStream(file)) {
+			byte[] magic = new byte[BinaryGameLog.MAGIC.length];
+			return in.read(magic) == magic.length && Arrays.equals(magic, BinaryGameLog.MAGIC);
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Decodes a whole binary log into the equivalent text log.
+	 */
+	public static String toText(File file) throws IOException {
+		StringWriter text = new StringWriter();
+		try (InputStream in = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+			new BinaryLogReader(in).replayAll(new TextGameLog(text));
+		}
+		return text.toString();
+	}
+	
+	/**
+	 * Reports every remaining record to target.
+	 */
+	public void replayAll(GameLog target) throws IOException {
+		while (replayNext(target)) {
+		}
+	}
+	
+	/**
+	 * Reports the next event to target.
+	 * @return false if the log has ended
+	 */
+	public boolean replayNext(GameLog target) throws IOException {
+		int type = this.in.read();
+		while (type == BinaryGameLog.PLAYER) {
+			this.playerNames.add(readString());
+			type = this.in.read();
+		}
+		switch (type) {
+			case -1:
+				return false;
+			case BinaryGameLog.LINE:
+				target.line(readString());
+				break;
+			case BinaryGameLog.ROUND:
+				target.round(readVarint());
+				break;
+			case BinaryGameLog.TURN_START:
+				target.turnStart(readPlayer());
+				break;
+			case BinaryGameLog.VICTOR:
+				target.victor(readPlayer());
+				break;
+			case BinaryGameLog.REINFORCING:
+				target.reinforcing(readPlayer(), readVarint());
+				break;
+			case BinaryGameLog.PLACEMENT:
+				target.placement(readCountry(), readVarint());
+				break;
+			case BinaryGameLog.EVENT_END:
+				target.eventEnd();
+				break;
+			case BinaryGameLog.ATTACK:
+				target.attack(readPlayer(), readCountry(), readVarint(), readCountry(), readVarint());
+				break;
+			case BinaryGameLog.LOSSES:
+				target.losses(readVarint(), readVarint());
+				break;
+			case BinaryGameLog.TAKEN:
+				target.taken(readPlayer(), readCountry(), readPlayer());
+				break;
+			case BinaryGameLog.ADVANCED:
+				target.advanced(readPlayer(), readVarint(), readCountry(), readCountry());
+				break;
+			case BinaryGameLog.CARD_AWARDED:
+				target.cardAwarded(readPlayer());
+				break;
+			case BinaryGameLog.FORTIFIED:
+				target.fortified(readPlayer(), readVarint(), readCountry(), readCountry());
+				break;
+			case BinaryGameLog.TURNED_IN:
+				target.turnedIn(readPlayer(), readVarint());
+				break;
+			case BinaryGameLog.ELIMINATED:
+				target.eliminated(readPlayer(), readString());
+				break;
+			case BinaryGameLog.ALLOCATION_REQUESTED:
+				target.allocationRequested(readPlayer());
+				break;
+			case BinaryGameLog.ALLOCATION_MADE:
+				target.allocationMade(readPlayer());
+				break;
+			default:
+				throw new IOException("BinaryLogReader: unknown record type " + type + ".");
+		}
+		return true;
+	}
+	
+	private String readPlayer() throws IOException {
+		int id = readVarint();
+		if (id >= this.playerNames.size()) {
+			throw new IOException("BinaryLogReader: undefined player id " + id + ".");
+		}
+		return this.playerNames.get(id);
+	}
+	
+	private Country readCountry() throws IOException {
+		int ordinal = readVarint();
+		if (ordinal >= this.countries.length) {
+			throw new IOException("BinaryLogReader: bad country ordinal " + ordinal + ".");
+		}
+		return this.countries[ordinal];
+	}
+	
+	private String readString() throws IOException {
+		byte[] bytes = new byte[readVarint()];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) readByte();
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	private int readVarint() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("BinaryLogReader: malformed varint.");
+	}
+	
+	private int readByte() throws IOException {
+		int b = this.in.read();
+		if (b < 0) {
+			throw new EOFException("BinaryLogReader: log ends mid-record.");
+		}
+		return b;
+	}
+}
@@ -1,13 +1,36 @@
 package Util;
 import java.lang.IllegalArgumentException;
 import java.lang.String;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 import Map.Country;
 
-public class Card {
-	private Country country;
-	private String type;
+/**
+ * A card of the deck. Cards are immutable, so the game deals the same 44
+ * shared instances (one per country, plus the wilds) over and over, and a
+ * hand can be handed out as a read-only view instead of being copied card
+ * by card.
+ */
+public final class Card {
+	private static final Card[] COUNTRY_CARDS = new Card[Country.values().length];
+	private static final List<Card> DECK;
+	static {
+		List<Card> deck = new ArrayList<Card>();
+		for (Country country : Country.values()) {
+			COUNTRY_CARDS[country.ordinal()] = new Card(RiskConstants.REG_CARD_TYPES[country.ordinal() % RiskConstants.REG_CARD_TYPES.length], country);
+			deck.add(COUNTRY_CARDS[country.ordinal()]);
+		}
+		for (int i = 0; i < RiskConstants.NUM_WILD_CARDS; i++) {
+			deck.add(new Card(RiskConstants.WILD_CARD, null));
+		}
+		DECK = Collections.unmodifiableList(deck);
+	}
+	
+	private final Country country;
+	private final String type;
 	
 	public Card(String typeIn, Country countryIn) throws IllegalArgumentException {
 		if (typeIn == null) {
@@ -18,11 +41,39 @@ public class Card {
 			if (countryIn == null) {
 				throw new IllegalArgumentException("Card.Card: Non-wild type cards require a country specification.");
 			}
-			this.country = countryIn;
 		}
+		this.country = typeIn.equals(RiskConstants.WILD_CARD) ? null : countryIn;
 		this.type = typeIn;
 	}
 	
+	/**
+	 * Every card of an unshuffled deck, in order: one per country, then the wilds.
+	 */
+	public static List<Card> getDeck() {
+		return DECK;
+	}
+	
+	/**
+	 * The shared card of the given country.
+	 */
+	public static Card getCard(Country country) {
+		return COUNTRY_CARDS[country.ordinal()];
+	}
+	
+	/**
+	 * The shared card with the given type and country, if the deck has
+	 * one; otherwise a new card, as the constructor would make.
+	 */
+	public static Card valueOf(String type, Country country) {
+		if (RiskConstants.WILD_CARD.equals(type)) {
+			return DECK.get(COUNTRY_CARDS.length);
+		}
+		if (country != null && COUNTRY_CARDS[country.ordinal()].type.equals(type)) {
+			return COUNTRY_CARDS[country.ordinal()];
+		}
+		return new Card(type, country);
+	}
+	
 	public String getType() {
 		return this.type;
 	}
@@ -38,6 +89,11 @@ public class Card {
 				|| (this.type.equals(RiskConstants.WILD_CARD) && this.type.equals(other.getType()));
 	}
 	
+	@Override
+	public int hashCode() {
+		return this.country != null ? this.country.ordinal() : this.type.hashCode();
+	}
+	
 	public String toString() {
 		return "[Type: " + this.type + "; Country: " + this.country + "]";
 	}
@@ -0,0 +1,263 @@
+package Util;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands items published on one thread to any number of subscribers, each
+ * on a thread of its own, without the publisher ever waiting for one.
+ *
+ * Subscribers follow the protocol of java.util.concurrent.Flow, which this
+ * code base cannot use while it still builds for Java 8: a subscriber is
+ * given a {@link Subscription}, asks for as many items as it is ready for,
+ * and is then sent at most that many, one call at a time.
+ *
+ * Every subscription buffers what its subscriber has not yet taken, up to a
+ * fixed capacity. A coalescing subscription keeps only the latest item
+ * published under each key, in the place of the first one still waiting, so
+ * a subscriber that only needs the current state -- the latest army count of
+ * each country, say -- never falls more than one change per key behind. Once
+ * a buffer is full, the oldest item waiting in it is dropped and counted.
+ * Either way, a slow subscriber costs the publisher nothing but the time to
+ * buffer the item.
+ *
+ * @param <T> type of the items
+ */
+public class CoalescingPublisher<T> {
+	/**
+	 * Receives the items of one subscription, as Flow.Subscriber does.
+	 */
+	public interface Subscriber<T> {
+		void onSubscribe(Subscription subscription);
+		
+		void onNext(T item);
+		
+		/**
+		 * Called, instead of any more items, if onNext threw.
+		 */
+		void onError(Throwable failure);
+		
+		/**
+		 * Called once the publisher is closed and every buffered item has been delivered.
+		 */
+		void onComplete();
+	}
+	
+	/**
+	 * A subscriber's side of a subscription, as Flow.Subscription is.
+	 */
+	public interface Subscription {
+		/**
+		 * Asks for n more items; they are sent as they become available.
+		 */
+		void request(long n);
+		
+		/**
+		 * Stops the items; some may still be sent while the cancellation takes effect.
+		 */
+		void cancel();
+		
+		/**
+		 * Number of items dropped so far because the buffer was full.
+		 */
+		long getDropped();
+	}
+	
+	private final Executor executor;
+	private final List<Buffer> subscriptions;
+	private volatile boolean closed;
+	
+	/**
+	 * @param executor runs the deliveries to every subscriber; each subscription uses at most one of its threads at a time
+	 */
+	public CoalescingPublisher(Executor executor) {
+		this.executor = executor;
+		this.subscriptions = new CopyOnWriteArrayList<Buffer>();
+	}
+	
+	/**
+	 * Subscribes subscriber, whose onSubscribe is called before this returns.
+	 * @param capacity most items to buffer for it
+	 * @param coalescing true to keep only the latest item published under each key
+	 */
+	public void subscribe(Subscriber<? super T> subscriber, int capacity, boolean coalescing) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("CoalescingPublisher: capacity must be positive.");
+		}
+		Buffer subscription = new Buffer(subscriber, capacity, coalescing);
+		this.subscriptions.add(subscription);
+		subscriber.onSubscribe(subscription);
+		if (this.closed) {
+			subscription.schedule();
+		}
+	}
+	
+	/**
+	 * Offers item to every subscriber. Never blocks, and costs next to
+	 * nothing when there are no subscribers.
+	 * @param key what the item is about, for the coalescing subscriptions; null if it never replaces another
+	 */
+	public void publish(Object key, T item) {
+		if (this.closed) {
+			throw new IllegalStateException("CoalescingPublisher: already closed.");
+		}
+		for (Buffer subscription : this.subscriptions) {
+			subscription.offer(key, item);
+		}
+	}
+	
+	public boolean hasSubscribers() {
+		return !this.subscriptions.isEmpty();
+	}
+	
+	/**
+	 * Completes every subscription once its buffered items have been delivered.
+	 */
+	public void close() {
+		this.closed = true;
+		for (Buffer subscription : this.subscriptions) {
+			subscription.schedule();
+		}
+	}
+	
+	/**
+	 * One subscription: its buffer, its outstanding demand, and the
+	 * delivery task that drains the one into the subscriber.
+	 */
+	private class Buffer implements Subscription, Runnable {
+		private final Subscriber<? super T> subscriber;
+		private final int capacity;
+		private final boolean coalescing;
+		/**
+		 * Items waiting, in the order they were first published; an item that
+		 * never coalesces is stored under a key of its own.
+		 */
+		private final Map<Object, T> items;
+		private final AtomicBoolean scheduled;
+		private long demand, dropped;
+		private volatile boolean cancelled;
+		private boolean completed;
+		
+		private Buffer(Subscriber<? super T> subscriber, int capacity, boolean coalescing) {
+			this.subscriber = subscriber;
+			this.capacity = capacity;
+			this.coalescing = coalescing;
+			this.items = new LinkedHashMap<Object, T>();
+			this.scheduled = new AtomicBoolean();
+		}
+		
+		private void offer(Object key, T item) {
+			boolean ready;
+			synchronized (this) {
+				if (!this.coalescing || key == null) {
+					key = new Object();
+				}
+				if (!this.items.containsKey(key) && this.items.size() >= this.capacity) {
+					Iterator<Object> oldest = this.items.keySet().iterator();
+					oldest.next();
+					oldest.remove();
+					this.dropped++;
+				}
+				this.items.put(key, item);
+				ready = this.demand > 0;
+			}
+			if (ready) {
+				schedule();
+			}
+		}
+		
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				cancel();
+				this.subscriber.onError(new IllegalArgumentException("CoalescingPublisher: request must be positive."));
+				return;
+			}
+			synchronized (this) {
+				//saturates, as Flow allows, rather than overflowing
+				this.demand = this.demand + n < 0 ? Long.MAX_VALUE : this.demand + n;
+			}
+			schedule();
+		}
+		
+		@Override
+		public void cancel() {
+			this.cancelled = true;
+			CoalescingPublisher.this.subscriptions.remove(this);
+			synchronized (this) {
+				this.items.clear();
+			}
+		}
+		
+		@Override
+		public synchronized long getDropped() {
+			return this.dropped;
+		}
+		
+		private void schedule() {
+			if (!this.cancelled && this.scheduled.compareAndSet(false, true)) {
+				CoalescingPublisher.this.executor.execute(this);
+			}
+		}
+		
+		/**
+		 * Delivers while there are both items and demand. Only one delivery
+		 * runs at a time; one that finds more work arrived just as it
+		 * finished schedules itself again.
+		 */
+		@Override
+		public void run() {
+			try {
+				T next;
+				while (!this.cancelled && (next = take()) != null) {
+					this.subscriber.onNext(next);
+				}
+				if (!this.cancelled && isFinished()) {
+					this.subscriber.onComplete();
+				}
+			}
+			catch (Throwable failure) {
+				cancel();
+				this.subscriber.onError(failure);
+			}
+			finally {
+				this.scheduled.set(false);
+			}
+			if (hasWork()) {
+				schedule();
+			}
+		}
+		
+		private synchronized T take() {
+			if (this.demand == 0 || this.items.isEmpty()) {
+				return null;
+			}
+			Iterator<T> first = this.items.values().iterator();
+			T item = first.next();
+			first.remove();
+			this.demand--;
+			return item;
+		}
+		
+		/**
+		 * Returns true IFF the subscriber is owed onComplete now; it is only ever owed it once.
+		 */
+		private synchronized boolean isFinished() {
+			if (CoalescingPublisher.this.closed && this.items.isEmpty() && !this.completed) {
+				this.completed = true;
+				CoalescingPublisher.this.subscriptions.remove(this);
+				return true;
+			}
+			return false;
+		}
+		
+		private synchronized boolean hasWork() {
+			return !this.cancelled && ((this.demand > 0 && !this.items.isEmpty())
+					|| (CoalescingPublisher.this.closed && this.items.isEmpty() && !this.completed));
+		}
+	}
+}
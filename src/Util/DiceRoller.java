@@ -1,16 +1,30 @@
 package Util;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class DiceRoller {
-	private static Random rand = new Random(RiskConstants.SEED);
+	private SplittableRandom rand;
+	private final int[] atk = new int[3];
+	private final int[] dfd = new int[2];
 	
-	public static RollOutcome roll(int atkDice, int dfdDice) {
+	public DiceRoller(SplittableRandom rand) {
+		this.rand = rand;
+	}
+	
+	/**
+	 * Rolls from rand from now on, as when a reused game starts over.
+	 */
+	public void setRandom(SplittableRandom rand) {
+		this.rand = rand;
+	}
+	
+	public RollOutcome roll(int atkDice, int dfdDice) {
 		if (atkDice < 1 || atkDice > 3 || dfdDice < 1 || dfdDice > 2) {
 			throw new IllegalArgumentException("DiceRoller.roll: Attacker must use [1,3] dice and Defender must use [1,2] dice.");
 		}
 		else {
-			int[] atk = new int[atkDice];
-			int[] dfd = new int[dfdDice];
+			//sorted in place in scratch arrays, which is why a roller must not be shared between threads
+			int[] atk = this.atk;
+			int[] dfd = this.dfd;
 			int i, j, roll;
 			//attack rolls
 			for (i = 0; i < atkDice; i++) {
@@ -0,0 +1,520 @@
+package Util;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import Map.Country;
+
+/**
+ * Destination of a game's event log.
+ *
+ * The game masters report the common events through the typed methods, and
+ * anything else as a plain line. The typed methods default to writing the
+ * English line that LOG.txt has always contained, so a text log only needs
+ * to implement {@link #line(String)}; a compact log such as
+ * {@link BinaryGameLog} overrides them to record the event's fields instead.
+ *
+ * {@link #replay(String, GameLog)} is the inverse of the default formatting:
+ * it recognizes a line written by one of the typed methods and reports the
+ * same event to another log, which is how text logs are converted.
+ *
+ * A game reports its events to a single log; {@link #of(Collection)} fans
+ * them out to any number of sinks. A sink that cares about only a few events,
+ * such as the statistics, extends {@link Listener}, which ignores the rest
+ * without formatting them.
+ */
+public abstract class GameLog {
+	public static final String EVENT_DELIM = "...";
+	
+	private static final Pattern ROUND = Pattern.compile("Beginning Round (\\d+)!");
+	private static final Pattern TURN_START = Pattern.compile("(.+) is starting their turn\\.");
+	private static final Pattern VICTOR = Pattern.compile("(.+) is the victor!");
+	private static final Pattern REINFORCING = Pattern.compile("(.+) reinforcing with (\\d+) armies\\.");
+	private static final Pattern PLACEMENT = Pattern.compile("(\\d+) (.+)");
+	private static final Pattern ATTACK = Pattern.compile("(.+) is attacking (.+)\\((\\d+)\\) from (.+)\\((\\d+)\\)!");
+	private static final Pattern LOSSES = Pattern.compile("\tAttacker lost: (\\d+); Defender lost: (\\d+)");
+	private static final Pattern TAKEN = Pattern.compile("(.+) has taken (.+) from (.+)!");
+	private static final Pattern ADVANCED = Pattern.compile("(.+) advanced (\\d+) into (.+) from (.+)\\.");
+	private static final Pattern CARD_AWARDED = Pattern.compile("Awarding (.+) one card\\.");
+	private static final Pattern FORTIFY = Pattern.compile("(.+) is transferring (\\d+) from (.+) to (.+)\\.");
+	private static final Pattern TURN_IN = Pattern.compile("(.+) turned in cards for (\\d+) additional reinforcements!");
+	private static final Pattern ELIMINATED = Pattern.compile("(.+?) Eliminated! (.*)");
+	private static final Pattern ALLOCATION_REQUESTED = Pattern.compile("Getting initial troop allocation from (.+)\\.\\.\\.");
+	private static final Pattern ALLOCATION_MADE = Pattern.compile("Troops successfully allocated for (.+)\\.\\.\\.");
+	private static final Map<String, Country> COUNTRIES_BY_NAME = new HashMap<String, Country>();
+	static {
+		for (Country country : Country.values()) {
+			COUNTRIES_BY_NAME.put(country.getName(), country);
+		}
+	}
+	
+	/**
+	 * A log that discards everything; the typed events cost nothing to report to it.
+	 */
+	public static final GameLog NONE = new Listener() {
+	};
+	
+	private IOException failure;
+	
+	/**
+	 * Writes one line of free-form text. Like PrintWriter, a log never throws
+	 * from its writes; the first error is kept and reported by {@link #close()}.
+	 */
+	public abstract void line(String text);
+	
+	/**
+	 * Releases the log's file once everything has been written.
+	 */
+	protected abstract void release() throws IOException;
+	
+	/**
+	 * Writes everything still buffered and releases the log's file.
+	 * @throws IOException the first error met while writing or closing the log
+	 */
+	public void close() throws IOException {
+		try {
+			release();
+		}
+		catch (IOException e) {
+			fail(e);
+		}
+		if (this.failure != null) {
+			throw this.failure;
+		}
+	}
+	
+	/**
+	 * Records a write error, to be reported by {@link #close()}.
+	 */
+	protected void fail(IOException e) {
+		if (this.failure == null) {
+			this.failure = e;
+		}
+	}
+	
+	/**
+	 * Returns true IFF a write to this log has failed.
+	 */
+	public boolean checkError() {
+		return this.failure != null;
+	}
+	
+	public void allocationRequested(String playerName) {
+		line("Getting initial troop allocation from " + playerName + "...");
+	}
+	
+	public void allocationMade(String playerName) {
+		line("Troops successfully allocated for " + playerName + "...");
+	}
+	
+	public void round(int round) {
+		line("Beginning Round " + round + "!");
+	}
+	
+	public void turnStart(String playerName) {
+		line(playerName + " is starting their turn.");
+	}
+	
+	public void victor(String playerName) {
+		line(playerName + " is the victor!");
+	}
+	
+	/**
+	 * Opens a reinforcement event; it is followed by one {@link #placement} per country and closed by {@link #eventEnd()}.
+	 */
+	public void reinforcing(String playerName, int armies) {
+		line(playerName + " reinforcing with " + armies + " armies.");
+	}
+	
+	public void placement(Country country, int armies) {
+		line(armies + " " + country.getName());
+	}
+	
+	public void eventEnd() {
+		line(EVENT_DELIM);
+	}
+	
+	public void attack(String playerName, Country dfdCountry, int dfdArmies, Country atkCountry, int atkArmies) {
+		line(playerName + " is attacking " + dfdCountry + "(" + dfdArmies + ") from " + atkCountry + "(" + atkArmies + ")!");
+	}
+	
+	public void losses(int atkLosses, int dfdLosses) {
+		line("\tAttacker lost: " + atkLosses + "; Defender lost: " + dfdLosses);
+	}
+	
+	public void taken(String playerName, Country country, String loserName) {
+		line(playerName + " has taken " + country + " from " + loserName + "!");
+	}
+	
+	public void advanced(String playerName, int armies, Country toCountry, Country fromCountry) {
+		line(playerName + " advanced " + armies + " into " + toCountry + " from " + fromCountry + ".");
+	}
+	
+	public void cardAwarded(String playerName) {
+		line("Awarding " + playerName + " one card.");
+	}
+	
+	public void fortified(String playerName, int armies, Country fromCountry, Country toCountry) {
+		line(playerName + " is transferring " + armies + " from " + fromCountry + " to " + toCountry + ".");
+	}
+	
+	public void turnedIn(String playerName, int bonus) {
+		line(playerName + " turned in cards for " + bonus + " additional reinforcements!");
+	}
+	
+	public void eliminated(String playerName, String reason) {
+		line(playerName + " Eliminated! " + reason);
+	}
+	
+	/**
+	 * Reports a line of a text log to target as the typed event that would
+	 * have written it, or as a plain line if it matches no event exactly.
+	 */
+	public static void replay(String text, GameLog target) {
+		if (!replayEvent(text, target)) {
+			target.line(text);
+		}
+	}
+	
+	/**
+	 * Reports text to target as a typed event, if it is one.
+	 * @return false, without touching target, if text matches no event exactly
+	 */
+	static boolean replayEvent(String text, GameLog target) {
+		Matcher m;
+		if (text.equals(EVENT_DELIM)) {
+			target.eventEnd();
+		}
+		else if ((m = ATTACK.matcher(text)).matches() && isCountry(m.group(2)) && isCountry(m.group(4)) && isCount(m.group(3), m.group(5))) {
+			target.attack(m.group(1), country(m.group(2)), count(m.group(3)), country(m.group(4)), count(m.group(5)));
+		}
+		else if ((m = LOSSES.matcher(text)).matches() && isCount(m.group(1), m.group(2))) {
+			target.losses(count(m.group(1)), count(m.group(2)));
+		}
+		else if ((m = PLACEMENT.matcher(text)).matches() && isCountry(m.group(2)) && isCount(m.group(1))) {
+			target.placement(country(m.group(2)), count(m.group(1)));
+		}
+		else if ((m = ROUND.matcher(text)).matches() && isCount(m.group(1))) {
+			target.round(count(m.group(1)));
+		}
+		else if ((m = REINFORCING.matcher(text)).matches() && isCount(m.group(2))) {
+			target.reinforcing(m.group(1), count(m.group(2)));
+		}
+		else if ((m = TAKEN.matcher(text)).matches() && isCountry(m.group(2))) {
+			target.taken(m.group(1), country(m.group(2)), m.group(3));
+		}
+		else if ((m = ADVANCED.matcher(text)).matches() && isCountry(m.group(3)) && isCountry(m.group(4)) && isCount(m.group(2))) {
+			target.advanced(m.group(1), count(m.group(2)), country(m.group(3)), country(m.group(4)));
+		}
+		else if ((m = FORTIFY.matcher(text)).matches() && isCountry(m.group(3)) && isCountry(m.group(4)) && isCount(m.group(2))) {
+			target.fortified(m.group(1), count(m.group(2)), country(m.group(3)), country(m.group(4)));
+		}
+		else if ((m = TURN_START.matcher(text)).matches()) {
+			target.turnStart(m.group(1));
+		}
+		else if ((m = CARD_AWARDED.matcher(text)).matches()) {
+			target.cardAwarded(m.group(1));
+		}
+		else if ((m = TURN_IN.matcher(text)).matches() && isCount(m.group(2))) {
+			target.turnedIn(m.group(1), count(m.group(2)));
+		}
+		else if ((m = ELIMINATED.matcher(text)).matches()) {
+			target.eliminated(m.group(1), m.group(2));
+		}
+		else if ((m = VICTOR.matcher(text)).matches()) {
+			target.victor(m.group(1));
+		}
+		else if ((m = ALLOCATION_REQUESTED.matcher(text)).matches()) {
+			target.allocationRequested(m.group(1));
+		}
+		else if ((m = ALLOCATION_MADE.matcher(text)).matches()) {
+			target.allocationMade(m.group(1));
+		}
+		else {
+			return false;
+		}
+		return true;
+	}
+	
+	private static boolean isCountry(String name) {
+		return COUNTRIES_BY_NAME.containsKey(name);
+	}
+	
+	private static Country country(String name) {
+		return COUNTRIES_BY_NAME.get(name);
+	}
+	
+	/**
+	 * True IFF every string is a count that formats back to itself, so the replayed line is identical.
+	 */
+	private static boolean isCount(String... counts) {
+		for (String count : counts) {
+			if (count.length() > 9 || (count.length() > 1 && count.charAt(0) == '0')) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static int count(String count) {
+		return Integer.parseInt(count);
+	}
+	
+	/**
+	 * Returns one log that reports every event to each of sinks, in order.
+	 * With no sinks other than {@link #NONE} this is NONE, and with only one
+	 * it is that sink, so a game pays for no more than it has attached.
+	 */
+	public static GameLog of(Collection<? extends GameLog> sinks) {
+		List<GameLog> attached = new ArrayList<GameLog>(sinks.size());
+		for (GameLog sink : sinks) {
+			if (sink != NONE) {
+				attached.add(sink);
+			}
+		}
+		if (attached.isEmpty()) {
+			return NONE;
+		}
+		if (attached.size() == 1) {
+			return attached.get(0);
+		}
+		return new Broadcast(attached.toArray(new GameLog[attached.size()]));
+	}
+	
+	/**
+	 * A sink that ignores every event, and every line, it does not override.
+	 */
+	public abstract static class Listener extends GameLog {
+		@Override
+		public void line(String text) {
+		}
+		
+		@Override
+		public void allocationRequested(String playerName) {
+		}
+		
+		@Override
+		public void allocationMade(String playerName) {
+		}
+		
+		@Override
+		public void round(int round) {
+		}
+		
+		@Override
+		public void turnStart(String playerName) {
+		}
+		
+		@Override
+		public void victor(String playerName) {
+		}
+		
+		@Override
+		public void reinforcing(String playerName, int armies) {
+		}
+		
+		@Override
+		public void placement(Country country, int armies) {
+		}
+		
+		@Override
+		public void eventEnd() {
+		}
+		
+		@Override
+		public void attack(String playerName, Country dfdCountry, int dfdArmies, Country atkCountry, int atkArmies) {
+		}
+		
+		@Override
+		public void losses(int atkLosses, int dfdLosses) {
+		}
+		
+		@Override
+		public void taken(String playerName, Country country, String loserName) {
+		}
+		
+		@Override
+		public void advanced(String playerName, int armies, Country toCountry, Country fromCountry) {
+		}
+		
+		@Override
+		public void cardAwarded(String playerName) {
+		}
+		
+		@Override
+		public void fortified(String playerName, int armies, Country fromCountry, Country toCountry) {
+		}
+		
+		@Override
+		public void turnedIn(String playerName, int bonus) {
+		}
+		
+		@Override
+		public void eliminated(String playerName, String reason) {
+		}
+		
+		@Override
+		protected void release() throws IOException {
+		}
+	}
+	
+	/**
+	 * Hands every event, still typed, to each of several sinks.
+	 */
+	private static final class Broadcast extends GameLog {
+		private final GameLog[] sinks;
+		
+		private Broadcast(GameLog[] sinks) {
+			this.sinks = sinks;
+		}
+		
+		@Override
+		public void line(String text) {
+			for (GameLog sink : this.sinks) {
+				sink.line(text);
+			}
+		}
+		
+		@Override
+		public void allocationRequested(String playerName) {
+			for (GameLog sink : this.sinks) {
+				sink.allocationRequested(playerName);
+			}
+		}
+		
+		@Override
+		public void allocationMade(String playerName) {
+			for (GameLog sink : this.sinks) {
+				sink.allocationMade(playerName);
+			}
+		}
+		
+		@Override
+		public void round(int round) {
+			for (GameLog sink : this.sinks) {
+				sink.round(round);
+			}
+		}
+		
+		@Override
+		public void turnStart(String playerName) {
+			for (GameLog sink : this.sinks) {
+				sink.turnStart(playerName);
+			}
+		}
+		
+		@Override
+		public void victor(String playerName) {
+			for (GameLog sink : this.sinks) {
+				sink.victor(playerName);
+			}
+		}
+		
+		@Override
+		public void reinforcing(String playerName, int armies) {
+			for (GameLog sink : this.sinks) {
+				sink.reinforcing(playerName, armies);
+			}
+		}
+		
+		@Override
+		public void placement(Country country, int armies) {
+			for (GameLog sink : this.sinks) {
+				sink.placement(country, armies);
+			}
+		}
+		
+		@Override
+		public void eventEnd() {
+			for (GameLog sink : this.sinks) {
+				sink.eventEnd();
+			}
+		}
+		
+		@Override
+		public void attack(String playerName, Country dfdCountry, int dfdArmies, Country atkCountry, int atkArmies) {
+			for (GameLog sink : this.sinks) {
+				sink.attack(playerName, dfdCountry, dfdArmies, atkCountry, atkArmies);
+			}
+		}
+		
+		@Override
+		public void losses(int atkLosses, int dfdLosses) {
+			for (GameLog sink : this.sinks) {
+				sink.losses(atkLosses, dfdLosses);
+			}
+		}
+		
+		@Override
+		public void taken(String playerName, Country country, String loserName) {
+			for (GameLog sink : this.sinks) {
+				sink.taken(playerName, country, loserName);
+			}
+		}
+		
+		@Override
+		public void advanced(String playerName, int armies, Country toCountry, Country fromCountry) {
+			for (GameLog sink : this.sinks) {
+				sink.advanced(playerName, armies, toCountry, fromCountry);
+			}
+		}
+		
+		@Override
+		public void cardAwarded(String playerName) {
+			for (GameLog sink : this.sinks) {
+				sink.cardAwarded(playerName);
+			}
+		}
+		
+		@Override
+		public void fortified(String playerName, int armies, Country fromCountry, Country toCountry) {
+			for (GameLog sink : this.sinks) {
+				sink.fortified(playerName, armies, fromCountry, toCountry);
+			}
+		}
+		
+		@Override
+		public void turnedIn(String playerName, int bonus) {
+			for (GameLog sink : this.sinks) {
+				sink.turnedIn(playerName, bonus);
+			}
+		}
+		
+		@Override
+		public void eliminated(String playerName, String reason) {
+			for (GameLog sink : this.sinks) {
+				sink.eliminated(playerName, reason);
+			}
+		}
+		
+		@Override
+		public boolean checkError() {
+			for (GameLog sink : this.sinks) {
+				if (sink.checkError()) {
+					return true;
+				}
+			}
+			return super.checkError();
+		}
+		
+		/**
+		 * Closes every sink, even after one fails; the first failure is reported.
+		 */
+		@Override
+		protected void release() {
+			for (GameLog sink : this.sinks) {
+				try {
+					sink.close();
+				}
+				catch (IOException e) {
+					fail(e);
+				}
+			}
+		}
+	}
+}
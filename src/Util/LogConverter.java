@@ -0,0 +1,79 @@
+package Util;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Converts game logs between the text format (LOG.txt) and the binary
+ * format (LOG.rlog). Converting either way and back gives the original file,
+ * except that a text log whose last line has no "\r\n" comes back with one:
+ * the binary format keeps lines, not line endings, so the conversion
+ * normalizes the end of the file.
+ *
+ * Usage: LogConverter [-toBinary|-toText] inFile outFile
+ */
+public class LogConverter {
+	public static void main(String[] args) throws IOException {
+		if (args.length != 3 || !(args[0].equals("-toBinary") || args[0].equals("-toText"))) {
+			System.out.println("Usage: LogConverter [-toBinary|-toText] inFile outFile");
+			return;
+		}
+		if (args[0].equals("-toBinary")) {
+			textToBinary(args[1], args[2]);
+		}
+		else {
+			binaryToText(args[1], args[2]);
+		}
+	}
+	
+	/**
+	 * Converts a text log to the binary format. An unterminated last line is
+	 * kept as a line of its own, so converting back ends it with "\r\n".
+	 */
+	public static void textToBinary(String textFile, String binaryFile) throws IOException {
+		GameLog out = new BinaryGameLog(binaryFile);
+		try (BufferedReader in = new BufferedReader(new FileReader(textFile))) {
+			String line;
+			while ((line = readLine(in)) != null) {
+				out.line(line);
+			}
+		}
+		finally {
+			out.close();
+		}
+	}
+	
+	public static void binaryToText(String binaryFile, String textFile) throws IOException {
+		GameLog out = new TextGameLog(new FileWriter(textFile));
+		try (InputStream in = new BufferedInputStream(new FileInputStream(binaryFile), 1 << 16)) {
+			new BinaryLogReader(in).replayAll(out);
+		}
+		finally {
+			out.close();
+		}
+	}
+	
+	/**
+	 * Reads up to the next "\r\n", the line ending every log is written with;
+	 * unlike BufferedReader.readLine(), a lone '\r' or '\n' stays in the line.
+	 */
+	private static String readLine(BufferedReader in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int c;
+		while ((c = in.read()) >= 0) {
+			if (c == '\r') {
+				in.mark(1);
+				if (in.read() == '\n') {
+					return line.toString();
+				}
+				in.reset();
+			}
+			line.append((char) c);
+		}
+		return line.length() > 0 ? line.toString() : null;
+	}
+}
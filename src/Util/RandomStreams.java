@@ -0,0 +1,63 @@
+package Util;
+import java.util.SplittableRandom;
+
+/**
+ * The independent random number streams used by a single game.
+ *
+ * Every game in a batch is addressed by (master seed, game index), and each
+ * stream is derived directly from that pair, so game #73,412 of a batch can be
+ * replayed on its own without first replaying the games before it. Because no
+ * stream is shared between games, a batch produces the same games whether it
+ * runs serially or on many threads.
+ */
+public class RandomStreams {
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private SplittableRandom dice;
+	private SplittableRandom deck;
+	private SplittableRandom turnOrder;
+
+	public RandomStreams(long masterSeed, long gameIndex) {
+		reset(masterSeed, gameIndex);
+	}
+	
+	/**
+	 * Starts the streams over for another game, exactly as a new instance for (masterSeed, gameIndex) would.
+	 */
+	public void reset(long masterSeed, long gameIndex) {
+		SplittableRandom game = new SplittableRandom(mix64(masterSeed + mix64(gameIndex * GOLDEN_GAMMA)));
+		this.dice = game.split();
+		this.deck = game.split();
+		this.turnOrder = game.split();
+	}
+
+	/**
+	 * Stream used for every dice roll in the game.
+	 */
+	public SplittableRandom getDice() {
+		return this.dice;
+	}
+
+	/**
+	 * Stream used to shuffle the deck, which also decides the initial country allocation.
+	 */
+	public SplittableRandom getDeck() {
+		return this.deck;
+	}
+
+	/**
+	 * Stream used to choose the order of play.
+	 */
+	public SplittableRandom getTurnOrder() {
+		return this.turnOrder;
+	}
+
+	/**
+	 * Stafford variant 13 finaliser; spreads nearby (seed, index) pairs across the whole seed space.
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
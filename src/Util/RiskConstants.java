@@ -7,6 +7,10 @@ import Map.Continent;
 
 public class RiskConstants {
 	public static int SEED = 0;
+	/**
+	 * When true, logged games write the compact LOG.rlog instead of LOG.txt.
+	 */
+	public static boolean BINARY_LOGS = false;
 	
 	public static final int NUM_WILD_CARDS = 2;
 	public static final String[] REG_CARD_TYPES = {"HORSE", "SOLDIER", "CANNON"};
@@ -16,6 +20,7 @@ public class RiskConstants {
 	
 	public static final int MAX_ATK_DICE = 3;
 	public static final int MAX_DFD_DICE = 2;
+	public static final int BATTLE_ODDS_ARMY_CAP = 256;
 	
 	public static final int MIN_PLAYERS = 2;
 	public static final int MAX_PLAYERS = 6;
@@ -23,6 +28,13 @@ public class RiskConstants {
 	public static final String DEFAULT_PLAYERS = "Easy,Normal,Hard";
 	
 	public static final int MAX_ROUNDS = 100000;
+	/**
+	 * Turns a game may go without a country changing hands, and the span in
+	 * which STALEMATE_REPEATS sightings of one position end it; 0 disables
+	 * stalemate detection, leaving only MAX_ROUNDS.
+	 */
+	public static int STALEMATE_WINDOW = 1000;
+	public static final int STALEMATE_REPEATS = 3;
 	
 	public static final int INIT_ARMIES = 120;
 	public static final int MIN_REINFORCEMENTS = 3;
@@ -40,32 +52,49 @@ public class RiskConstants {
 	};
 	
 	public static final int MAX_ATTEMPTS = 5;
+	/**
+	 * After the first exception of each kind that a player throws, about one
+	 * in this many is kept for the failure summary; 0 keeps only the first.
+	 */
+	public static int FAILURE_SAMPLE_RATE = 64;
 	
 	private static final int TURN_IN_START_A = 4;
 	private static final int INC_A = 2;
 	private static final int TURN_IN_SWITCH = 12;
 	private static final int TURN_IN_START_B = 15;
 	private static final int INC_B = 5;
-	private static int LAST_TURN_IN = 0;
+	/**
+	 * The turn-in progression belongs to a single game. A game runs start to
+	 * finish on one thread, so keeping the last value per thread lets several
+	 * games share the JVM without sharing (or corrupting) each other's bonus.
+	 */
+	private static final ThreadLocal<Integer> LAST_TURN_IN = new ThreadLocal<Integer>() {
+		@Override
+		protected Integer initialValue() {
+			return 0;
+		}
+	};
 	
 	private static int getNextTurnInValue() {
-		if (LAST_TURN_IN == 0) {
+		int lastTurnIn = LAST_TURN_IN.get();
+		if (lastTurnIn == 0) {
 			return TURN_IN_START_A;
 		}
-		else if (LAST_TURN_IN < TURN_IN_SWITCH) {
-			return LAST_TURN_IN + INC_A;
+		else if (lastTurnIn < TURN_IN_SWITCH) {
+			return lastTurnIn + INC_A;
 		}
-		else if (LAST_TURN_IN == TURN_IN_SWITCH) {
+		else if (lastTurnIn == TURN_IN_SWITCH) {
 			return TURN_IN_START_B;
 		}
 		else {
-			return LAST_TURN_IN + INC_B;
+			return lastTurnIn + INC_B;
 		}
 	}
 	
 	public static int advanceTurnIn() {
-		LAST_TURN_IN = getNextTurnInValue();
-		return LAST_TURN_IN;
+		int nextTurnIn = getNextTurnInValue();
+		LAST_TURN_IN.set(nextTurnIn);
+		return nextTurnIn;
 	}
 	
 	public static int peekNextTurnIn() {
@@ -73,6 +102,18 @@ public class RiskConstants {
 	}
 	
 	public static void resetTurnIn() {
-		LAST_TURN_IN = 0;
+		LAST_TURN_IN.set(0);
+	}
+	
+	/**
+	 * The last bonus given on this thread; with {@link #setLastTurnIn(int)}
+	 * it lets a game carry its progression over to another thread.
+	 */
+	public static int getLastTurnIn() {
+		return LAST_TURN_IN.get();
+	}
+	
+	public static void setLastTurnIn(int lastTurnIn) {
+		LAST_TURN_IN.set(lastTurnIn);
 	}
 }
\ No newline at end of file
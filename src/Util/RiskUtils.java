@@ -2,14 +2,22 @@ package Util;
 import Map.Continent;
 import Map.Country;
 import Map.RiskMap;
+import Map.Topology;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.Set;
-import javafx.application.Platform;
 
+/**
+ * Board queries shared by the game masters and the players.
+ *
+ * While the board fits in a long (see {@link Topology#FITS_IN_LONG}), the
+ * ownership and connectivity queries run on the precomputed neighbor and
+ * continent masks and on the ownership masks kept by RiskMap. Otherwise
+ * they fall back to searching the country collections.
+ */
 public class RiskUtils {
 	
 	/**
@@ -20,13 +28,13 @@ public class RiskUtils {
 	 */
 	public static int calculateReinforcements(RiskMap map, String playerName) {
 		int reinforcements;
-		int numCountries = getPlayerCountries(map, playerName).size();
+		int numCountries = map.getPlayerCountryCount(playerName);
 		reinforcements = numCountries / RiskConstants.COUNTRY_ARMY_DIVISOR;
 		if (reinforcements < RiskConstants.MIN_REINFORCEMENTS) {
 			reinforcements = RiskConstants.MIN_REINFORCEMENTS;
 		}
 		for (Continent continent : Continent.values()) {
-			if (playerControlsContinent(map, continent, playerName)) {
+			if (map.playerControlsContinent(playerName, continent)) {
 				reinforcements += RiskConstants.CONTINENT_BONUSES.get(continent);
 			}
 		}
@@ -37,9 +45,13 @@ public class RiskUtils {
 	 * Returns all countries that are controlled by the specified player.
 	 */
 	public static Set<Country> getPlayerCountries(RiskMap map, String playerName) {
-		Set<Country> playerCountries = new HashSet<Country>();
+		if (Topology.FITS_IN_LONG) {
+			return Topology.toSet(map.getPlayerCountryMask(playerName));
+		}
+		Set<Country> playerCountries = EnumSet.noneOf(Country.class);
+		byte playerId = map.getPlayerId(playerName);
 		for (Country country : Country.values()) {
-			if (map.getCountryOwner(country).equals(playerName)) {
+			if (map.isOwnedBy(country, playerId)) {
 				playerCountries.add(country);
 			}
 		}
@@ -50,7 +62,7 @@ public class RiskUtils {
 	 * Returns all continents that are controlled by the specified player.
 	 */
 	public static Set<Continent> getPlayerContinents(RiskMap map, String playerName) {
-		Set<Continent> playerContinents = new HashSet<Continent>();
+		Set<Continent> playerContinents = EnumSet.noneOf(Continent.class);
 		for (Continent continent : Continent.values()) {
 			if (playerControlsContinent(map, continent, playerName)) {
 				playerContinents.add(continent);
@@ -63,7 +75,7 @@ public class RiskUtils {
 	 * Returns true IFF the specified player controls the specified continent.
 	 */
 	public static boolean playerControlsContinent(RiskMap map, Continent continent, String playerName) {
-		return playerName.equals(getContinentOwner(map, continent));
+		return map.playerControlsContinent(playerName, continent);
 	}
 	
 	/**
@@ -71,24 +83,26 @@ public class RiskUtils {
 	 * or null if the continent is contested.
 	 */
 	public static String getContinentOwner(RiskMap map, Continent continent) {
-		String owner = null;
-		for (Country country : continent.getCountries()) {
-			if (owner == null) {
-				owner = map.getCountryOwner(country);
-			}
-			else if (!owner.equals(map.getCountryOwner(country))) {
-				return null;
-			}
+		//whoever controls the continent owns any one country of it
+		if (Topology.FITS_IN_LONG) {
+			long continentMask = Topology.getContinentMask(continent);
+			Country country = Country.values()[Long.numberOfTrailingZeros(continentMask)];
+			return (continentMask & ~map.getCountryOwnerMask(country)) == 0L ? map.getCountryOwner(country) : null;
 		}
-		return owner;
+		byte owner = map.getCountryOwnerId(continent.getCountries().iterator().next());
+		return map.playerControlsContinent(owner, continent) ? map.getPlayerName(owner) : null;
 	}
 	
 	/**
 	 * Counts the number of armies controlled by a given player.
+	 * If countrySet is null, the player's total is read straight off the map.
 	 */
 	public static int countPlayerArmies(RiskMap map, String playerName, Set<Country> countrySet) {
+		if (countrySet == null) {
+			return map.getPlayerArmyCount(playerName);
+		}
 		int numArmies = 0;
-		for (Country country : countrySet == null ? getPlayerCountries(map, playerName) : countrySet) {
+		for (Country country : countrySet) {
 			numArmies += map.getCountryArmies(country);
 		}
 		return numArmies;
@@ -98,9 +112,15 @@ public class RiskUtils {
 	 * Returns true IFF start and end are connected by the given player's countries.
 	 */
 	public static boolean areConnected(RiskMap map, Country start, Country end, String playerName, boolean throughFriendlies) {
-		Set<Country> traversed = new HashSet<Country>();
+		if (Topology.FITS_IN_LONG) {
+			long owned = map.getPlayerCountryMask(playerName);
+			long reachable = Topology.getReachableMask(Topology.bit(start), throughFriendlies ? owned : Topology.ALL & ~owned);
+			return (reachable & Topology.bit(end)) != 0L;
+		}
+		Set<Country> traversed = EnumSet.noneOf(Country.class);
 		Deque<Country> toSearch = new LinkedList<Country>();
 		toSearch.addLast(start);
+		byte playerId = map.getPlayerId(playerName);
 		
 		while (toSearch.size() > 0) {
 			Country current = toSearch.removeFirst();
@@ -110,7 +130,7 @@ public class RiskUtils {
 			else {
 				traversed.add(current);
 				for (Country neighbor : current.getNeighbors()) {
-					if (!traversed.contains(neighbor) && throughFriendlies == map.getCountryOwner(neighbor).equals(playerName)) {
+					if (!traversed.contains(neighbor) && throughFriendlies == map.isOwnedBy(neighbor, playerId)) {
 						toSearch.addLast(neighbor);
 					}
 				}
@@ -121,38 +141,34 @@ public class RiskUtils {
 	
 	/**
 	 * For a given player, return all disjoint sets of connected countries that are owned by that player.
+	 * The sets are listed in order of their lowest country ordinal.
 	 */
 	public static Collection<Set<Country>> getAllConnectedCountrySets(RiskMap map, String playerName) {
-		Collection<Country> myCountries = RiskUtils.getPlayerCountries(map, playerName);
-		Collection<Set<Country>> allConnectedSets = new ArrayList<Set<Country>>();
-		for (Country country : myCountries) {
-			boolean alreadyAssigned = false;
-			for (Set<Country> set : allConnectedSets) {
-				if (set.contains(country)) {
-					alreadyAssigned = true;
-				}
-			}
-			if (!alreadyAssigned) {
-				Set<Country> newSet = new HashSet<Country>(getConnectedCountries(map, country, playerName, true, false));
-				allConnectedSets.add(newSet);
-			}
-		}
-		return allConnectedSets;
+		return map.getConnectedComponents(playerName).getComponents();
 	}
 	
 	/**
 	 * The returned set includes the country of origin.
 	 */
 	public static Set<Country> getConnectedCountries(RiskMap map, Country origin, String playerName, boolean ownedByPlayer, boolean restrictToOriginContinent) {
-		Set<Country> connectedSet = new HashSet<Country>();
+		if (Topology.FITS_IN_LONG) {
+			long owned = map.getPlayerCountryMask(playerName);
+			long allowed = ownedByPlayer ? owned : Topology.ALL & ~owned;
+			if (restrictToOriginContinent) {
+				allowed &= Topology.getContinentMask(origin.getContinent());
+			}
+			return Topology.toSet(Topology.getReachableMask(Topology.bit(origin), allowed));
+		}
+		Set<Country> connectedSet = EnumSet.noneOf(Country.class);
 		Deque<Country> toSearch = new LinkedList<Country>();
 		toSearch.addLast(origin);
+		byte playerId = map.getPlayerId(playerName);
 		
 		while (toSearch.size() > 0) {
 			Country current = toSearch.removeFirst();
 			connectedSet.add(current);
 			for (Country neighbor : current.getNeighbors()) {
-				if (ownedByPlayer == map.getCountryOwner(neighbor).equals(playerName)
+				if (ownedByPlayer == map.isOwnedBy(neighbor, playerId)
 					&& !connectedSet.contains(neighbor)
 					&& (!restrictToOriginContinent || neighbor.getContinent() == origin.getContinent())) {
 					toSearch.addLast(neighbor);
@@ -166,12 +182,21 @@ public class RiskUtils {
 	 * Returns the subset of allCountries that is interior or exterior, based on the value of selectInterior.
 	 */
 	public static Set<Country> filterCountriesByBorderStatus(RiskMap map, String playerName, Set<Country> allCountries, boolean selectInterior) {
-		Set<Country> selectedCountries = new HashSet<Country>();
+		Set<Country> selectedCountries = EnumSet.noneOf(Country.class);
 		
+		if (Topology.FITS_IN_LONG) {
+			for (Country country : allCountries) {
+				boolean interior = (Topology.getNeighborMask(country) & ~map.getCountryOwnerMask(country)) == 0L;
+				if (interior == selectInterior) {
+					selectedCountries.add(country);
+				}
+			}
+			return selectedCountries;
+		}
 		for (Country country : allCountries) {
 			boolean interior = true;
 			for (Country neighbor : country.getNeighbors()) {
-				if (!map.getCountryOwner(country).equals(map.getCountryOwner(neighbor))) {
+				if (map.getCountryOwnerId(country) != map.getCountryOwnerId(neighbor)) {
 					interior = false;
 				}
 			}
@@ -187,7 +212,10 @@ public class RiskUtils {
 	 * Returns all border countries of a given continent.
 	 */
 	public static Set<Country> getContinentBorders(RiskMap map, Continent continent) {
-		Set<Country> borderCountries = new HashSet<Country>();
+		if (Topology.FITS_IN_LONG) {
+			return Topology.toSet(Topology.getContinentBorderMask(continent));
+		}
+		Set<Country> borderCountries = EnumSet.noneOf(Country.class);
 		for (Country country : continent.getCountries()) {
 			for (Country neighbor : country.getNeighbors()) {
 				if (neighbor.getContinent() != continent) {
@@ -243,42 +271,4 @@ public class RiskUtils {
 		}
 		return didSucceed;
 	}
-	
-	/**
-     * Equivalent to the default 
-     * {@link javafx.application.Platform #runLater(Runnable)} method,
-     * with the addition of doing a specific delay of some milliseconds before
-     * the {@link java.lang.Runnable Runnable} is queued for execution.
-     * 
-     * @param delayTime time, in milliseconds, to delay before execution attempt
-     * @param newRunnable Runnable to be executed in the future
-     * @return -1 if input is invalid (will not run), -2 if exception occurred 
-     * during setup (will not run), 0 if runnable is setup to run (should run)
-     */
-    public static int runLaterWithDelay(final long delayTime, final Runnable newRunnable){
-    	if (newRunnable == null || delayTime < 0){
-    		return -1;
-    	}
-    	try{
-	    	Thread futureRun = new Thread(new Runnable() {
-	            @Override
-	            public void run() {
-	            	try{
-	                RiskUtils.sleep(delayTime);
-	                Platform.runLater(newRunnable);
-	            	}
-	            	catch (Exception e){
-	            		e.printStackTrace();
-	            	}
-	            }
-	        });
-	    	futureRun.setDaemon(true);
-	    	futureRun.start();
-    	}
-    	catch (Exception e){
-    		e.printStackTrace();
-    		return -2;
-    	}
-    	return 0;
-    }
 }
\ No newline at end of file
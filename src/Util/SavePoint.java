@@ -18,19 +18,19 @@ import java.util.Map;
 
 import Map.Country;
 import Map.RiskMap;
-import Master.FXUIGameMaster;
 import Player.Player;
-import javafx.stage.FileChooser;
-import javafx.stage.Stage;
 
 /**
  * Class to store the state of a game at a given point in time. Relies heavily
- * on {@link FXUIGameMaster} being able to bring itself to a state relatively
+ * on the UI game master being able to bring itself to a state relatively
  * similar to the game being restored through use of very limited information.
+ * Holds no UI code itself; a location picked by the user is chosen by the
+ * caller and passed in.
  */
 public class SavePoint implements Serializable {
 
     private static final long serialVersionUID = 2015022600000001L;
+    private static final String ERROR = "(ERROR!!)", INFO = "(info:)";
     public static final String versionInfo = "FXUI-RISK-SavePoint\nVersion 00x03h\nStamp 2015.11.10.0000\nType:Beta(02)";
     public HashMap<String, String> countriesPlusOwners;
     public HashMap<String, Integer> countriesPlusArmies;
@@ -219,10 +219,13 @@ public class SavePoint implements Serializable {
      * either automatically at each new round, or manually with the "Save"
      * button (with no discernible difference between the two).
      *
+     * @param customFile location picked by the user, or null to save to
+     * defaultSaveName
+     * @param defaultSaveName the current save file name
      * @return returns true on successful save, or false when a show-stopping
      * exception was thrown.
      */
-    public boolean performSave(boolean customSave, String defaultSaveName) {
+    public boolean performSave(File customFile, String defaultSaveName) {
         saveto_filename = defaultSaveName;
         // TODO add informative error messages
         boolean succeeded = false;
@@ -230,18 +233,10 @@ public class SavePoint implements Serializable {
         String messageOut = "";
         try {
             OutputStream fileOutStream = null;
-            if (customSave) {
-                FileChooser fileChooser = new FileChooser();
-                File fileOut = fileChooser.showSaveDialog(new Stage());
-                fileChooser.setTitle("Set your save location & save now:");
-                if (fileOut == null) {
-                    customSave = false;
-                } else {
-                    fileOutStream = new FileOutputStream(fileOut);
-                    saveto_filename = fileOut.getAbsolutePath();
-                }
-            }
-            if (!customSave) {
+            if (customFile != null) {
+                fileOutStream = new FileOutputStream(customFile);
+                saveto_filename = customFile.getAbsolutePath();
+            } else {
                 fileOutStream = new FileOutputStream(saveto_filename);
             }
             OutputStream buffer = new BufferedOutputStream(fileOutStream);
@@ -249,7 +244,7 @@ public class SavePoint implements Serializable {
             output.writeObject(this);
             output.close();
             succeeded = true;
-            System.out.println(FXUIGameMaster.INFO + "Checkpoint saved to " + saveto_filename + ".");
+            System.out.println(INFO + "Checkpoint saved to " + saveto_filename + ".");
             //setSubStatus("checkpoint saved");
         } catch (FileNotFoundException fnfe) {
             messageOut += ("\nCouldn't create or open save file " + saveto_filename);
@@ -270,7 +265,7 @@ public class SavePoint implements Serializable {
                     + " your hardware functioning correctly? Etc etc etc.)");
             eOut = ioe;
         } catch (Exception e) {
-            messageOut += (FXUIGameMaster.ERROR + "Save failed. ::: " + e);
+            messageOut += (ERROR + "Save failed. ::: " + e);
             eOut = e;
         }
         messageOut += this.getLatestSaveDate().toString();
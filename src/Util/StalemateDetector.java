@@ -0,0 +1,102 @@
+package Util;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Watches the positions a game passes through and decides when it has
+ * stopped going anywhere, so that it can be called off long before
+ * {@link RiskConstants#MAX_ROUNDS}.
+ *
+ * The game reports one position hash at the start of every turn. A game is
+ * a stalemate once the same position has come up {@code repeatLimit} times
+ * within the last {@code window} turns, or once no country has changed
+ * hands for {@code window} turns in a row. Only hashes are compared, so a
+ * check costs O(1) whatever the size of the window.
+ */
+public class StalemateDetector {
+	public static final String REPEATED = "The same position was reached again and again.";
+	public static final String NO_PROGRESS = "No country changed hands for too long.";
+	
+	private final int window;
+	private final int repeatLimit;
+	private final long[] recent;
+	private final Map<Long, Integer> recentCounts;
+	private int turns;
+	private long lastOwnership;
+	private int turnsWithoutProgress;
+	
+	/**
+	 * @param window number of turns looked back over; 0 turns detection off
+	 * @param repeatLimit number of sightings of one position that make a stalemate
+	 */
+	public StalemateDetector(int window, int repeatLimit) {
+		this.window = window;
+		this.repeatLimit = repeatLimit;
+		this.recent = new long[Math.max(window, 0)];
+		this.recentCounts = new HashMap<Long, Integer>();
+	}
+	
+	/**
+	 * Forgets every turn recorded so far, for a new game.
+	 */
+	public void reset() {
+		this.recentCounts.clear();
+		this.turns = 0;
+		this.lastOwnership = 0;
+		this.turnsWithoutProgress = 0;
+	}
+	
+	/**
+	 * Records the position at the start of a turn.
+	 * @param positionHash hash of everything that decides how the game can go on from here
+	 * @param ownershipHash hash of the owner of every country
+	 * @return {@link #REPEATED} or {@link #NO_PROGRESS} if the game is a stalemate, null otherwise
+	 */
+	public String recordTurn(long positionHash, long ownershipHash) {
+		if (this.window <= 0) {
+			return null;
+		}
+		if (this.turns > 0 && ownershipHash == this.lastOwnership) {
+			this.turnsWithoutProgress++;
+		}
+		else {
+			this.turnsWithoutProgress = 0;
+		}
+		this.lastOwnership = ownershipHash;
+		
+		int slot = this.turns % this.window;
+		if (this.turns >= this.window) {
+			Long expired = this.recent[slot];
+			int count = this.recentCounts.get(expired);
+			if (count == 1) {
+				this.recentCounts.remove(expired);
+			}
+			else {
+				this.recentCounts.put(expired, count - 1);
+			}
+		}
+		this.recent[slot] = positionHash;
+		Integer seen = this.recentCounts.get(positionHash);
+		int count = seen == null ? 1 : seen + 1;
+		this.recentCounts.put(positionHash, count);
+		this.turns++;
+		
+		if (count >= this.repeatLimit) {
+			return REPEATED;
+		}
+		if (this.turnsWithoutProgress >= this.window) {
+			return NO_PROGRESS;
+		}
+		return null;
+	}
+	
+	/**
+	 * Folds value into hash; used to add the parts of a position that the map does not hold.
+	 */
+	public static long combine(long hash, long value) {
+		long z = (hash ^ value) * 0x9E3779B97F4A7C15L + hash;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
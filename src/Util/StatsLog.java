@@ -0,0 +1,70 @@
+package Util;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import Map.RiskMap;
+
+/**
+ * The turn-by-turn statistics of STATS.txt, kept as a sink of the game's events.
+ *
+ * At the start of every turn, and once more when the game is won, it writes
+ * one row: the number of turns played so far, the round, and then the
+ * countries and armies of each player still in the game, in turn order. The
+ * counts are read from the board as the event arrives, so the sink must be
+ * given the game's own map and live list of players.
+ */
+public class StatsLog extends GameLog.Listener {
+	private Writer out;
+	private RiskMap map;
+	private List<String> players;
+	private int round, turnCount;
+	
+	/**
+	 * @param out where the rows are written; closed with the log
+	 * @param map the game's map
+	 * @param players live list of the players still in the game, in turn order
+	 */
+	public StatsLog(Writer out, RiskMap map, List<String> players) {
+		this.out = out;
+		this.map = map;
+		this.players = players;
+	}
+	
+	@Override
+	public void round(int round) {
+		this.round = round;
+	}
+	
+	@Override
+	public void turnStart(String playerName) {
+		writeRow();
+		this.turnCount++;
+	}
+	
+	@Override
+	public void victor(String playerName) {
+		writeRow();
+	}
+	
+	private void writeRow() {
+		try {
+			this.out.write(this.turnCount + " " + this.round + " ");
+			for (String playerName : this.players) {
+				//count player's countries
+				this.out.write(this.map.getPlayerCountryCount(playerName) + " ");
+				//count player's armies
+				this.out.write(this.map.getPlayerArmyCount(playerName) + " ");
+			}
+			this.out.write("\r\n");
+		}
+		catch (IOException e) {
+			fail(e);
+		}
+	}
+	
+	@Override
+	protected void release() throws IOException {
+		this.out.close();
+	}
+}
@@ -0,0 +1,29 @@
+package Util;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The classic LOG.txt: one English line per event.
+ */
+public class TextGameLog extends GameLog {
+	private Writer out;
+	
+	public TextGameLog(Writer out) {
+		this.out = out;
+	}
+	
+	@Override
+	public void line(String text) {
+		try {
+			this.out.write(text + "\r\n");
+		}
+		catch (IOException e) {
+			fail(e);
+		}
+	}
+	
+	@Override
+	protected void release() throws IOException {
+		this.out.close();
+	}
+}